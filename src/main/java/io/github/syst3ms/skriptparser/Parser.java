@@ -74,7 +74,10 @@ public class Parser {
         subPackages = sub.toArray(new String[0]);
         try {
             for (String mainPackage : mainPackages) {
-                FileUtils.loadClasses(FileUtils.getJarFile(Parser.class), mainPackage, subPackages);
+                // The index generated at build time spares us from scanning the whole JAR file, as long as it lists
+                // this package and is up to date. Scanning rewrites the subpackages it is given, hence the copy.
+                if (!FileUtils.loadIndexedClasses(mainPackage, registration.getLogger(), subPackages))
+                    FileUtils.loadClasses(FileUtils.getJarFile(Parser.class), mainPackage, subPackages.clone());
             }
             if (standalone) {
                 Path parserPath = Paths.get(Parser.class
@@ -133,7 +136,11 @@ public class Parser {
     public static void run(String scriptName, boolean debug) {
         Calendar time = Calendar.getInstance();
         Path scriptPath = Paths.get(scriptName);
-        logs = ScriptLoader.loadScript(scriptPath, debug);
+        if (Files.isDirectory(scriptPath)) {
+            logs = ScriptLoader.loadDirectory(scriptPath, null, Runtime.getRuntime().availableProcessors(), debug);
+        } else {
+            logs = ScriptLoader.loadScript(scriptPath, debug);
+        }
         if (!logs.isEmpty()) {
             System.out.print(ConsoleColors.PURPLE);
             System.out.println("Parsing log :");
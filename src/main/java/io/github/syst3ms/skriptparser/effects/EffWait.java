@@ -46,13 +46,18 @@ public class EffWait extends Effect {
 
     @Override
     public Optional<? extends Statement> walk(TriggerContext ctx) {
+        return Optional.ofNullable(step(ctx));
+    }
+
+    @Nullable
+    @Override
+    public Statement step(TriggerContext ctx) {
         Optional<? extends Duration> dur = duration.getSingle(ctx);
-        if (dur.isEmpty())
-            return getNext();
-        if (getNext().isEmpty())
-            return Optional.empty();
-        ThreadUtils.runAfter(() -> Statement.runAll(getNext().get(), ctx), dur.get());
-        return Optional.empty();
+        var next = getNextStatement();
+        if (dur.isEmpty() || next == null)
+            return next;
+        ThreadUtils.runAfter(() -> Statement.runAll(next, ctx), dur.get());
+        return null;
     }
 
     @Override
@@ -3,9 +3,10 @@ package io.github.syst3ms.skriptparser.expressions;
 import io.github.syst3ms.skriptparser.Parser;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
 import io.github.syst3ms.skriptparser.lang.Expression;
+import io.github.syst3ms.skriptparser.lang.base.NumericExpression;
+import io.github.syst3ms.skriptparser.lang.base.NumericValue;
 import io.github.syst3ms.skriptparser.parsing.ParseContext;
 import io.github.syst3ms.skriptparser.registration.PatternInfos;
-import io.github.syst3ms.skriptparser.util.DoubleOptional;
 import io.github.syst3ms.skriptparser.util.math.BigDecimalMath;
 import io.github.syst3ms.skriptparser.util.math.NumberMath;
 import org.jetbrains.annotations.Nullable;
@@ -22,7 +23,7 @@ import java.util.function.BinaryOperator;
  * @since ALPHA
  * @author Syst3ms
  */
-public class ExprBinaryMathFunctions implements Expression<Number> {
+public class ExprBinaryMathFunctions implements NumericExpression {
 	public static final PatternInfos<BinaryOperator<Number>> PATTERNS = new PatternInfos<>(
 		new Object[][] {
 			{"log[arithm] [base] %number% of %number%", (BinaryOperator<Number>) NumberMath::log},
@@ -44,12 +45,14 @@ public class ExprBinaryMathFunctions implements Expression<Number> {
 	private Expression<Number> first, second;
 
 	static {
-		Parser.getMainRegistration().addExpression(
+		Parser.getMainRegistration().newExpression(
 			ExprBinaryMathFunctions.class,
 			Number.class,
 			true,
 			PATTERNS.getPatterns()
-		);
+		)
+			.setPure()
+			.register();
 	}
 
 	@SuppressWarnings("unchecked")
@@ -62,13 +65,29 @@ public class ExprBinaryMathFunctions implements Expression<Number> {
 	}
 
 	@Override
-	public Number[] getValues(TriggerContext ctx) {
-		DoubleOptional<? extends Number, ? extends Number> args = DoubleOptional.ofOptional(
-				first.getSingle(ctx),
-				second.getSingle(ctx)
-		);
-		BinaryOperator<Number> operator = PATTERNS.getInfo(pattern);
-		return args.mapToOptional((f, s) -> new Number[]{operator.apply(f, s)}).orElse(new Number[0]);
+	public void evaluate(TriggerContext ctx, NumericValue result) {
+		NumericExpression.evaluate(first, ctx, result);
+		var firstKind = result.getKind();
+		var firstLong = result.getLong();
+		var firstDouble = result.getDouble();
+		var firstValue = firstKind == NumericValue.BOXED ? result.get() : null;
+		NumericExpression.evaluate(second, ctx, result);
+		var secondKind = result.getKind();
+		if (firstKind == NumericValue.NONE || secondKind == NumericValue.NONE) {
+			result.set(null);
+			return;
+		}
+		// Only the logarithm of longs and doubles is always a double
+		if (pattern == 0 && firstKind != NumericValue.BOXED && secondKind != NumericValue.BOXED) {
+			result.setDouble(NumberMath.log(
+					firstKind == NumericValue.LONG ? firstLong : firstDouble,
+					secondKind == NumericValue.LONG ? result.getLong() : result.getDouble()
+			));
+			return;
+		}
+		if (firstValue == null)
+			firstValue = firstKind == NumericValue.LONG ? (Number) firstLong : (Number) firstDouble;
+		result.set(PATTERNS.getInfo(pattern).apply(firstValue, result.get()));
 	}
 
 	@Override
@@ -25,15 +25,18 @@ public class ExprBooleanOperators implements Expression<Boolean> {
     private Expression<Boolean> second;
 
     static {
-        Parser.getMainRegistration().addExpression(
+        Parser.getMainRegistration().newExpression(
                 ExprBooleanOperators.class,
                 Boolean.class,
                 true,
-                2,
                 "not %=boolean%",
                 "%=boolean% or %=boolean%",
                 "%=boolean% and %=boolean%"
-        );
+        )
+                .setPure()
+                .setOperator()
+                .setPriority(2)
+                .register();
     }
 
     @SuppressWarnings("unchecked")
@@ -2,13 +2,15 @@ package io.github.syst3ms.skriptparser.expressions;
 
 import io.github.syst3ms.skriptparser.Parser;
 import io.github.syst3ms.skriptparser.lang.Expression;
+import io.github.syst3ms.skriptparser.lang.FoldedLiteral;
 import io.github.syst3ms.skriptparser.lang.Literal;
 import io.github.syst3ms.skriptparser.lang.SimpleLiteral;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
+import io.github.syst3ms.skriptparser.lang.base.NumericExpression;
+import io.github.syst3ms.skriptparser.lang.base.NumericValue;
 import io.github.syst3ms.skriptparser.log.ErrorType;
 import io.github.syst3ms.skriptparser.parsing.ParseContext;
 import io.github.syst3ms.skriptparser.registration.PatternInfos;
-import io.github.syst3ms.skriptparser.util.DoubleOptional;
 import io.github.syst3ms.skriptparser.util.math.BigDecimalMath;
 import org.jetbrains.annotations.Nullable;
 
@@ -46,7 +48,7 @@ import java.util.Optional;
  * @since ALPHA
  * @author Syst3ms
  */
-public class ExprNumberArithmetic implements Expression<Number> {
+public class ExprNumberArithmetic implements NumericExpression {
 
     private enum Operator {
         PLUS('+') {
@@ -88,6 +90,16 @@ public class ExprNumberArithmetic implements Expression<Number> {
                     }
                 }
             }
+
+            @Override
+            public long calculateLong(long left, long right) {
+                return Math.addExact(left, right);
+            }
+
+            @Override
+            public double calculateDouble(double left, double right) {
+                return checkOverflow(left, right, left + right);
+            }
         },
         MINUS('-') {
             @Override
@@ -128,6 +140,16 @@ public class ExprNumberArithmetic implements Expression<Number> {
                     }
                 }
             }
+
+            @Override
+            public long calculateLong(long left, long right) {
+                return Math.subtractExact(left, right);
+            }
+
+            @Override
+            public double calculateDouble(double left, double right) {
+                return checkOverflow(left, right, left - right);
+            }
         },
         MULT('*') {
             @Override
@@ -168,6 +190,16 @@ public class ExprNumberArithmetic implements Expression<Number> {
                     }
                 }
             }
+
+            @Override
+            public long calculateLong(long left, long right) {
+                return Math.multiplyExact(left, right);
+            }
+
+            @Override
+            public double calculateDouble(double left, double right) {
+                return checkOverflow(left, right, left * right);
+            }
         },
         DIV('/') {
             @Override
@@ -182,6 +214,31 @@ public class ExprNumberArithmetic implements Expression<Number> {
                     return BigDecimalMath.getBigDecimal(left).divide(BigDecimalMath.getBigDecimal(right), RoundingMode.HALF_UP);
                 }
             }
+
+            @Override
+            public int getPrimitiveKind(int left, int right) {
+                // Only a long and a double are divided as doubles, anything else gives a BigDecimal
+                return left == NumericValue.LONG && right == NumericValue.DOUBLE || left == NumericValue.DOUBLE && right == NumericValue.LONG
+                        ? NumericValue.DOUBLE
+                        : NumericValue.BOXED;
+            }
+
+            @Override
+            public long calculateLong(long left, long right) {
+                // Two longs are divided as BigDecimals, which getPrimitiveKind already accounts for
+                throw new ArithmeticException("The quotient of two longs isn't a long");
+            }
+
+            @Override
+            public double calculateDouble(double left, double right) {
+                if (left == 0 && right == 0) {
+                    return Double.NaN;
+                } else if (right == 0) {
+                    return Math.copySign(Double.POSITIVE_INFINITY, left);
+                } else {
+                    return left / right;
+                }
+            }
         },
         EXP('^') {
             @Override
@@ -228,6 +285,23 @@ public class ExprNumberArithmetic implements Expression<Number> {
                     }
                 }
             }
+
+            @Override
+            public long calculateLong(long left, long right) {
+                if (right == 0)
+                    return 1;
+                double p = Math.pow(left, right);
+                if (Double.isInfinite(p) || p > Long.MAX_VALUE)
+                    throw new ArithmeticException("long overflow");
+                return (long) p;
+            }
+
+            @Override
+            public double calculateDouble(double left, double right) {
+                if (right == 0)
+                    return 1.0;
+                return checkOverflow(left, right, Math.pow(left, right));
+            }
         };
 
         public final char sign;
@@ -238,11 +312,49 @@ public class ExprNumberArithmetic implements Expression<Number> {
 
         public abstract Number calculate(Number left, Number right);
 
+        /**
+         * @param left the {@linkplain NumericValue#getKind() kind} of the left value
+         * @param right the kind of the right value
+         * @return the kind of the result : {@link NumericValue#LONG} if it is computed by
+         * {@link #calculateLong(long, long)}, {@link NumericValue#DOUBLE} if it is computed by
+         * {@link #calculateDouble(double, double)}, or {@link NumericValue#BOXED} if only
+         * {@link #calculate(Number, Number)} gives the right type
+         */
+        public int getPrimitiveKind(int left, int right) {
+            if (left == NumericValue.LONG && right == NumericValue.LONG) {
+                return NumericValue.LONG;
+            } else if ((left == NumericValue.LONG || left == NumericValue.DOUBLE) && (right == NumericValue.LONG || right == NumericValue.DOUBLE)) {
+                return NumericValue.DOUBLE;
+            } else {
+                // Integers and arbitrary precision numbers
+                return NumericValue.BOXED;
+            }
+        }
+
+        /**
+         * Computes the same result as {@link #calculate(Number, Number)} would with two {@link Long}s
+         * @throws ArithmeticException if the result isn't a {@code long}
+         */
+        public abstract long calculateLong(long left, long right);
+
+        /**
+         * Computes the same result as {@link #calculate(Number, Number)} would with two {@link Double}s, or a
+         * {@link Double} alongside a {@link Long}
+         * @throws ArithmeticException if the result isn't a {@code double}
+         */
+        public abstract double calculateDouble(double left, double right);
+
         @Override
         public String toString() {
             return String.valueOf(sign);
         }
 
+        private static double checkOverflow(double left, double right, double result) {
+            if (Double.isInfinite(result) && Double.isFinite(left) && Double.isFinite(right))
+                throw new ArithmeticException("double overflow");
+            return result;
+        }
+
         private static boolean isZero(Number n) {
             return n instanceof BigDecimal && ((BigDecimal) n).compareTo(BigDecimal.ZERO) == 0 || n.doubleValue() == 0;
         }
@@ -275,13 +387,16 @@ public class ExprNumberArithmetic implements Expression<Number> {
     );
 
     static {
-        Parser.getMainRegistration().addExpression(
+        Parser.getMainRegistration().newExpression(
             ExprNumberArithmetic.class,
             Number.class,
             true,
-            3,
             PATTERNS.getPatterns()
-        );
+        )
+            .setPure()
+            .setOperator()
+            .setPriority(3)
+            .register();
     }
 
     private Expression<? extends Number> first, second;
@@ -293,7 +408,7 @@ public class ExprNumberArithmetic implements Expression<Number> {
         first = (Expression<? extends Number>) exprs[0];
         second = (Expression<? extends Number>) exprs[1];
         op = PATTERNS.getInfo(matchedPattern);
-        if (second instanceof Literal) {
+        if (second instanceof Literal && !(second instanceof FoldedLiteral)) {
             Optional<? extends Number> value = ((Literal<? extends Number>) second).getSingle();
             if (value.filter(Operator::isZero).isPresent()) {
                 parseContext.getLogger().error("Cannot divide by 0 !", ErrorType.SEMANTIC_ERROR);
@@ -304,12 +419,39 @@ public class ExprNumberArithmetic implements Expression<Number> {
     }
 
     @Override
-    public Number[] getValues(TriggerContext ctx) {
-        return DoubleOptional.ofOptional(first.getSingle(ctx), second.getSingle(ctx))
-                .map(f -> (Number) f, s -> (Number) s)
-                .or(() -> DoubleOptional.of(0, 0))
-                .mapToOptional((f, s) -> new Number[]{ op.calculate(f, s) })
-                .orElse(new Number[0]);
+    public void evaluate(TriggerContext ctx, NumericValue result) {
+        NumericExpression.evaluate(first, ctx, result);
+        var leftKind = result.getKind();
+        var leftLong = result.getLong();
+        var leftDouble = result.getDouble();
+        var left = leftKind == NumericValue.BOXED ? result.get() : null;
+        NumericExpression.evaluate(second, ctx, result);
+        var rightKind = result.getKind();
+        if (leftKind == NumericValue.NONE || rightKind == NumericValue.NONE) {
+            // A missing operand makes both of them zero
+            result.set(op.calculate(0, 0));
+            return;
+        }
+        try {
+            switch (op.getPrimitiveKind(leftKind, rightKind)) {
+                case NumericValue.LONG:
+                    result.setLong(op.calculateLong(leftLong, result.getLong()));
+                    return;
+                case NumericValue.DOUBLE:
+                    result.setDouble(op.calculateDouble(
+                            leftKind == NumericValue.LONG ? leftLong : leftDouble,
+                            rightKind == NumericValue.LONG ? result.getLong() : result.getDouble()
+                    ));
+                    return;
+                default:
+                    break;
+            }
+        } catch (ArithmeticException ignored) {
+            // The result doesn't fit, so it is computed from the boxed values instead
+        }
+        if (left == null)
+            left = leftKind == NumericValue.LONG ? (Number) leftLong : (Number) leftDouble;
+        result.set(op.calculate(left, result.get()));
     }
 
     @Override
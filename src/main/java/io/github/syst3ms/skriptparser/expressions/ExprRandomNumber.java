@@ -3,11 +3,12 @@ package io.github.syst3ms.skriptparser.expressions;
 import io.github.syst3ms.skriptparser.Parser;
 import io.github.syst3ms.skriptparser.lang.Expression;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
+import io.github.syst3ms.skriptparser.lang.base.NumericExpression;
+import io.github.syst3ms.skriptparser.lang.base.NumericValue;
 import io.github.syst3ms.skriptparser.parsing.ParseContext;
 import io.github.syst3ms.skriptparser.types.comparisons.Comparator;
 import io.github.syst3ms.skriptparser.types.comparisons.Comparators;
 import io.github.syst3ms.skriptparser.types.comparisons.Relation;
-import io.github.syst3ms.skriptparser.util.DoubleOptional;
 import io.github.syst3ms.skriptparser.util.math.NumberMath;
 import org.jetbrains.annotations.Nullable;
 
@@ -21,7 +22,7 @@ import java.util.concurrent.ThreadLocalRandom;
  * @since ALPHA
  * @author WeeskyBDW
  */
-public class ExprRandomNumber implements Expression<Number> {
+public class ExprRandomNumber implements NumericExpression {
     private Expression<Number> lowerNumber, maxNumber;
     private final ThreadLocalRandom random = ThreadLocalRandom.current();
     private boolean isInteger, isExclusive;
@@ -49,14 +50,73 @@ public class ExprRandomNumber implements Expression<Number> {
     }
 
     @Override
-    public Number[] getValues(TriggerContext ctx) {
-        return DoubleOptional.ofOptional(lowerNumber.getSingle(ctx), maxNumber.getSingle(ctx))
-                .flatMap((l, m) -> DoubleOptional.of(
-                        Relation.SMALLER_OR_EQUAL.is(numComp.apply(l, m)) ? l : m,
-                        Relation.SMALLER_OR_EQUAL.is(numComp.apply(l, m)) ? m : l
-                    )
-                ).mapToOptional((l, m) -> new Number[]{NumberMath.random(l, m, !isExclusive, random)})
-                .orElse(new Number[0]);
+    public void evaluate(TriggerContext ctx, NumericValue result) {
+        NumericExpression.evaluate(lowerNumber, ctx, result);
+        var lowerKind = result.getKind();
+        var lowerLong = result.getLong();
+        var lowerDouble = result.getDouble();
+        var lower = lowerKind == NumericValue.BOXED ? result.get() : null;
+        NumericExpression.evaluate(maxNumber, ctx, result);
+        var maxKind = result.getKind();
+        if (lowerKind == NumericValue.NONE || maxKind == NumericValue.NONE) {
+            result.set(null);
+            return;
+        } else if (lowerKind == NumericValue.LONG && maxKind == NumericValue.LONG) {
+            var max = result.getLong();
+            // The bound made inclusive must still fit in a long
+            if ((isExclusive ? Math.min(lowerLong, max) : Math.max(lowerLong, max)) != Long.MAX_VALUE) {
+                result.setLong(randomLong(lowerLong, max));
+                return;
+            }
+        } else if (lowerKind == NumericValue.DOUBLE && maxKind == NumericValue.DOUBLE) {
+            result.setDouble(randomDouble(lowerDouble, result.getDouble()));
+            return;
+        }
+        if (lower == null)
+            lower = lowerKind == NumericValue.LONG ? (Number) lowerLong : (Number) lowerDouble;
+        var max = result.get();
+        assert max != null;
+        if (Relation.SMALLER_OR_EQUAL.is(numComp.apply(lower, max))) {
+            result.set(NumberMath.random(lower, max, !isExclusive, random));
+        } else {
+            result.set(NumberMath.random(max, lower, !isExclusive, random));
+        }
+    }
+
+    /*
+     * Both primitive versions follow NumberMath.random(Number, Number, boolean, ThreadLocalRandom) for two numbers of
+     * the same type
+     */
+    private long randomLong(long lower, long max) {
+        if (lower > max) {
+            var l = lower;
+            lower = max;
+            max = l;
+        }
+        if (lower == max)
+            return lower;
+        if (isExclusive) {
+            lower++;
+        } else {
+            max++;
+        }
+        return random.nextLong(lower, max);
+    }
+
+    private double randomDouble(double lower, double max) {
+        if (Double.compare(lower, max) > 0) {
+            var l = lower;
+            lower = max;
+            max = l;
+        }
+        if (Double.compare(lower, max) == 0)
+            return lower;
+        if (isExclusive) {
+            lower += Math.ulp(lower);
+        } else {
+            max += Math.ulp(max);
+        }
+        return random.nextDouble(lower, max);
     }
 
     @Override
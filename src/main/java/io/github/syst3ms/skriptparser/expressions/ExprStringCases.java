@@ -42,12 +42,14 @@ public class ExprStringCases implements Expression<String> {
 	);
 
 	static {
-		Parser.getMainRegistration().addExpression(
+		Parser.getMainRegistration().newExpression(
 				ExprStringCases.class,
 				String.class,
 				true,
 				PATTERNS.getPatterns()
-		);
+		)
+				.setPure()
+				.register();
 	}
 
 	private Expression<String> expr;
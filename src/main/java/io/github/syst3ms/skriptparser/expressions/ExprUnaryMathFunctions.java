@@ -3,12 +3,16 @@ package io.github.syst3ms.skriptparser.expressions;
 import io.github.syst3ms.skriptparser.Parser;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
 import io.github.syst3ms.skriptparser.lang.Expression;
+import io.github.syst3ms.skriptparser.lang.base.NumericExpression;
+import io.github.syst3ms.skriptparser.lang.base.NumericValue;
 import io.github.syst3ms.skriptparser.parsing.ParseContext;
 import io.github.syst3ms.skriptparser.registration.PatternInfos;
 import io.github.syst3ms.skriptparser.util.StringUtils;
 import io.github.syst3ms.skriptparser.util.math.NumberMath;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongUnaryOperator;
 import java.util.function.UnaryOperator;
 
 /**
@@ -36,39 +40,42 @@ import java.util.function.UnaryOperator;
  * @since ALPHA
  * @author Syst3ms
  */
-public class ExprUnaryMathFunctions implements Expression<Number> {
+public class ExprUnaryMathFunctions implements NumericExpression {
 
-	private static final PatternInfos<UnaryOperator<Number>> PATTERNS = new PatternInfos<>(
+	private static final PatternInfos<MathFunction> PATTERNS = new PatternInfos<>(
 		new Object[][]{
-			{"abs %number%|\\|%number%\\|", (UnaryOperator<Number>) NumberMath::abs},
-			{"%number%!", (UnaryOperator<Number>) NumberMath::factorial},
-			{"factorial of %number%", (UnaryOperator<Number>) NumberMath::factorial},
-			{"(sqrt|square root of) %number%", (UnaryOperator<Number>) NumberMath::sqrt},
-			{"floor[ed] %number%", (UnaryOperator<Number>) NumberMath::floor},
-			{"ceil[ing|ed] %number%", (UnaryOperator<Number>) NumberMath::ceil},
-			{"round[ed] %number%", (UnaryOperator<Number>) NumberMath::round},
-			{"sin %number%", (UnaryOperator<Number>) NumberMath::sin},
-			{"cos %number%", (UnaryOperator<Number>) NumberMath::cos},
-			{"tan %number%", (UnaryOperator<Number>) NumberMath::tan},
-			{"asin %number%", (UnaryOperator<Number>) NumberMath::asin},
-			{"acos %number%", (UnaryOperator<Number>) NumberMath::acos},
-			{"atan %number%", (UnaryOperator<Number>) NumberMath::atan},
-			{"sinh %number%", (UnaryOperator<Number>) NumberMath::sinh},
-			{"cosh %number%", (UnaryOperator<Number>) NumberMath::cosh},
-			{"tanh %number%", (UnaryOperator<Number>) NumberMath::tanh},
-			{"ln %number%", (UnaryOperator<Number>) NumberMath::ln}
+			{"abs %number%|\\|%number%\\|", new MathFunction(NumberMath::abs, Math::abs, Math::abs)},
+			{"%number%!", new MathFunction(NumberMath::factorial, NumberMath::factorial, null)},
+			{"factorial of %number%", new MathFunction(NumberMath::factorial, NumberMath::factorial, null)},
+			{"(sqrt|square root of) %number%", new MathFunction(NumberMath::sqrt, null, Math::sqrt)},
+			{"floor[ed] %number%", new MathFunction(NumberMath::floor, LongUnaryOperator.identity(), Math::floor)},
+			{"ceil[ing|ed] %number%", new MathFunction(NumberMath::ceil, LongUnaryOperator.identity(), Math::ceil)},
+			{"round[ed] %number%", new MathFunction(NumberMath::round, LongUnaryOperator.identity(), null)},
+			{"sin %number%", new MathFunction(NumberMath::sin, null, NumberMath::sin)},
+			{"cos %number%", new MathFunction(NumberMath::cos, null, NumberMath::cos)},
+			{"tan %number%", new MathFunction(NumberMath::tan, null, NumberMath::tan)},
+			{"asin %number%", new MathFunction(NumberMath::asin, null, Math::asin)},
+			{"acos %number%", new MathFunction(NumberMath::acos, null, Math::acos)},
+			{"atan %number%", new MathFunction(NumberMath::atan, null, Math::atan)},
+			{"sinh %number%", new MathFunction(NumberMath::sinh, null, Math::sinh)},
+			{"cosh %number%", new MathFunction(NumberMath::cosh, null, Math::cosh)},
+			{"tanh %number%", new MathFunction(NumberMath::tanh, null, Math::tanh)},
+			{"ln %number%", new MathFunction(NumberMath::ln, null, Math::log)}
 		}
 	);
 	private int pattern;
 	private Expression<Number> number;
+	private MathFunction function;
 
 	static {
-		Parser.getMainRegistration().addExpression(
+		Parser.getMainRegistration().newExpression(
 			ExprUnaryMathFunctions.class,
 			Number.class,
 			true,
 			PATTERNS.getPatterns()
-		);
+		)
+			.setPure()
+			.register();
 	}
 
 	@SuppressWarnings("unchecked")
@@ -76,14 +83,30 @@ public class ExprUnaryMathFunctions implements Expression<Number> {
 	public boolean init(Expression<?>[] expressions, int matchedPattern, ParseContext parseContext) {
 		pattern = matchedPattern;
 		number = (Expression<Number>) expressions[0];
+		function = PATTERNS.getInfo(pattern);
 		return true;
 	}
 
 	@Override
-	public Number[] getValues(TriggerContext ctx) {
-		return number.getSingle(ctx)
-				.map(n -> new Number[]{ PATTERNS.getInfo(pattern).apply(n) })
-				.orElse(new Number[0]);
+	public void evaluate(TriggerContext ctx, NumericValue result) {
+		NumericExpression.evaluate(number, ctx, result);
+		var kind = result.getKind();
+		try {
+			if (kind == NumericValue.LONG && function.longFunction != null) {
+				result.setLong(function.longFunction.applyAsLong(result.getLong()));
+				return;
+			} else if (kind == NumericValue.LONG && function.doubleFunction != null) {
+				result.setDouble(function.doubleFunction.applyAsDouble(result.getLong()));
+				return;
+			} else if (kind == NumericValue.DOUBLE && function.doubleFunction != null) {
+				result.setDouble(function.doubleFunction.applyAsDouble(result.getDouble()));
+				return;
+			}
+		} catch (ArithmeticException ignored) {
+			// The result doesn't fit, so it is computed from the boxed value instead
+		}
+		if (kind != NumericValue.NONE)
+			result.set(function.function.apply(result.get()));
 	}
 
 	@Override
@@ -114,4 +137,23 @@ public class ExprUnaryMathFunctions implements Expression<Number> {
 			}
 		}
 	}
+
+	/**
+	 * A math function, along with its primitive versions. A primitive version is only given when it returns the same
+	 * type of number as the function itself would for the same input, that is, a {@link Long} for a {@link Long}, or a
+	 * {@link Double} for either a {@link Long} or a {@link Double}.
+	 */
+	private static class MathFunction {
+		private final UnaryOperator<Number> function;
+		@Nullable
+		private final LongUnaryOperator longFunction;
+		@Nullable
+		private final DoubleUnaryOperator doubleFunction;
+
+		MathFunction(UnaryOperator<Number> function, @Nullable LongUnaryOperator longFunction, @Nullable DoubleUnaryOperator doubleFunction) {
+			this.function = function;
+			this.longFunction = longFunction;
+			this.doubleFunction = doubleFunction;
+		}
+	}
 }
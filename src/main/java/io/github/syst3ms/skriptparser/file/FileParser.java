@@ -4,7 +4,9 @@ import io.github.syst3ms.skriptparser.log.ErrorType;
 import io.github.syst3ms.skriptparser.log.SkriptLogger;
 import io.github.syst3ms.skriptparser.util.FileUtils;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -18,66 +20,84 @@ public class FileParser {
      * Parses a {@linkplain List} of strings into a list of {@link FileElement}s. This creates {@link FileElement} and
      * {@link FileSection} objects from the lines, effectively structuring the lines into a tree.
      * This removes comments from each line, and discards any blank lines afterwards.
+     * <br>
+     * The lines are read in a single pass, keeping track of the sections that are currently open : each line either
+     * belongs to the innermost open section, or closes as many sections as it is indented less than it.
      * @param fileName the name of the file the lines belong to
      * @param lines the list of lines to parse
      * @param expectedIndentation the indentation level the first line is expected to be at
-     * @param lastLine a parameter that keeps track of the line count throughout recursive calls of this method when
-     *                 parsing sections
+     * @param lastLine the line number of the first line
      * @param logger the logger
      * @return a list of {@link FileElement}s
      */
     public List<FileElement> parseFileLines(String fileName, List<String> lines, int expectedIndentation, int lastLine, SkriptLogger logger) {
         List<FileElement> elements = new ArrayList<>();
+        // The element lists of the open sections, the outermost one being the list of the top-level elements
+        Deque<List<FileElement>> openSections = new ArrayDeque<>();
+        openSections.push(elements);
+        var currentIndentation = expectedIndentation;
         for (var i = 0; i < lines.size(); i++) {
             var line = lines.get(i);
-            String content;
-            var m = LINE_PATTERN.matcher(line);
-            if (m.matches()) {
-                content = m.group(1).replace("##", "#").strip();
-            } else {
-                content = line.replace("##", "#").strip();
-            }
-            if (content.matches("[\\s#]*")) {
-                elements.add(new VoidElement(fileName, lastLine + i, expectedIndentation));
+            var content = stripComment(line);
+            if (isBlank(content)) {
+                openSections.element().add(new VoidElement(fileName, lastLine + i, currentIndentation));
                 continue;
             }
             var lineIndentation = FileUtils.getIndentationLevel(line, false);
-            if (lineIndentation > expectedIndentation) { // The line is indented too much
+            if (lineIndentation > currentIndentation) { // The line is indented too much
                 logger.error("The line is indented too much (line " + (lastLine + i) + ": \"" + content + "\")", ErrorType.STRUCTURE_ERROR);
                 continue;
-            } else if (lineIndentation < expectedIndentation) { // One indentation behind marks the end of a section
+            } else if (lineIndentation < expectedIndentation) { // The line is outside of what is being parsed
                 return elements;
             }
+            while (currentIndentation > lineIndentation) { // One indentation behind marks the end of a section
+                openSections.pop();
+                currentIndentation--;
+            }
             if (content.endsWith(":")) {
-                if (i + 1 == lines.size()) {
-                    elements.add(new FileSection(fileName, lastLine + i, content.substring(0, content.length() - 1),
-                            new ArrayList<>(), expectedIndentation
-                    ));
-                } else {
-                    var sectionElements = parseFileLines(fileName, lines.subList(i + 1, lines.size()),
-                            expectedIndentation + 1, lastLine + i + 1,
-                            logger);
-                    elements.add(new FileSection(fileName, lastLine + i, content.substring(0, content.length() - 1),
-                            sectionElements, expectedIndentation
-                    ));
-                    i += count(sectionElements);
-                }
+                List<FileElement> sectionElements = new ArrayList<>();
+                openSections.element().add(new FileSection(fileName, lastLine + i, content.substring(0, content.length() - 1),
+                        sectionElements, currentIndentation
+                ));
+                openSections.push(sectionElements);
+                currentIndentation++;
             } else {
-                elements.add(new FileElement(fileName, lastLine + i, content, expectedIndentation));
+                openSections.element().add(new FileElement(fileName, lastLine + i, content, currentIndentation));
             }
         }
         return elements;
     }
 
-    private int count(List<FileElement> elements) {
-        var count = 0;
-        for (var element : elements) {
-            if (element instanceof FileSection) {
-                count += count(((FileSection) element).getElements()) + 1;
-            } else {
-                count++;
+    /**
+     * Removes the comment at the end of a line, if there is one, and strips what remains. A comment starts at the first
+     * {@code #} that isn't doubled, and a doubled {@code ##} stands for a single {@code #}.
+     * This is the same as what {@link #LINE_PATTERN} does.
+     */
+    private static String stripComment(String line) {
+        var end = line.length();
+        for (var i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '#') {
+                if (i + 1 < line.length() && line.charAt(i + 1) == '#') {
+                    i++;
+                } else {
+                    end = i;
+                    break;
+                }
             }
         }
-        return count;
+        var content = end == line.length() ? line : line.substring(0, end);
+        return content.indexOf('#') == -1 ? content.strip() : content.replace("##", "#").strip();
+    }
+
+    /**
+     * Equivalent to {@code content.matches("[\\s#]*")}
+     */
+    private static boolean isBlank(String content) {
+        for (var i = 0; i < content.length(); i++) {
+            var c = content.charAt(i);
+            if (c != '#' && !FileUtils.isRegexWhitespace(c))
+                return false;
+        }
+        return true;
     }
 }
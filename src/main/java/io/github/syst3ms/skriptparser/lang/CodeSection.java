@@ -8,6 +8,7 @@ import io.github.syst3ms.skriptparser.parsing.ScriptLoader;
 import io.github.syst3ms.skriptparser.sections.SecLoop;
 import io.github.syst3ms.skriptparser.sections.SecWhile;
 import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collections;
 import java.util.List;
@@ -68,6 +69,29 @@ public abstract class CodeSection extends Statement {
         last = items.isEmpty() ? null : items.get(items.size() - 1).setNext(getNext().orElse(null));
     }
 
+    /**
+     * Compiles the items inside this section, to be run one after the other. An item whose compiled code returns
+     * {@code false} leaves the section, like {@link Statement#walk(TriggerContext)} would.
+     * @return the compiled items, or an empty Optional if any of them can't be compiled
+     * @see #compile()
+     */
+    protected final Optional<? extends CompiledStatement> compileItems() {
+        var compiled = new CompiledStatement[items.size()];
+        for (var i = 0; i < compiled.length; i++) {
+            var item = items.get(i).compile();
+            if (item.isEmpty())
+                return Optional.empty();
+            compiled[i] = item.get();
+        }
+        return Optional.of(ctx -> {
+            for (var item : compiled) {
+                if (!item.execute(ctx))
+                    break;
+            }
+            return true;
+        });
+    }
+
     /**
      * The items returned by this method are not representative of the execution of the code, meaning that all items
      * in the list may not be all executed. The list should rather be considered as a flat view of all the lines inside the
@@ -83,7 +107,17 @@ public abstract class CodeSection extends Statement {
      * no item after this section, in the latter case
      */
     protected final Optional<? extends Statement> getFirst() {
-        return Optional.ofNullable(first).or(this::getNext);
+        return Optional.ofNullable(getFirstStatement());
+    }
+
+    /**
+     * The same as {@link #getFirst()}, without the Optional
+     * @return the first item of this section, or the item after the section if it's empty, or {@code null} if there is
+     * no item after this section, in the latter case
+     */
+    @Nullable
+    protected final Statement getFirstStatement() {
+        return first != null ? first : getNextStatement();
     }
 
     /**
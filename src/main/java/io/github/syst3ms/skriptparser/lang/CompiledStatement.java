@@ -0,0 +1,19 @@
+package io.github.syst3ms.skriptparser.lang;
+
+/**
+ * A {@link Statement}, along with everything inside of it, turned into plain Java control flow : a section runs its
+ * items in a loop, a {@link Conditional} is an if statement, and so on. Running it calls directly into the
+ * {@link Expression}s and {@link Effect}s involved, without going from one Statement to the next through
+ * {@link Statement#walk(TriggerContext)}.
+ * @see Statement#compile()
+ */
+@FunctionalInterface
+public interface CompiledStatement {
+    /**
+     * Runs the compiled code
+     * @param ctx the context
+     * @return {@code true} to go on with what comes next, or {@code false} to leave the enclosing section, just like
+     * {@link Statement#run(TriggerContext)}
+     */
+    boolean execute(TriggerContext ctx);
+}
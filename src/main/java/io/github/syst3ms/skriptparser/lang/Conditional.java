@@ -6,6 +6,7 @@ import io.github.syst3ms.skriptparser.parsing.ParseContext;
 import io.github.syst3ms.skriptparser.parsing.ParserState;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -31,6 +32,12 @@ public class Conditional extends CodeSection {
         this.mode = mode;
     }
 
+    private Conditional(List<Statement> items) {
+        this.condition = null;
+        this.mode = ConditionalMode.ELSE;
+        setItems(items);
+    }
+
     /**
      * @return the {@link ConditionalMode} describing this Conditional
      * @see ConditionalMode
@@ -41,18 +48,76 @@ public class Conditional extends CodeSection {
 
     @Override
     public Optional<? extends Statement> walk(TriggerContext ctx) {
+        return Optional.ofNullable(step(ctx));
+    }
+
+    @Nullable
+    @Override
+    public Statement step(TriggerContext ctx) {
         assert condition != null || mode == ConditionalMode.ELSE;
         if (mode == ConditionalMode.ELSE) {
-            return getFirst();
+            return getFirstStatement();
         }
         Optional<? extends Boolean> c = condition.getSingle(ctx);
-        if (c.filter(b -> b).isPresent()) {
-            return getFirst();
+        if (c.isPresent() && c.get()) {
+            return getFirstStatement();
         } else if (fallingClause != null) {
-            return Optional.of(fallingClause);
+            return fallingClause;
+        } else {
+            return getNextStatement();
+        }
+    }
+
+    @Override
+    public Optional<? extends CompiledStatement> compile() {
+        var body = compileItems();
+        if (body.isEmpty() || mode == ConditionalMode.ELSE)
+            return body;
+        var then = body.get();
+        CompiledStatement otherwise;
+        if (fallingClause != null) {
+            var fallback = fallingClause.compile();
+            if (fallback.isEmpty())
+                return Optional.empty();
+            otherwise = fallback.get();
         } else {
-            return getNext();
+            otherwise = ctx -> true;
         }
+        assert condition != null;
+        return Optional.of(ctx -> condition.getSingle(ctx).filter(b -> b).isPresent()
+                ? then.execute(ctx)
+                : otherwise.execute(ctx)
+        );
+    }
+
+    /**
+     * @return the condition of this Conditional, which is empty for an "else" Conditional
+     */
+    public Optional<? extends Expression<Boolean>> getCondition() {
+        return Optional.ofNullable(condition);
+    }
+
+    /**
+     * Creates an "else" Conditional holding the items of this Conditional, which always runs them. Unlike putting these
+     * items directly in the enclosing section, an item that stops running still only leaves this Conditional.
+     * @return the new Conditional, which takes over the items of this one
+     */
+    public Conditional withoutCondition() {
+        return new Conditional(items);
+    }
+
+    /**
+     * @return the Conditional this Conditional falls back to when its condition verifies to false
+     */
+    public Optional<? extends Conditional> getFallingClause() {
+        return Optional.ofNullable(fallingClause);
+    }
+
+    /**
+     * Detaches the Conditional this Conditional falls back to, along with all the ones that come after it.
+     */
+    public void removeFallingClause() {
+        fallingClause = null;
     }
 
     /**
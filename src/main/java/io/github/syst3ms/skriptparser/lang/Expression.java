@@ -76,23 +76,20 @@ public interface Expression<T> extends SyntaxElement {
      * be overriden.
      */
     default boolean isSingle() {
-        for (var info : SyntaxManager.getAllExpressions()) {
-            if (info.getSyntaxClass() == getClass()) {
-                return info.getReturnType().isSingle();
-            }
-        }
-        throw new SkriptParserException("Unregistered expression class : " + getClass().getName());
+        var info = SyntaxManager.getExpressionInfo(getClass());
+        if (info.isEmpty())
+            throw new SkriptParserException("Unregistered expression class : " + getClass().getName());
+        return info.get().getReturnType().isSingle();
     }
 
     /**
      * @return the return type of this expression. By default, this is defined on registration, but, like {@linkplain #isSingle()}, can be overriden.
      */
     default Class<? extends T> getReturnType() {
-        return SyntaxManager.getExpressionExact(this)
-                .orElseThrow(() -> new SkriptParserException("Unregistered expression class : " + getClass().getName()))
-                .getReturnType()
-                .getType()
-                .getTypeClass();
+        var info = SyntaxManager.getExpressionExact(this);
+        if (info.isEmpty())
+            throw new SkriptParserException("Unregistered expression class : " + getClass().getName());
+        return info.get().getReturnType().getType().getTypeClass();
     }
 
     /**
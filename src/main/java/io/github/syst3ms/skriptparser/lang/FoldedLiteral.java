@@ -0,0 +1,16 @@
+package io.github.syst3ms.skriptparser.lang;
+
+/**
+ * A literal holding the values of a constant expression, evaluated at parse time. Unlike other literals, its values
+ * weren't written as is in the script, so syntaxes that reject some literal values on initialization, such as a
+ * division by a literal zero, should let these through and leave them for the runtime to handle, as they would have
+ * been before the expression was evaluated ahead of time.
+ * @param <T> the type of the values
+ * @see io.github.syst3ms.skriptparser.registration.ExpressionInfo#isPure()
+ */
+public class FoldedLiteral<T> extends SimpleLiteral<T> {
+
+    public FoldedLiteral(Class<T> c, T[] values) {
+        super(c, values);
+    }
+}
@@ -10,6 +10,16 @@ import java.util.Optional;
  * @see Effect
  */
 public abstract class Statement implements SyntaxElement {
+    /*
+     * Whether a class overrides walk(), in which case step() must go through it
+     */
+    private static final ClassValue<Boolean> WALKS_ITSELF = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return declaredOutsideStatement(type, "walk");
+        }
+    };
+
     @Nullable
     protected CodeSection parent;
     @Nullable
@@ -22,10 +32,18 @@ public abstract class Statement implements SyntaxElement {
      * @return {@code true} if the code ran normally, and {@code false} if any exception occurred
      */
     public static boolean runAll(Statement start, TriggerContext context) {
-        Optional<? extends Statement> item = Optional.of(start);
         try {
-            while (item.isPresent())
-                item = item.flatMap(i -> i.walk(context));
+            var compiled = start instanceof Trigger && Trigger.isCompiling()
+                    ? ((Trigger) start).getCompiledCode()
+                    : Optional.<CompiledStatement>empty();
+            if (compiled.isPresent()) {
+                compiled.get().execute(context);
+                return true;
+            }
+            // Each step hands over the next Statement instead of running it, so that the stack doesn't grow
+            var item = start;
+            while (item != null)
+                item = item.step(context);
             return true;
         } catch (StackOverflowError so) {
             System.err.println("The script repeated itself infinitely !");
@@ -43,6 +61,25 @@ public abstract class Statement implements SyntaxElement {
      */
     public abstract boolean run(TriggerContext ctx);
 
+    /**
+     * Compiles this Statement into code that runs it directly. By default, a Statement that doesn't override
+     * {@link #walk(TriggerContext)} compiles to {@link #run(TriggerContext)}, and any other Statement can't be compiled.
+     * @return the compiled code, or an empty Optional if this Statement can only be walked through
+     */
+    public Optional<? extends CompiledStatement> compile() {
+        if (WALKS_ITSELF.get(getClass()) || declaredOutsideStatement(getClass(), "step"))
+            return Optional.empty();
+        return Optional.of(this::run);
+    }
+
+    private static boolean declaredOutsideStatement(Class<?> type, String methodName) {
+        try {
+            return type.getMethod(methodName, TriggerContext.class).getDeclaringClass() != Statement.class;
+        } catch (NoSuchMethodException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     /**
      * @return the parent of this Statement
      */
@@ -65,12 +102,21 @@ public abstract class Statement implements SyntaxElement {
      *         said section. If this Statement is the very last item of a trigger, returns {@code null}
      */
     public final Optional<? extends Statement> getNext() {
+        return Optional.ofNullable(getNextStatement());
+    }
+
+    /**
+     * The same as {@link #getNext()}, without the Optional
+     * @return the Statement after this one, or {@code null} if this Statement is the very last item of a trigger
+     */
+    @Nullable
+    public final Statement getNextStatement() {
         if (next != null) {
-            return Optional.of(next);
+            return next;
         } else if (parent != null) {
-            return parent.getNext();
+            return parent.getNextStatement();
         } else {
-            return Optional.empty();
+            return null;
         }
     }
 
@@ -91,13 +137,40 @@ public abstract class Statement implements SyntaxElement {
      * @return the next item to be ran, or {@code null} if this is the last item to be executed
      */
     public Optional<? extends Statement> walk(TriggerContext ctx) {
+        return Optional.ofNullable(runAndGetNext(ctx));
+    }
+
+    /**
+     * Executes this Statement and returns the next one to be run, just like {@link #walk(TriggerContext)}, but without
+     * allocating anything. This is what {@link #runAll(Statement, TriggerContext)} calls, and Statements that control
+     * what runs next should override it, and implement {@link #walk(TriggerContext)} on top of it.
+     * <br>
+     * By default, runs {@link #run(TriggerContext)} ; returns {@link #getNextStatement()} if it returns true, or the
+     * Statement after the enclosing section otherwise. A Statement that only overrides
+     * {@link #walk(TriggerContext)} is walked instead.
+     * @param ctx the event
+     * @return the next item to be ran, or {@code null} if this is the last item to be executed
+     */
+    @Nullable
+    public Statement step(TriggerContext ctx) {
+        if (WALKS_ITSELF.get(getClass()))
+            return walk(ctx).orElse(null);
+        return runAndGetNext(ctx);
+    }
+
+    /*
+     * The default behaviour of both walk() and step(), which must never go back to either of them, since an override
+     * of walk() may still call super.walk()
+     */
+    @Nullable
+    private Statement runAndGetNext(TriggerContext ctx) {
         var proceed = run(ctx);
         if (proceed) {
-            return getNext();
+            return getNextStatement();
         } else if (parent != null) {
-            return parent.getNext();
+            return parent.getNextStatement();
         } else {
-            return Optional.empty();
+            return null;
         }
     }
 }
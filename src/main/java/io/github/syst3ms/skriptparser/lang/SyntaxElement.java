@@ -21,6 +21,9 @@ public interface SyntaxElement {
      * an extending class, the only exception being {@link CodeSection#loadSection(FileSection, ParserState, SkriptLogger)}.
      * @param expressions an array of expressions representing all the expressions that are being passed
      *                    to this syntax element. As opposed to Skript, elements of this array can't be {@code null}.
+     *                    The same instances may be passed to every syntax element trying to match the same part of a
+     *                    line, so they must not be modified, unless they are {@link ExpressionList}s, which are never
+     *                    shared.
      * @param matchedPattern the index of the pattern that was successfully matched. It corresponds to the order of
      *                       the syntaxes in registration
      * @param parseContext an object containing additional information about the parsing of this syntax element, like
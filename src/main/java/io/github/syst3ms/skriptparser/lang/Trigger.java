@@ -13,7 +13,14 @@ import java.util.Optional;
  * Usually declares an event.
  */
 public class Trigger extends CodeSection {
+    /*
+     * Can be turned off at startup with -Dskriptparser.compile=false
+     */
+    private static volatile boolean compiling = Boolean.parseBoolean(System.getProperty("skriptparser.compile", "true"));
+
     private final SkriptEvent event;
+    @Nullable
+    private CompiledStatement compiledCode;
 
     public Trigger(SkriptEvent event) {
         this.event = event;
@@ -31,11 +38,55 @@ public class Trigger extends CodeSection {
         setItems(event.loadSection(section, parserState, logger));
         parserState.removeCurrentSection();
         parserState.clearSyntaxRestrictions();
+        compiledCode = compiling ? compile().orElse(null) : null;
+    }
+
+    /**
+     * @return whether triggers are compiled when they are loaded, and run through their compiled code
+     * @see #setCompiling(boolean)
+     */
+    public static boolean isCompiling() {
+        return compiling;
+    }
+
+    /**
+     * Sets whether triggers are compiled when they are loaded, and run through their compiled code. When turned off,
+     * triggers are only ever walked through, including those that were compiled before. On by default.
+     * @param compiling whether to compile triggers
+     * @see Statement#compile()
+     */
+    public static void setCompiling(boolean compiling) {
+        Trigger.compiling = compiling;
     }
 
     @Override
     public Optional<? extends Statement> walk(TriggerContext ctx) {
-        return getFirst().filter(__ -> event.check(ctx));
+        return Optional.ofNullable(step(ctx));
+    }
+
+    @Nullable
+    @Override
+    public Statement step(TriggerContext ctx) {
+        var first = getFirstStatement();
+        return first != null && event.check(ctx) ? first : null;
+    }
+
+    @Override
+    public Optional<? extends CompiledStatement> compile() {
+        return compileItems().map(body -> ctx -> {
+            if (!items.isEmpty() && event.check(ctx))
+                body.execute(ctx);
+            return true;
+        });
+    }
+
+    /**
+     * @return the code of this trigger compiled once it was loaded, or an empty Optional if some of it can only be walked
+     * through
+     * @see Statement#compile()
+     */
+    public Optional<? extends CompiledStatement> getCompiledCode() {
+        return Optional.ofNullable(compiledCode);
     }
 
     @Override
@@ -49,9 +49,10 @@ public class VariableString implements Expression<String> {
      * </ul>. Returns a new instance of a VariableString otherwise.
      */
     public static Optional<VariableString> newInstanceWithQuotes(String s, ParserState parserState, SkriptLogger logger) {
-        if (s.startsWith("\"") && s.endsWith("\"") && StringUtils.nextSimpleCharacterIndex(s, 0) == s.length()) {
+        var tokens = parserState.getParseMemo().getTokens(s);
+        if (s.startsWith("\"") && s.endsWith("\"") && tokens.nextSimpleCharacterIndex(0) == s.length()) {
             return newInstance(s.substring(1, s.length() - 1), parserState, logger);
-        } else if (s.startsWith("'") && s.endsWith("'") && StringUtils.nextSimpleCharacterIndex(s, 0) == s.length()) {
+        } else if (s.startsWith("'") && s.endsWith("'") && tokens.nextSimpleCharacterIndex(0) == s.length()) {
             return Optional.of(new VariableString(new String[]{
                     s.substring(1, s.length() - 1).replace("\\'", "'")
             }));
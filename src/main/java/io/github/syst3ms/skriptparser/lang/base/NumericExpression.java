@@ -0,0 +1,46 @@
+package io.github.syst3ms.skriptparser.lang.base;
+
+import io.github.syst3ms.skriptparser.lang.Expression;
+import io.github.syst3ms.skriptparser.lang.TriggerContext;
+
+/**
+ * An expression returning a single number, that can also be computed into a {@link NumericValue}. This way, nested
+ * numeric expressions pass their intermediate results along as primitive {@code long}s and {@code double}s, without
+ * boxing them, or going through arrays and {@link java.util.Optional}s.
+ * <br>
+ * Whether a value is a {@code long}, a {@code double} or any other {@link Number} is decided from the values the
+ * expression is computed from, each time it is computed. The value computed by
+ * {@link #evaluate(TriggerContext, NumericValue)} must always be equal to the single value of
+ * {@link #getValues(TriggerContext)}, down to its type.
+ */
+public interface NumericExpression extends Expression<Number> {
+    /**
+     * Computes the value of this expression
+     * @param ctx the event
+     * @param result where the value is stored, which may be overwritten while computing it
+     */
+    void evaluate(TriggerContext ctx, NumericValue result);
+
+    @Override
+    default Number[] getValues(TriggerContext ctx) {
+        var result = new NumericValue();
+        evaluate(ctx, result);
+        var value = result.get();
+        return value == null ? new Number[0] : new Number[] {value};
+    }
+
+    /**
+     * Computes the value of any number expression, evaluating it only once
+     * @param expression the expression
+     * @param ctx the event
+     * @param result where the value is stored
+     * @see #evaluate(TriggerContext, NumericValue)
+     */
+    static void evaluate(Expression<? extends Number> expression, TriggerContext ctx, NumericValue result) {
+        if (expression instanceof NumericExpression) {
+            ((NumericExpression) expression).evaluate(ctx, result);
+        } else {
+            result.set(expression.getSingle(ctx).orElse(null));
+        }
+    }
+}
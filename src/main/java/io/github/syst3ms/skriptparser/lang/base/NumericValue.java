@@ -0,0 +1,89 @@
+package io.github.syst3ms.skriptparser.lang.base;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The single value of a {@link NumericExpression}, as computed by
+ * {@link NumericExpression#evaluate(io.github.syst3ms.skriptparser.lang.TriggerContext, NumericValue)}. It is either a
+ * primitive {@code long} or {@code double}, a {@link Number} of any other type, or no value at all.
+ * <br>
+ * Longs and doubles are kept unboxed, so that a whole tree of numeric expressions can pass its intermediate results
+ * along in a single instance, which is overwritten by each of them in turn.
+ */
+public class NumericValue {
+    public static final int NONE = 0;
+    public static final int LONG = 1;
+    public static final int DOUBLE = 2;
+    public static final int BOXED = 3;
+
+    private int kind = NONE;
+    private long longValue;
+    private double doubleValue;
+    @Nullable
+    private Number boxed;
+
+    /**
+     * @return what this value currently holds : {@link #NONE}, {@link #LONG}, {@link #DOUBLE} or {@link #BOXED}
+     */
+    public int getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the value, if it is a {@link #LONG}
+     */
+    public long getLong() {
+        return longValue;
+    }
+
+    /**
+     * @return the value, if it is a {@link #DOUBLE}
+     */
+    public double getDouble() {
+        return doubleValue;
+    }
+
+    /**
+     * @return the value as a {@link Number}, boxing it if need be, or {@literal null} if there is none
+     */
+    @Nullable
+    public Number get() {
+        switch (kind) {
+            case LONG:
+                return longValue;
+            case DOUBLE:
+                return doubleValue;
+            case BOXED:
+                return boxed;
+            default:
+                return null;
+        }
+    }
+
+    public void setLong(long value) {
+        kind = LONG;
+        longValue = value;
+        boxed = null;
+    }
+
+    public void setDouble(double value) {
+        kind = DOUBLE;
+        doubleValue = value;
+        boxed = null;
+    }
+
+    /**
+     * Sets the value, unboxing it if it is a {@link Long} or a {@link Double}
+     * @param value the value, or {@literal null} for no value
+     */
+    public void set(@Nullable Number value) {
+        if (value instanceof Long) {
+            setLong(value.longValue());
+        } else if (value instanceof Double) {
+            setDouble(value.doubleValue());
+        } else {
+            kind = value == null ? NONE : BOXED;
+            boxed = value;
+        }
+    }
+}
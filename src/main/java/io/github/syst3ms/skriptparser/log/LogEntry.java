@@ -1,28 +1,71 @@
 package io.github.syst3ms.skriptparser.log;
 
+import io.github.syst3ms.skriptparser.file.FileElement;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * An entry in Skript's log.
+ * <br>
+ * Most entries logged while parsing end up being discarded, so the final message of an entry is only put together the
+ * first time it is requested.
  */
 public class LogEntry {
     private final LogType type;
-    private final String message;
     private final int line;
-    private final List<ErrorContext> errorContext;
+    private final byte[] errorContext;
     private final ErrorType errorType;
+    // Message
+    @Nullable
+    private String message;
+    @Nullable
+    private Supplier<String> messageSupplier;
+    @Nullable
+    private FileElement fileElement;
+    @Nullable
+    private String fileName;
 
     public LogEntry(String message, LogType verbosity, int line, List<ErrorContext> errorContext, @Nullable ErrorType errorType) {
         this.type = verbosity;
         this.message = message;
         this.line = line;
+        this.errorContext = new byte[errorContext.size()];
+        for (var i = 0; i < this.errorContext.length; i++) {
+            this.errorContext[i] = (byte) errorContext.get(i).ordinal();
+        }
+        this.errorType = errorType;
+    }
+
+    /**
+     * @param message the message, or {@literal null} to use the supplier
+     * @param messageSupplier the supplier of the message, only called if the message is {@literal null}
+     * @param fileElement the element of the file the entry is about, if any
+     * @param errorContext the error context, as {@link ErrorContext} ordinals
+     */
+    LogEntry(@Nullable String message, @Nullable Supplier<String> messageSupplier, LogType verbosity, int line,
+             @Nullable FileElement fileElement, @Nullable String fileName, byte[] errorContext, @Nullable ErrorType errorType) {
+        this.type = verbosity;
+        this.message = message;
+        this.messageSupplier = messageSupplier;
+        this.line = line;
+        this.fileElement = fileElement;
+        this.fileName = fileName;
         this.errorContext = errorContext;
         this.errorType = errorType;
     }
 
     public String getMessage() {
+        if (messageSupplier != null || fileElement != null) {
+            var raw = message != null ? message : messageSupplier.get();
+            message = fileElement == null
+                    ? raw
+                    : String.format(SkriptLogger.LOG_FORMAT, raw, line + 1, fileElement.getLineContent(), fileName);
+            messageSupplier = null;
+            fileElement = null;
+            fileName = null;
+        }
         return message;
     }
 
@@ -30,7 +73,10 @@ public class LogEntry {
         return type;
     }
 
-    List<ErrorContext> getErrorContext() {
+    /**
+     * @return the error context, as {@link ErrorContext} ordinals
+     */
+    byte[] getErrorContext() {
         return errorContext;
     }
 
@@ -0,0 +1,119 @@
+package io.github.syst3ms.skriptparser.log;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * A sequence of calls made to a {@link SkriptLogger}, that can be replayed later on in order to reproduce the exact
+ * same effect on the logger, without having to perform the work that originally led to them.
+ * <br>
+ * Calls are replayed relative to the state of the logger at the time of replaying, so that, for example, error contexts
+ * pile up on top of the current ones, and errors are only logged if no other error is pending.
+ * <br>
+ * Each call is stored as a kind, along with its argument and error type if it has any, so that recording a call doesn't
+ * allocate anything on its own.
+ * @see SkriptLogger#startRecording()
+ * @see SkriptLogger#replay(LogRecording)
+ */
+public class LogRecording {
+    static final byte RECURSE = 0;
+    static final byte CALLBACK = 1;
+    static final byte SET_CONTEXT = 2;
+    static final byte ERROR = 3;
+    static final byte WARN = 4;
+    static final byte INFO = 5;
+    static final byte DEBUG = 6;
+    static final byte FORGET_ERROR = 7;
+    static final byte CLEAR_NOT_ERROR = 8;
+    static final byte CLEAR_LOGS = 9;
+    static final byte LOG_OUTPUT = 10;
+    static final byte REPLAY = 11;
+
+    @Nullable
+    private final LogRecording parent;
+    private byte[] kinds = new byte[8];
+    private Object[] arguments = new Object[8];
+    private ErrorType[] errorTypes = new ErrorType[8];
+    private int size = 0;
+
+    LogRecording(@Nullable LogRecording parent) {
+        this.parent = parent;
+    }
+
+    @Nullable
+    LogRecording getParent() {
+        return parent;
+    }
+
+    /**
+     * Records a call
+     * @param kind the kind of call
+     * @param argument the argument of the call : the message or its supplier, the {@link ErrorContext} or the
+     *                 recording to replay
+     * @param errorType the error type, for errors
+     */
+    void add(byte kind, @Nullable Object argument, @Nullable ErrorType errorType) {
+        if (size == kinds.length) {
+            kinds = Arrays.copyOf(kinds, size * 2);
+            arguments = Arrays.copyOf(arguments, size * 2);
+            errorTypes = Arrays.copyOf(errorTypes, size * 2);
+        }
+        kinds[size] = kind;
+        arguments[size] = argument;
+        errorTypes[size] = errorType;
+        size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    void replayTo(SkriptLogger logger) {
+        for (var i = 0; i < size; i++) {
+            var argument = arguments[i];
+            switch (kinds[i]) {
+                case RECURSE:
+                    logger.recurse();
+                    break;
+                case CALLBACK:
+                    logger.callback();
+                    break;
+                case SET_CONTEXT:
+                    logger.setContext((ErrorContext) argument);
+                    break;
+                case ERROR:
+                    if (argument instanceof String) {
+                        logger.error((String) argument, errorTypes[i]);
+                    } else {
+                        logger.error((Supplier<String>) argument, errorTypes[i]);
+                    }
+                    break;
+                case WARN:
+                    logger.warn((String) argument);
+                    break;
+                case INFO:
+                    logger.info((String) argument);
+                    break;
+                case DEBUG:
+                    logger.debug((String) argument);
+                    break;
+                case FORGET_ERROR:
+                    logger.forgetError();
+                    break;
+                case CLEAR_NOT_ERROR:
+                    logger.clearNotError();
+                    break;
+                case CLEAR_LOGS:
+                    logger.clearLogs();
+                    break;
+                case LOG_OUTPUT:
+                    logger.logOutput();
+                    break;
+                case REPLAY:
+                    logger.replay((LogRecording) argument);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown recorded call : " + kinds[i]);
+            }
+        }
+    }
+}
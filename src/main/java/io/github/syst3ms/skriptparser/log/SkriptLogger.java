@@ -1,17 +1,21 @@
 package io.github.syst3ms.skriptparser.log;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 import io.github.syst3ms.skriptparser.file.FileElement;
 import io.github.syst3ms.skriptparser.file.FileSection;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * An object through which Skript can keep track of errors, warnings and other useful information to the one that writes
  * Skript code.
+ * <br>
+ * Parsing logs a lot of errors that end up being discarded, so logging is kept as cheap as possible : the error context
+ * is a stack of {@link ErrorContext} ordinals, and messages are only formatted once the {@link LogEntry} is read.
  */
 public class SkriptLogger {
     public static final String LOG_FORMAT = "%s (line %d: \"%s\", %s)";
@@ -35,16 +39,9 @@ public class SkriptLogger {
      * ErrorContext.NO_MATCH
      */
     private static final Comparator<LogEntry> ERROR_COMPARATOR = (e1, e2) -> {
-        List<ErrorContext> c1 = e1.getErrorContext(),
-                c2 = e2.getErrorContext();
-        if (!c1.equals(c2)) {
-            var s1 = c1.stream()
-                    .map(c -> Integer.toString(c.ordinal()))
-                    .collect(Collectors.joining());
-            var s2 = c2.stream()
-                    .map(c -> Integer.toString(c.ordinal()))
-                    .collect(Collectors.joining());
-            return s1.compareTo(s2);
+        var c = Arrays.compare(e1.getErrorContext(), e2.getErrorContext());
+        if (c != 0) {
+            return c;
         } else {
             return e1.getErrorType().ordinal() - e2.getErrorType().ordinal();
         }
@@ -53,7 +50,8 @@ public class SkriptLogger {
     private final boolean debug;
     private boolean open = true;
     private boolean hasError = false;
-    private final LinkedList<ErrorContext> errorContext = new LinkedList<>();
+    private byte[] errorContext = new byte[16];
+    private int depth = 0;
     // File
     private String fileName;
     private List<FileElement> fileElements;
@@ -61,10 +59,13 @@ public class SkriptLogger {
     // Logs
     private final List<LogEntry> logEntries = new ArrayList<>();
     private final List<LogEntry> logged = new ArrayList<>();
+    // Recording
+    @Nullable
+    private LogRecording recording;
 
     public SkriptLogger(boolean debug) {
         this.debug = debug;
-        errorContext.addLast(ErrorContext.MATCHING);
+        pushContext(ErrorContext.MATCHING);
     }
 
     public SkriptLogger() {
@@ -120,7 +121,8 @@ public class SkriptLogger {
      * in execution.
      */
     public void recurse() {
-        errorContext.addLast(ErrorContext.MATCHING);
+        record(LogRecording.RECURSE, null, null);
+        pushContext(ErrorContext.MATCHING);
     }
 
     /**
@@ -128,7 +130,8 @@ public class SkriptLogger {
      * in execution.
      */
     public void callback() {
-        errorContext.removeLast();
+        record(LogRecording.CALLBACK, null, null);
+        depth--;
     }
 
     /**
@@ -136,18 +139,21 @@ public class SkriptLogger {
      * @param context the new error context
      */
     public void setContext(ErrorContext context) {
-        errorContext.removeLast();
-        errorContext.addLast(context);
+        record(LogRecording.SET_CONTEXT, context, null);
+        errorContext[depth - 1] = (byte) context.ordinal();
     }
 
-    private void log(String message, LogType type, ErrorType error) {
+    private void pushContext(ErrorContext context) {
+        if (depth == errorContext.length)
+            errorContext = Arrays.copyOf(errorContext, depth * 2);
+        errorContext[depth++] = (byte) context.ordinal();
+    }
+
+    private void log(@Nullable String message, @Nullable Supplier<String> messageSupplier, LogType type, @Nullable ErrorType error) {
         if (open) {
-            List<ErrorContext> ctx = new ArrayList<>(errorContext);
-            if (line == -1) {
-                logEntries.add(new LogEntry(message, type, line, ctx, error));
-            } else {
-                logEntries.add(new LogEntry(String.format(LOG_FORMAT, message, line + 1, fileElements.get(line).getLineContent(), fileName), type, line, ctx, error));
-            }
+            var ctx = Arrays.copyOf(errorContext, depth);
+            var element = line == -1 ? null : fileElements.get(line);
+            logEntries.add(new LogEntry(message, messageSupplier, type, line, element, fileName, ctx, error));
         }
     }
 
@@ -157,9 +163,25 @@ public class SkriptLogger {
      * @param errorType the error type
      */
     public void error(String message, ErrorType errorType) {
+        record(LogRecording.ERROR, message, errorType);
+        if (!hasError) {
+            removeNotError(); // Errors take priority over everything (except DEBUG), so we just delete all other logs
+            log(message, null, LogType.ERROR, errorType);
+            hasError = true;
+        }
+    }
+
+    /**
+     * Logs an error message that is only computed if it ends up being needed. This should be preferred for messages
+     * that are expensive to put together, and are likely to be discarded.
+     * @param message the supplier of the error message
+     * @param errorType the error type
+     */
+    public void error(Supplier<String> message, ErrorType errorType) {
+        record(LogRecording.ERROR, message, errorType);
         if (!hasError) {
-            clearNotError(); // Errors take priority over everything (except DEBUG), so we just delete all other logs
-            log(message, LogType.ERROR, errorType);
+            removeNotError();
+            log(null, message, LogType.ERROR, errorType);
             hasError = true;
         }
     }
@@ -169,7 +191,8 @@ public class SkriptLogger {
      * @param message the warning message
      */
     public void warn(String message) {
-        log(message, LogType.WARNING, null);
+        record(LogRecording.WARN, message, null);
+        log(message, null, LogType.WARNING, null);
     }
 
     /**
@@ -177,7 +200,8 @@ public class SkriptLogger {
      * @param message the info message
      */
     public void info(String message) {
-        log(message, LogType.INFO, null);
+        record(LogRecording.INFO, message, null);
+        log(message, null, LogType.INFO, null);
     }
 
     /**
@@ -185,8 +209,10 @@ public class SkriptLogger {
      * @param message the debug message
      */
     public void debug(String message) {
-        if (debug)
-            log(message, LogType.DEBUG, null);
+        if (debug) {
+            record(LogRecording.DEBUG, message, null);
+            log(message, null, LogType.DEBUG, null);
+        }
     }
 
     /**
@@ -194,6 +220,7 @@ public class SkriptLogger {
      * Should only be called by the parser.
      */
     public void forgetError() {
+        record(LogRecording.FORGET_ERROR, null, null);
         hasError = false;
     }
 
@@ -201,16 +228,27 @@ public class SkriptLogger {
      * Clears every log that is not an error or a debug message.
      */
     public void clearNotError() {
-        logEntries.removeIf(entry -> entry.getErrorContext().size() >= errorContext.size() && entry.getType() != LogType.ERROR && entry.getType() != LogType.DEBUG);
+        record(LogRecording.CLEAR_NOT_ERROR, null, null);
+        removeNotError();
+    }
+
+    private void removeNotError() {
+        if (!logEntries.isEmpty())
+            logEntries.removeIf(entry -> entry.getErrorContext().length >= depth && entry.getType() != LogType.ERROR && entry.getType() != LogType.DEBUG);
     }
 
     /**
      * Clears every log that is not a debug message.
      */
     public void clearLogs() {
-        logEntries.removeIf(entry -> entry.getErrorContext().size() >= errorContext.size() && entry.getType() != LogType.DEBUG);
-        errorContext.removeLast();
-        errorContext.add(ErrorContext.MATCHING);
+        record(LogRecording.CLEAR_LOGS, null, null);
+        removeLogs();
+    }
+
+    private void removeLogs() {
+        if (!logEntries.isEmpty())
+            logEntries.removeIf(entry -> entry.getErrorContext().length >= depth && entry.getType() != LogType.DEBUG);
+        errorContext[depth - 1] = (byte) ErrorContext.MATCHING.ordinal();
         hasError = false;
     }
 
@@ -219,6 +257,7 @@ public class SkriptLogger {
      * and only the error that has the most priority is made definitive.
      */
     public void logOutput() {
+        record(LogRecording.LOG_OUTPUT, null, null);
         logEntries.stream()
                 .filter(e -> e.getType() == LogType.ERROR)
                 .min(ERROR_COMPARATOR)
@@ -228,7 +267,72 @@ public class SkriptLogger {
                 logged.add(entry);
             }
         }
-        clearLogs();
+        removeLogs();
+    }
+
+    /**
+     * Starts recording every call that changes the state of this logger, until {@link #stopRecording(LogRecording)}
+     * is called. Recordings may be nested, in which case the inner recording is also part of the outer one.
+     * @return the new recording
+     */
+    public LogRecording startRecording() {
+        recording = new LogRecording(recording);
+        return recording;
+    }
+
+    /**
+     * Stops a recording previously started with {@link #startRecording()}
+     * @param recording the recording, which must be the latest one to have been started
+     */
+    public void stopRecording(LogRecording recording) {
+        assert this.recording == recording;
+        this.recording = recording.getParent();
+        if (this.recording != null)
+            this.recording.add(LogRecording.REPLAY, recording, null);
+    }
+
+    /**
+     * Replays all calls of a finished recording on this logger, reproducing their effect as if they had just been made.
+     * @param recording the recording to replay
+     */
+    public void replay(LogRecording recording) {
+        var current = this.recording;
+        this.recording = null;
+        try {
+            recording.replayTo(this);
+        } finally {
+            this.recording = current;
+        }
+        if (current != null)
+            current.add(LogRecording.REPLAY, recording, null);
+    }
+
+    private void record(byte kind, @Nullable Object argument, @Nullable ErrorType errorType) {
+        if (recording != null)
+            recording.add(kind, argument, errorType);
+    }
+
+    /**
+     * Creates a logger for the same file as this one, that keeps its own logs until it is {@linkplain #merge(SkriptLogger)
+     * merged} back into this logger. This allows separate parts of a file to be parsed at the same time, on different
+     * threads, each with its own logger.
+     * @return the new logger
+     */
+    public SkriptLogger fork() {
+        var child = new SkriptLogger(debug);
+        child.fileName = fileName;
+        child.fileElements = fileElements;
+        child.line = line;
+        return child;
+    }
+
+    /**
+     * Finishes a logger created by {@link #fork()}, and makes all of its logs definitive in this logger.
+     * @param child the logger to merge
+     */
+    public void merge(SkriptLogger child) {
+        child.logOutput();
+        logged.addAll(child.logged);
     }
 
     /**
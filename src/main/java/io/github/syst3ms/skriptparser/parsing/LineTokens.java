@@ -0,0 +1,91 @@
+package io.github.syst3ms.skriptparser.parsing;
+
+import io.github.syst3ms.skriptparser.util.StringUtils;
+
+import java.util.Arrays;
+
+/**
+ * The structure of a string that is being parsed : which parts of it are string literals or variables that should be
+ * skipped over, and where its parentheses close. The string is scanned once, when it is first needed, instead of every
+ * time a syntax attempts to match it.
+ * <br>
+ * Every query gives the exact same answer as the corresponding method of {@link StringUtils} would give for the string.
+ * @see ParseMemo#getTokens(String)
+ */
+public class LineTokens {
+    private static final int UNKNOWN = -2;
+
+    private final String s;
+    private final int[] nextSimple;
+    private final int[] closingParentheses;
+
+    LineTokens(String s) {
+        this.s = s;
+        var length = s.length();
+        this.nextSimple = new int[length + 1];
+        this.closingParentheses = new int[length];
+        Arrays.fill(closingParentheses, UNKNOWN);
+        // Going backwards, skipping over something amounts to looking up what comes right after it
+        nextSimple[length] = length;
+        for (var i = length - 1; i >= 0; i--) {
+            nextSimple[i] = computeNextSimple(i);
+        }
+    }
+
+    private int computeNextSimple(int i) {
+        var c = s.charAt(i);
+        int skipped;
+        if (c == '\\') {
+            return i == s.length() - 1 ? -1 : i + 1;
+        } else if (c == '{') {
+            skipped = StringUtils.findClosingIndex(s, '{', '}', i);
+        } else if (c == '"' || c == '\'') {
+            skipped = s.indexOf(c, i + 1);
+        } else if (c == 'R' && i < s.length() - 2 && s.charAt(i + 1) == '"') {
+            var m = StringUtils.R_LITERAL_CONTENT_PATTERN.matcher(s).region(i + 2, s.length());
+            skipped = m.lookingAt() ? m.end() + 1 : -1;
+        } else {
+            return i;
+        }
+        if (skipped == -1)
+            return -1;
+        return skipped + 1 >= s.length() ? s.length() : nextSimple[skipped + 1];
+    }
+
+    /**
+     * @return the string these tokens describe
+     */
+    public String getString() {
+        return s;
+    }
+
+    /**
+     * @param index the current index
+     * @return the same as {@link StringUtils#nextSimpleCharacterIndex(String, int)}
+     */
+    public int nextSimpleCharacterIndex(int index) {
+        if (index < 0)
+            throw new StringIndexOutOfBoundsException(index);
+        return nextSimple[Math.min(index, s.length())];
+    }
+
+    /**
+     * @param start the index of an opening parenthesis
+     * @return the same as {@link StringUtils#findClosingIndex(String, char, char, int)} for parentheses
+     */
+    public int findClosingParenthesis(int start) {
+        if (start >= s.length())
+            return -1;
+        var closing = closingParentheses[start];
+        if (closing == UNKNOWN)
+            closingParentheses[start] = closing = StringUtils.findClosingIndex(s, '(', ')', start);
+        return closing;
+    }
+
+    /**
+     * @return whether the whole string is surrounded by a single pair of parentheses
+     */
+    public boolean isParenthesized() {
+        return s.startsWith("(") && s.endsWith(")") && findClosingParenthesis(0) == s.length() - 1;
+    }
+}
@@ -18,7 +18,6 @@ import java.util.regex.MatchResult;
  * An object that provides contextual information during syntax matching.
  */
 public class MatchContext {
-    private final String originalPattern;
     private final PatternElement originalElement;
     // Provided to the syntax's class
     private final ParserState parserState;
@@ -29,13 +28,14 @@ public class MatchContext {
     private final List<MatchResult> regexMatches = new ArrayList<>();
     private int patternIndex = 0;
     private int parseMark = 0;
+    @Nullable
+    private String originalPattern;
 
     public MatchContext(PatternElement e, ParserState parserState, SkriptLogger logger) {
         this(e, parserState, logger, null);
     }
 
     public MatchContext(PatternElement e, ParserState parserState, SkriptLogger logger, @Nullable MatchContext source) {
-        this.originalPattern = e.toString();
         this.originalElement = e;
         this.parserState = parserState;
         this.logger = logger;
@@ -53,6 +53,8 @@ public class MatchContext {
      * @return the string version of {@link #getOriginalElement()}
      */
     public String getOriginalPattern() {
+        if (originalPattern == null)
+            originalPattern = originalElement.toString();
         return originalPattern;
     }
 
@@ -144,7 +146,7 @@ public class MatchContext {
      * @return a {@link ParseContext} based on this {@link MatchContext}
      */
     public ParseContext toParseResult() {
-        return new ParseContext(parserState, originalElement, regexMatches, parseMark, originalPattern, logger);
+        return new ParseContext(parserState, originalElement, regexMatches, parseMark, getOriginalPattern(), logger);
     }
 
     public ParserState getParserState() {
@@ -0,0 +1,356 @@
+package io.github.syst3ms.skriptparser.parsing;
+
+import io.github.syst3ms.skriptparser.lang.Expression;
+import io.github.syst3ms.skriptparser.log.ErrorContext;
+import io.github.syst3ms.skriptparser.log.ErrorType;
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import io.github.syst3ms.skriptparser.pattern.ExpressionElement;
+import io.github.syst3ms.skriptparser.pattern.OptionalGroup;
+import io.github.syst3ms.skriptparser.pattern.PatternElement;
+import io.github.syst3ms.skriptparser.pattern.TextElement;
+import io.github.syst3ms.skriptparser.registration.ExpressionInfo;
+import io.github.syst3ms.skriptparser.types.PatternType;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Matches chains of operators, such as {@code 1 + 2 * 3 - 4} or {@code a and not b or c}, against the patterns of an
+ * expression that are all operators. Rather than looking for operators all over the string and parsing every part of
+ * it that comes before or after one, the string is scanned once for the operators that aren't inside parentheses,
+ * strings or variables, and every part between operators is parsed only once. A chain is then parsed in linear time.
+ * <br>
+ * An operator is either binary, made of an expression, some text and another expression ({@code %number%[ ]+[ ]%number%}),
+ * or prefix, made of some text followed by an expression ({@code not %=boolean%}). All the expressions in the patterns
+ * must be the same. A chain is matched against the patterns exactly like the patterns match it one after the other :
+ * the first pattern binds the loosest, and a chain is split at the leftmost operator whose left side parses. The
+ * resulting {@link Expression} is therefore the same as the one regular matching finds, as long as :
+ * <ul>
+ *     <li>A part of a chain that ends with an operator (like {@code 2 *} in {@code 2 * -3}), or stops in the middle of
+ *     parentheses, a string or a variable, doesn't parse.</li>
+ *     <li>A part of a chain that contains operators is either a literal, or a chain of these operators, and never
+ *     stands for another syntax.</li>
+ * </ul>
+ * @see ExpressionInfo#getOperatorParser()
+ */
+public class OperatorParser {
+    private final List<PatternElement> patterns;
+    // The text searched for, and the same text without the surrounding whitespace
+    private final String[] texts;
+    private final String[] symbols;
+    private final boolean[] prefix;
+    private final ExpressionElement operand;
+    private final PatternType<?> operandType;
+    private final Class<?> operandClass;
+
+    private OperatorParser(List<PatternElement> patterns, String[] texts, boolean[] prefix, ExpressionElement operand) {
+        this.patterns = patterns;
+        this.texts = texts;
+        this.symbols = new String[texts.length];
+        for (var i = 0; i < texts.length; i++) {
+            symbols[i] = texts[i].strip();
+        }
+        this.prefix = prefix;
+        this.operand = operand;
+        this.operandType = operand.getTypes().get(0);
+        this.operandClass = operandType.getType().getTypeClass();
+    }
+
+    /**
+     * @param patterns the patterns of a syntax
+     * @return a parser for these patterns, or an empty {@link Optional} if some of them aren't operators
+     */
+    public static Optional<OperatorParser> of(List<PatternElement> patterns) {
+        var texts = new String[patterns.size()];
+        var prefix = new boolean[patterns.size()];
+        ExpressionElement operand = null;
+        for (var i = 0; i < patterns.size(); i++) {
+            List<PatternElement> elements = new ArrayList<>();
+            for (var element : PatternElement.flatten(patterns.get(i))) {
+                // Optional whitespace around the operator doesn't change anything
+                if (!(element instanceof OptionalGroup) || !isBlank(((OptionalGroup) element).getElement()))
+                    elements.add(element);
+            }
+            var last = elements.get(elements.size() - 1);
+            if (!(last instanceof ExpressionElement) || operand != null && !operand.equals(last))
+                return Optional.empty();
+            operand = (ExpressionElement) last;
+            if (elements.size() == 2 && isText(elements.get(0))) {
+                prefix[i] = true;
+                texts[i] = ((TextElement) elements.get(0)).getText();
+            } else if (elements.size() == 3 && operand.equals(elements.get(0)) && isText(elements.get(1))) {
+                texts[i] = ((TextElement) elements.get(1)).getText();
+            } else {
+                return Optional.empty();
+            }
+        }
+        if (operand == null
+                || operand.getTypes().size() != 1
+                || operand.getAcceptance() != ExpressionElement.Acceptance.ALL)
+            return Optional.empty();
+        return Optional.of(new OperatorParser(patterns, texts, prefix, operand));
+    }
+
+    private static boolean isText(PatternElement element) {
+        return element instanceof TextElement && !((TextElement) element).getText().isBlank();
+    }
+
+    private static boolean isBlank(PatternElement element) {
+        return element instanceof TextElement && ((TextElement) element).getText().isBlank();
+    }
+
+    /**
+     * Scans a string for operators, so that it can then be matched against the patterns.
+     * @param s the string to match
+     * @param info the syntax the operators belong to
+     * @param parserState the current parser state
+     * @param logger the logger
+     * @return the operators of the string, or an empty {@link Optional} if the string should be matched against the
+     * patterns as usual
+     */
+    public Optional<Chain> scan(String s, ExpressionInfo<?, ?> info, ParserState parserState, SkriptLogger logger) {
+        parserState.getParseMemo().validate(s);
+        var occurrences = findOperators(parserState.getParseMemo().getTokens(s));
+        if (occurrences == null)
+            return Optional.empty();
+        return Optional.of(new Chain(s, occurrences, info, parserState, logger));
+    }
+
+    /**
+     * @return the positions of every binary operator outside of parentheses, strings and variables, or {@literal null}
+     * if some of them aren't closed
+     */
+    @Nullable
+    private int[][] findOperators(LineTokens tokens) {
+        var s = tokens.getString();
+        var positions = new int[texts.length][];
+        var counts = new int[texts.length];
+        for (var k = 0; k < texts.length; k++) {
+            positions[k] = new int[prefix[k] ? 0 : 4];
+        }
+        var i = 0;
+        while (i < s.length()) {
+            var next = tokens.nextSimpleCharacterIndex(i);
+            if (next == -1) {
+                return null;
+            } else if (next != i) {
+                i = next;
+                continue;
+            } else if (s.charAt(i) == '(') {
+                var closing = tokens.findClosingParenthesis(i);
+                if (closing == -1)
+                    return null;
+                i = closing + 1;
+                continue;
+            }
+            for (var k = 0; k < texts.length; k++) {
+                if (!prefix[k] && s.regionMatches(true, i, texts[k], 0, texts[k].length())) {
+                    if (counts[k] == positions[k].length)
+                        positions[k] = Arrays.copyOf(positions[k], counts[k] * 2);
+                    positions[k][counts[k]++] = i;
+                }
+            }
+            i++;
+        }
+        for (var k = 0; k < texts.length; k++) {
+            positions[k] = Arrays.copyOf(positions[k], counts[k]);
+        }
+        return positions;
+    }
+
+
+    /**
+     * The operators found in a string, which parts of it are matched against the patterns. Each part is only parsed
+     * once.
+     */
+    public class Chain {
+        private final String s;
+        private final int[][] occurrences;
+        private final ExpressionInfo<?, ?> info;
+        private final ParserState parserState;
+        private final SkriptLogger logger;
+        private final Map<Long, Optional<? extends Expression<?>>> parsed = new HashMap<>();
+
+        private Chain(String s, int[][] occurrences, ExpressionInfo<?, ?> info, ParserState parserState, SkriptLogger logger) {
+            this.s = s;
+            this.occurrences = occurrences;
+            this.info = info;
+            this.parserState = parserState;
+            this.logger = logger;
+        }
+
+        /**
+         * Matches the whole string against one of the patterns, just like the pattern itself would.
+         * @param pattern the index of the pattern
+         * @param context the context the operands are added to when the string matches
+         * @return whether the string matches the pattern
+         */
+        public boolean match(int pattern, MatchContext context) {
+            var operands = match(pattern, 0, s.length());
+            if (operands == null)
+                return false;
+            for (var operand : operands) {
+                context.addExpression(operand);
+            }
+            return true;
+        }
+
+        /**
+         * @return the operands of the given pattern when it matches the given part of the string, or {@literal null}
+         * if it doesn't match
+         */
+        @Nullable
+        private Expression<?>[] match(int pattern, int from, int to) {
+            var start = skipWhitespace(from, to);
+            if (prefix[pattern]) {
+                if (!s.regionMatches(true, start, symbols[pattern], 0, symbols[pattern].length()))
+                    return null;
+                var operand = parse(start + symbols[pattern].length(), to);
+                return operand.isPresent() ? new Expression<?>[] {operand.get()} : null;
+            }
+            var positions = occurrences[pattern];
+            var j = Arrays.binarySearch(positions, start);
+            for (j = j < 0 ? -j - 1 : j; j < positions.length && positions[j] + texts[pattern].length() <= to; j++) {
+                var i = positions[j];
+                if (!isBinary(start, i))
+                    continue;
+                var left = parse(start, i);
+                if (left.isEmpty())
+                    continue;
+                // Just like with the pattern, only the leftmost operand that parses is considered
+                var right = parse(i + texts[pattern].length(), to);
+                return right.isPresent() ? new Expression<?>[] {left.get(), right.get()} : null;
+            }
+            return null;
+        }
+
+        /**
+         * @return whether the operator at the given index comes after an operand, rather than after another operator
+         */
+        private boolean isBinary(int start, int index) {
+            var end = index;
+            while (end > start && Character.isWhitespace(s.charAt(end - 1)))
+                end--;
+            if (end == start)
+                return false;
+            for (var symbol : symbols) {
+                var i = end - symbol.length();
+                if (i >= start
+                        && s.regionMatches(true, i, symbol, 0, symbol.length())
+                        && (i == start || !Character.isLetterOrDigit(symbol.charAt(0)) || !Character.isLetterOrDigit(s.charAt(i - 1))))
+                    return false;
+            }
+            return true;
+        }
+
+        private boolean hasOperator(int start, int to) {
+            for (var k = 0; k < texts.length; k++) {
+                if (prefix[k]) {
+                    if (s.regionMatches(true, start, symbols[k], 0, symbols[k].length()))
+                        return true;
+                    continue;
+                }
+                var positions = occurrences[k];
+                var j = Arrays.binarySearch(positions, start);
+                for (j = j < 0 ? -j - 1 : j; j < positions.length && positions[j] + texts[k].length() <= to; j++) {
+                    if (isBinary(start, positions[j]))
+                        return true;
+                }
+            }
+            return false;
+        }
+
+        private int skipWhitespace(int from, int to) {
+            while (from < to && Character.isWhitespace(s.charAt(from)))
+                from++;
+            return from;
+        }
+
+        /**
+         * Parses part of the string as an operand, the same way the {@link SyntaxParser} would
+         */
+        private Optional<? extends Expression<?>> parse(int from, int to) {
+            var start = skipWhitespace(from, to);
+            var end = to;
+            while (end > start && Character.isWhitespace(s.charAt(end - 1)))
+                end--;
+            var key = (long) start << 32 | end;
+            var result = parsed.get(key);
+            if (result == null) {
+                result = parseOperand(start, end);
+                parsed.put(key, result);
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Optional<? extends Expression<?>> parseOperand(int start, int end) {
+            if (!hasOperator(start, end))
+                return operand.parse(s, start, end, parserState, logger);
+            if (operandClass != Boolean.class) {
+                // Literals come first, as some of them contain operators
+                var literal = SyntaxParser.parseLiteral(s.substring(start, end), (PatternType<Object>) operandType, parserState, logger);
+                if (literal.isPresent())
+                    return literal;
+            }
+            var condition = operandType.equals(SyntaxParser.BOOLEAN_PATTERN_TYPE);
+            for (var k = 0; k < texts.length; k++) {
+                var operands = match(k, start, end);
+                if (operands == null)
+                    continue;
+                var expression = build(k, operands);
+                if (expression.isEmpty())
+                    continue;
+                // The expression must be accepted just like when it is parsed for a pattern, as a condition if need be
+                var accepted = SyntaxParser.acceptExpression(
+                        s.substring(start, end),
+                        info,
+                        expression.get(),
+                        operands,
+                        (PatternType<Object>) operandType,
+                        parserState,
+                        logger
+                );
+                if (accepted.isEmpty()) {
+                    // An expression that can't be converted won't be for any other operator either
+                    if (!operandClass.isAssignableFrom(expression.get().getReturnType()))
+                        return Optional.empty();
+                    continue;
+                }
+                if (condition) {
+                    var conditional = operand.acceptsConditional() ? SyntaxParser.MAYBE_CONDITIONAL : SyntaxParser.NOT_CONDITIONAL;
+                    if (!SyntaxParser.checkConditional(expression.get(), conditional, logger))
+                        return Optional.empty();
+                    SyntaxProfiles.getConditions().acknowledge(info);
+                } else {
+                    SyntaxProfiles.getExpressions(operandClass).acknowledge(info);
+                }
+                logger.clearLogs();
+                return accepted;
+            }
+            return Optional.empty();
+        }
+
+        private Optional<? extends Expression<?>> build(int pattern, Expression<?>[] operands) {
+            var instance = SyntaxParser.newInstance(info);
+            if (instance.isEmpty()) {
+                logger.error("Couldn't instantiate class '" + info.getSyntaxClass().getName() + "'", ErrorType.EXCEPTION);
+                return Optional.empty();
+            }
+            var expression = (Expression<?>) instance.get();
+            var context = new MatchContext(patterns.get(pattern), parserState, logger);
+            for (var e : operands) {
+                context.addExpression(e);
+            }
+            logger.setContext(ErrorContext.INITIALIZATION);
+            if (!expression.init(operands, pattern, context.toParseResult()))
+                return Optional.empty();
+            return Optional.of(expression);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package io.github.syst3ms.skriptparser.parsing;
+
+import io.github.syst3ms.skriptparser.lang.Expression;
+import io.github.syst3ms.skriptparser.lang.SyntaxElement;
+import io.github.syst3ms.skriptparser.lang.TriggerContext;
+import io.github.syst3ms.skriptparser.log.LogRecording;
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import io.github.syst3ms.skriptparser.pattern.ExpressionElement;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Memoizes the sub-expressions parsed while matching a single line, so that the same part of a line is parsed only
+ * once for a given {@link ExpressionElement}, no matter how many syntaxes end up trying to match it.
+ * <br>
+ * Results are keyed by where the parsed string was taken from, and not only by its content : two equal strings at
+ * different places of a line, like both operands of {@code {_x} + {_x}}, are parsed separately, since an
+ * {@link Expression} holds the state its initialization set up and can't be shared between two parents.
+ * <br>
+ * Failed parses are memoized as well. Along with each result is stored a {@link LogRecording} of everything the parse
+ * did to the {@link SkriptLogger}, so that a memoized result reports errors exactly like the original parse did.
+ * <br>
+ * The memo is only valid for the line currently being matched, under the current restrictions of its
+ * {@link ParserState} ; it is cleared as soon as either of these changes.
+ * <br>
+ * The memo also holds the {@link LineTokens} of the strings parsed on the current line, which only depend on the
+ * strings themselves.
+ */
+public class ParseMemo {
+    private final ParserState parserState;
+    private final Map<Key, Entry> table = new HashMap<>();
+    private final Map<String, LineTokens> tokens = new HashMap<>();
+    private int depth = 0;
+    // What the memoized results depend on
+    @Nullable
+    private String line;
+    @Nullable
+    private Class<? extends TriggerContext>[] currentContexts;
+    private int sectionCount;
+    @Nullable
+    private List<Class<? extends SyntaxElement>> allowedSyntaxes;
+    private boolean restrictingExpressions;
+
+    ParseMemo(ParserState parserState) {
+        this.parserState = parserState;
+    }
+
+    /**
+     * Makes sure the memo applies to the given string, clearing it if it doesn't. Only strings matched against top-level
+     * patterns are taken into account, that is outside of any memoized parse.
+     * @param s the string that is about to be matched
+     */
+    public void validate(String s) {
+        if (depth == 0 && s != line) {
+            table.clear();
+            tokens.clear();
+            line = s;
+        }
+        if (parserState.getCurrentContexts() != currentContexts
+                || parserState.getCurrentSectionCount() != sectionCount
+                || parserState.getAllowedSyntaxes() != allowedSyntaxes
+                || parserState.isRestrictingExpressions() != restrictingExpressions) {
+            table.clear();
+            currentContexts = parserState.getCurrentContexts();
+            sectionCount = parserState.getCurrentSectionCount();
+            allowedSyntaxes = parserState.getAllowedSyntaxes();
+            restrictingExpressions = parserState.isRestrictingExpressions();
+        }
+    }
+
+    /**
+     * @param element the element the string is parsed for
+     * @param source the string the parsed string was taken from
+     * @param start the index the parsed string starts at in the source
+     * @param s the parsed string
+     * @return the memoized result of parsing the string, if there is one
+     */
+    public Optional<Entry> get(ExpressionElement element, String source, int start, String s) {
+        return Optional.ofNullable(table.get(new Key(element, source, start, s)));
+    }
+
+    /**
+     * @param s a string on the current line
+     * @return the tokens of the string, scanning it if it hasn't been already
+     */
+    public LineTokens getTokens(String s) {
+        return tokens.computeIfAbsent(s, LineTokens::new);
+    }
+
+    /**
+     * Memoizes the result of parsing a string
+     * @param element the element the string was parsed for
+     * @param source the string the parsed string was taken from
+     * @param start the index the parsed string starts at in the source
+     * @param s the parsed string
+     * @param result the parsed expression, or an empty {@link Optional} if parsing failed
+     * @param recording the recording of the logger during parsing
+     */
+    public void put(ExpressionElement element, String source, int start, String s, Optional<? extends Expression<?>> result, LogRecording recording) {
+        table.put(new Key(element, source, start, s), new Entry(result, recording));
+    }
+
+    /**
+     * Signals that a memoized parse has started
+     */
+    public void enter() {
+        depth++;
+    }
+
+    /**
+     * Signals that a memoized parse has ended
+     */
+    public void exit() {
+        depth--;
+    }
+
+    /**
+     * Where a string was parsed from. Sources are compared by identity : the top-level string is the same object for
+     * the whole line, and a part of it is parsed again only if it is taken out of it again.
+     */
+    private static class Key {
+        private final ExpressionElement element;
+        private final String source;
+        private final int start;
+        private final String s;
+
+        private Key(ExpressionElement element, String source, int start, String s) {
+            this.element = element;
+            this.source = source;
+            this.start = start;
+            this.s = s;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            var key = (Key) o;
+            return source == key.source && start == key.start && s.equals(key.s) && element.equals(key.element);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(element, System.identityHashCode(source), start, s);
+        }
+    }
+
+    /**
+     * A memoized parse result
+     */
+    public static class Entry {
+        private final Optional<? extends Expression<?>> result;
+        private final LogRecording recording;
+
+        private Entry(Optional<? extends Expression<?>> result, LogRecording recording) {
+            this.result = result;
+            this.recording = recording;
+        }
+
+        public Optional<? extends Expression<?>> getResult() {
+            return result;
+        }
+
+        public LogRecording getRecording() {
+            return recording;
+        }
+    }
+}
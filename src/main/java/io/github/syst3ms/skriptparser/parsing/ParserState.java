@@ -3,10 +3,12 @@ package io.github.syst3ms.skriptparser.parsing;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
 import io.github.syst3ms.skriptparser.lang.CodeSection;
 import io.github.syst3ms.skriptparser.lang.SyntaxElement;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * An object that stores data about the current parsing, on the scale of the entire trigger.
@@ -16,6 +18,9 @@ public class ParserState {
     private final LinkedList<CodeSection> currentSections = new LinkedList<>();
     private List<Class<? extends SyntaxElement>> allowedSyntaxes = Collections.emptyList();
     private boolean restrictingExpressions = false;
+    private final ParseMemo parseMemo = new ParseMemo(this);
+    @Nullable
+    private ScriptCache scriptCache;
 
     /**
      * @return the {@link TriggerContext}s handled by the currently parsed event
@@ -31,6 +36,10 @@ public class ParserState {
         return Collections.unmodifiableList(currentSections);
     }
 
+    int getCurrentSectionCount() {
+        return currentSections.size();
+    }
+
     /**
      * Sets the {@link TriggerContext}s handled by the currently parsed event
      * @param currentContexts the handled {@link TriggerContext}s
@@ -80,10 +89,36 @@ public class ParserState {
         return !allowedSyntaxes.isEmpty() && !allowedSyntaxes.contains(c);
     }
 
+    List<Class<? extends SyntaxElement>> getAllowedSyntaxes() {
+        return allowedSyntaxes;
+    }
+
     /**
      * @return whether the current syntax restrictions also apply to expressions
      */
     public boolean isRestrictingExpressions() {
         return restrictingExpressions;
     }
+
+    /**
+     * @return the memo of the sub-expressions parsed on the current line
+     */
+    public ParseMemo getParseMemo() {
+        return parseMemo;
+    }
+
+    /**
+     * @return the cache of the script being parsed, if there is one
+     */
+    public Optional<ScriptCache> getScriptCache() {
+        return Optional.ofNullable(scriptCache);
+    }
+
+    /**
+     * Sets the cache that parsing decisions are read from and recorded to
+     * @param scriptCache the cache of the script being parsed, or {@literal null} if there is none
+     */
+    public void setScriptCache(@Nullable ScriptCache scriptCache) {
+        this.scriptCache = scriptCache;
+    }
 }
@@ -0,0 +1,199 @@
+package io.github.syst3ms.skriptparser.parsing;
+
+import io.github.syst3ms.skriptparser.registration.SyntaxInfo;
+import io.github.syst3ms.skriptparser.registration.SyntaxManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of the parsing decisions made while loading a script, that is kept on disk between loads.
+ * <br>
+ * For every line, the cache remembers which {@link SyntaxInfo} each effect, section, trigger and expression ended up
+ * being parsed with. When the script is loaded again, these syntaxes are tried before any other, which in practice
+ * means that every part of the line matches on the first attempt. A decision that doesn't hold anymore simply falls
+ * back to regular parsing. The cache only changes the order in which syntaxes are tried : a string that several
+ * syntaxes can match is parsed with the one it was parsed with last time, much like {@link SyntaxProfiles} favour the
+ * syntaxes that were used recently.
+ * <br>
+ * A cache file only applies to the exact content it was created from, under the exact same registered syntaxes : it is
+ * keyed by a hash of the script's content and by {@link SyntaxManager#getFingerprint() the syntax fingerprint}.
+ */
+public class ScriptCache {
+    private static final int FORMAT_VERSION = 1;
+    private static final String CACHE_EXTENSION = ".cache";
+    private static final int MAX_STRING_LENGTH = 1 << 24;
+
+    private final Path file;
+    private final String contentHash;
+    private final String fingerprint;
+    private final Map<String, SyntaxInfo<?>> hints;
+    private final Map<String, SyntaxInfo<?>> decisions = new ConcurrentHashMap<>();
+    private final Map<String, SyntaxInfo<?>> syntaxesById;
+    // Whether the decisions differ from the hints, in which case the cache file is outdated
+    private volatile boolean dirty = false;
+
+    private ScriptCache(Path file, String contentHash, String fingerprint, Map<String, SyntaxInfo<?>> hints, Map<String, SyntaxInfo<?>> syntaxesById) {
+        this.file = file;
+        this.contentHash = contentHash;
+        this.fingerprint = fingerprint;
+        this.hints = hints;
+        this.syntaxesById = syntaxesById;
+    }
+
+    /**
+     * Loads the cache of a script from the given directory. If there is no cache file for the script, or if it is
+     * outdated, the returned cache is empty.
+     * <br>
+     * The cache file is named after the script, along with a hash of its absolute path, so that scripts with the same
+     * name in different directories each have their own cache.
+     * @param cacheDirectory the directory holding the cache files
+     * @param scriptPath the script file
+     * @param lines the lines of the script
+     * @return the cache of the script
+     */
+    public static ScriptCache load(Path cacheDirectory, Path scriptPath, List<String> lines) {
+        var pathHash = hash(List.of(scriptPath.toAbsolutePath().normalize().toString()));
+        var file = cacheDirectory.resolve(scriptPath.getFileName() + "-" + pathHash.substring(0, Math.min(16, pathHash.length())) + CACHE_EXTENSION);
+        var contentHash = hash(lines);
+        var fingerprint = SyntaxManager.getFingerprint();
+        var syntaxesById = identifySyntaxes();
+        Map<String, SyntaxInfo<?>> hints = new HashMap<>();
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() == FORMAT_VERSION
+                    && readString(input).equals(contentHash)
+                    && readString(input).equals(fingerprint)) {
+                var size = input.readInt();
+                for (var i = 0; i < size; i++) {
+                    var key = readString(input);
+                    var info = syntaxesById.get(readString(input));
+                    if (info != null)
+                        hints.put(key, info);
+                }
+            }
+        } catch (NoSuchFileException ignored) {
+        } catch (IOException e) {
+            hints.clear(); // A corrupted cache is no cache at all
+        }
+        return new ScriptCache(file, contentHash, fingerprint, hints, syntaxesById);
+    }
+
+    /**
+     * @param line the line the string is on
+     * @param category what the string is parsed as
+     * @param s the string
+     * @return the syntax the string was parsed with the last time this script was loaded, if there is one
+     */
+    public Optional<SyntaxInfo<?>> getHint(int line, String category, String s) {
+        return Optional.ofNullable(hints.get(key(line, category, s)));
+    }
+
+    /**
+     * Records the syntax a string was successfully parsed with
+     * @param line the line the string is on
+     * @param category what the string is parsed as
+     * @param s the string
+     * @param info the syntax
+     */
+    public void record(int line, String category, String s, SyntaxInfo<?> info) {
+        var key = key(line, category, s);
+        decisions.put(key, info);
+        if (hints.get(key) != info)
+            dirty = true;
+    }
+
+    /**
+     * Writes all decisions recorded while loading the script to the cache file, replacing the previous ones. Nothing is
+     * written if the decisions are the same as the ones that were loaded.
+     * @throws IOException if the cache file couldn't be written
+     */
+    public void save() throws IOException {
+        // Every decision matches a hint, so there are as many of them as there are hints only if they are all the same
+        if (!dirty && decisions.size() == hints.size())
+            return;
+        Map<SyntaxInfo<?>, String> ids = new IdentityHashMap<>();
+        for (var entry : syntaxesById.entrySet()) {
+            ids.put(entry.getValue(), entry.getKey());
+        }
+        Files.createDirectories(file.getParent());
+        try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            output.writeInt(FORMAT_VERSION);
+            writeString(output, contentHash);
+            writeString(output, fingerprint);
+            List<Map.Entry<String, SyntaxInfo<?>>> entries = new ArrayList<>(decisions.entrySet());
+            entries.removeIf(e -> !ids.containsKey(e.getValue()));
+            output.writeInt(entries.size());
+            for (var entry : entries) {
+                writeString(output, entry.getKey());
+                writeString(output, ids.get(entry.getValue()));
+            }
+        }
+    }
+
+    private static String key(int line, String category, String s) {
+        return line + ":" + category + ":" + s;
+    }
+
+    /**
+     * Syntaxes are identified by their class, along with their position among the syntaxes registered with the same class
+     */
+    static Map<String, SyntaxInfo<?>> identifySyntaxes() {
+        List<SyntaxInfo<?>> syntaxes = new ArrayList<>();
+        syntaxes.addAll(SyntaxManager.getEffects());
+        syntaxes.addAll(SyntaxManager.getSections());
+        syntaxes.addAll(SyntaxManager.getEvents());
+        syntaxes.addAll(SyntaxManager.getAllExpressions());
+        Map<String, SyntaxInfo<?>> syntaxesById = new HashMap<>();
+        Map<Class<?>, Integer> counts = new HashMap<>();
+        for (var info : syntaxes) {
+            var count = counts.merge(info.getSyntaxClass(), 1, Integer::sum);
+            syntaxesById.put(info.getSyntaxClass().getName() + "#" + count, info);
+        }
+        return syntaxesById;
+    }
+
+    private static String hash(List<String> lines) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            for (var line : lines) {
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return new BigInteger(1, digest.digest()).toString(16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError("SHA-256 is always supported", e);
+        }
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        var length = input.readInt();
+        if (length < 0 || length > MAX_STRING_LENGTH)
+            throw new IOException("Invalid string length : " + length);
+        var bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream output, String s) throws IOException {
+        var bytes = s.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+}
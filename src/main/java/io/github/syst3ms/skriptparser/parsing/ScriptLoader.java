@@ -5,6 +5,8 @@ import io.github.syst3ms.skriptparser.file.FileParser;
 import io.github.syst3ms.skriptparser.file.FileSection;
 import io.github.syst3ms.skriptparser.file.VoidElement;
 import io.github.syst3ms.skriptparser.lang.Conditional;
+import io.github.syst3ms.skriptparser.lang.Literal;
+import io.github.syst3ms.skriptparser.lang.SkriptEvent;
 import io.github.syst3ms.skriptparser.lang.Statement;
 import io.github.syst3ms.skriptparser.lang.Trigger;
 import io.github.syst3ms.skriptparser.lang.UnloadedTrigger;
@@ -14,17 +16,27 @@ import io.github.syst3ms.skriptparser.log.LogEntry;
 import io.github.syst3ms.skriptparser.log.SkriptLogger;
 import io.github.syst3ms.skriptparser.util.FileUtils;
 import io.github.syst3ms.skriptparser.util.MultiMap;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 /**
  * Contains the logic for loading, parsing and interpreting entire script files
  */
 public class ScriptLoader {
+    private static final String SCRIPT_EXTENSION = ".sk";
+    private static final String PROFILES_FILE = "syntax.profiles";
     private static final MultiMap<String, Trigger> triggerMap = new MultiMap<>();
 
     /**
@@ -33,12 +45,147 @@ public class ScriptLoader {
      * @param debug whether debug is enabled
      */
     public static List<LogEntry> loadScript(Path scriptPath, boolean debug) {
+        return loadScript(scriptPath, null, debug);
+    }
+
+    /**
+     * Parses and loads the provided script in memory, using a {@link ScriptCache} stored in the given directory
+     * @param scriptPath the script file to load
+     * @param cacheDirectory the directory script caches are stored in, or {@literal null} to not use any cache
+     * @param debug whether debug is enabled
+     */
+    public static List<LogEntry> loadScript(Path scriptPath, @Nullable Path cacheDirectory, boolean debug) {
+        return loadScripts(Collections.singletonList(scriptPath), cacheDirectory, Runnable::run, debug);
+    }
+
+    /**
+     * Parses and loads all scripts inside of the provided directory and its subdirectories in memory, using up to
+     * the given amount of threads.
+     * @param directory the directory containing the scripts to load
+     * @param cacheDirectory the directory script caches are stored in, or {@literal null} to not use any cache
+     * @param parallelism the amount of threads used for parsing
+     * @param debug whether debug is enabled
+     * @return the logs of all scripts, one script after the other
+     * @see #loadScripts(List, Path, Executor, boolean)
+     */
+    public static List<LogEntry> loadDirectory(Path directory, @Nullable Path cacheDirectory, int parallelism, boolean debug) {
+        List<Path> scriptPaths;
+        try (var files = Files.walk(directory)) {
+            scriptPaths = files.filter(Files::isRegularFile)
+                    .filter(p -> p.getFileName().toString().endsWith(SCRIPT_EXTENSION))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+        var executor = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            return loadScripts(scriptPaths, cacheDirectory, executor, debug);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Parses and loads the provided scripts in memory. Scripts are parsed in parallel using the given {@link Executor},
+     * but triggers are still loaded by decreasing {@link SkriptEvent#getLoadingPriority() loading priority} across all
+     * scripts : no trigger is loaded before all triggers of a higher priority are loaded and handled.
+     * Triggers sharing the same loading priority are loaded in parallel, each with its own {@linkplain SkriptLogger#fork()
+     * forked logger}. Using {@code Runnable::run} as the executor loads everything sequentially on the calling thread.
+     * <br>
+     * Triggers are handled and registered on the calling thread, in the same order as if all scripts were loaded one
+     * after the other.
+     * <br>
+     * When a cache directory is given, the {@link SyntaxProfiles} are saved to it as well, and are loaded back from it
+     * if nothing was parsed yet.
+     * @param scriptPaths the script files to load
+     * @param cacheDirectory the directory script caches are stored in, or {@literal null} to not use any cache
+     * @param executor the executor scripts are parsed on
+     * @param debug whether debug is enabled
+     * @return the logs of all scripts, in the order the scripts were provided in
+     */
+    public static List<LogEntry> loadScripts(List<Path> scriptPaths, @Nullable Path cacheDirectory, Executor executor, boolean debug) {
+        if (cacheDirectory != null && SyntaxProfiles.isEmpty()) {
+            try {
+                SyntaxProfiles.load(cacheDirectory.resolve(PROFILES_FILE));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        List<CompletableFuture<Optional<LoadingScript>>> parsing = new ArrayList<>();
+        for (var scriptPath : scriptPaths) {
+            parsing.add(CompletableFuture.supplyAsync(() -> parseScript(scriptPath, cacheDirectory, debug), executor));
+        }
+        List<LoadingScript> scripts = new ArrayList<>();
+        for (var future : parsing) {
+            future.join().ifPresent(scripts::add);
+        }
+
+        var priorities = scripts.stream()
+                .flatMap(script -> script.unloadedTriggers.stream())
+                .map(unloaded -> unloaded.getTrigger().getEvent().getLoadingPriority())
+                .distinct()
+                .sorted(Comparator.reverseOrder())
+                .collect(Collectors.toList());
+        for (int priority : priorities) {
+            List<List<UnloadedTrigger>> triggers = new ArrayList<>();
+            List<List<SkriptLogger>> loggers = new ArrayList<>();
+            List<CompletableFuture<Void>> loading = new ArrayList<>();
+            for (var script : scripts) {
+                var scriptTriggers = script.nextTriggers(priority);
+                List<SkriptLogger> scriptLoggers = new ArrayList<>();
+                for (var unloaded : scriptTriggers) {
+                    var logger = script.logger.fork();
+                    scriptLoggers.add(logger);
+                    loading.add(CompletableFuture.runAsync(() -> {
+                        logger.setLine(unloaded.getLine());
+                        unloaded.getTrigger().loadSection(unloaded.getSection(), unloaded.getParserState(), logger);
+                    }, executor));
+                }
+                triggers.add(scriptTriggers);
+                loggers.add(scriptLoggers);
+            }
+            // Handling triggers may affect how the following ones are loaded, hence the barrier
+            CompletableFuture.allOf(loading.toArray(new CompletableFuture<?>[0])).join();
+            for (var i = 0; i < scripts.size(); i++) {
+                var script = scripts.get(i);
+                for (var j = 0; j < triggers.get(i).size(); j++) {
+                    var loaded = triggers.get(i).get(j);
+                    script.logger.merge(loggers.get(i).get(j));
+                    loaded.getEventInfo().getRegisterer().handleTrigger(loaded.getTrigger());
+                    triggerMap.putOne(script.scriptName, loaded.getTrigger());
+                }
+            }
+        }
+
+        List<LogEntry> logs = new ArrayList<>();
+        for (var script : scripts) {
+            logs.addAll(script.finish());
+        }
+        if (cacheDirectory != null) {
+            try {
+                SyntaxProfiles.save(cacheDirectory.resolve(PROFILES_FILE));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return logs;
+    }
+
+    /**
+     * Parses the file structure of a script, along with the events of all of its triggers
+     */
+    private static Optional<LoadingScript> parseScript(Path scriptPath, @Nullable Path cacheDirectory, boolean debug) {
         var parser = new FileParser();
         var logger = new SkriptLogger(debug);
         List<FileElement> elements;
         String scriptName;
+        ScriptCache cache = null;
         try {
             var lines = FileUtils.readAllLines(scriptPath);
+            if (cacheDirectory != null)
+                cache = ScriptCache.load(cacheDirectory, scriptPath, lines);
             scriptName = scriptPath.getFileName().toString().replaceAll("(.+)\\..+", "$1");
             elements = parser.parseFileLines(scriptName,
                     lines,
@@ -49,7 +196,7 @@ public class ScriptLoader {
             logger.logOutput();
         } catch (IOException e) {
             e.printStackTrace();
-            return Collections.emptyList();
+            return Optional.empty();
         }
         logger.setFileInfo(scriptPath.getFileName().toString(), elements);
         List<UnloadedTrigger> unloadedTriggers = new ArrayList<>();
@@ -59,7 +206,7 @@ public class ScriptLoader {
             if (element instanceof VoidElement)
                 continue;
             if (element instanceof FileSection) {
-                var trig = SyntaxParser.parseTrigger((FileSection) element, logger);
+                var trig = SyntaxParser.parseTrigger((FileSection) element, cache, logger);
                 trig.ifPresent(t -> {
                     logger.setLine(logger.getLine() + ((FileSection) element).length());
                     unloadedTriggers.add(t);
@@ -68,17 +215,9 @@ public class ScriptLoader {
                 logger.error("Can't have code outside of a trigger", ErrorType.STRUCTURE_ERROR);
             }
         }
-        unloadedTriggers.sort((a, b) -> b.getTrigger().getEvent().getLoadingPriority() - a.getTrigger().getEvent().getLoadingPriority());
-        for (var unloaded : unloadedTriggers) {
-            logger.logOutput();
-            logger.setLine(unloaded.getLine());
-            var loaded = unloaded.getTrigger();
-            loaded.loadSection(unloaded.getSection(), unloaded.getParserState(), logger);
-            unloaded.getEventInfo().getRegisterer().handleTrigger(loaded);
-            triggerMap.putOne(scriptName, loaded);
-        }
         logger.logOutput();
-        return logger.close();
+        unloadedTriggers.sort((a, b) -> b.getTrigger().getEvent().getLoadingPriority() - a.getTrigger().getEvent().getLoadingPriority());
+        return Optional.of(new LoadingScript(scriptName, logger, cache, unloadedTriggers));
     }
 
     /**
@@ -104,7 +243,7 @@ public class ScriptLoader {
                     var booleanExpression = SyntaxParser.parseBooleanExpression(toParse, SyntaxParser.MAYBE_CONDITIONAL, parserState, logger);
                     if (booleanExpression.isEmpty())
                         continue;
-                    booleanExpression = booleanExpression.filter(__ -> parserState.forbidsSyntax(Conditional.class));
+                    booleanExpression = booleanExpression.filter(__ -> !parserState.forbidsSyntax(Conditional.class));
                     booleanExpression.ifPresent(b -> items.add(new Conditional(sec, b, Conditional.ConditionalMode.IF, parserState, logger)));
                     if (booleanExpression.isEmpty()) {
                         logger.setContext(ErrorContext.RESTRICTED_SYNTAXES);
@@ -121,7 +260,7 @@ public class ScriptLoader {
                     var booleanExpression = SyntaxParser.parseBooleanExpression(toParse, SyntaxParser.MAYBE_CONDITIONAL, parserState, logger);
                     if (booleanExpression.isEmpty())
                         continue;
-                    booleanExpression = booleanExpression.filter(__ -> parserState.forbidsSyntax(Conditional.class));
+                    booleanExpression = booleanExpression.filter(__ -> !parserState.forbidsSyntax(Conditional.class));
                     booleanExpression.ifPresent(
                             b -> ((Conditional) items.get(items.size() - 1)).setFallingClause(
                                     new Conditional(sec, b, Conditional.ConditionalMode.ELSE_IF, parserState, logger)
@@ -161,14 +300,111 @@ public class ScriptLoader {
             }
         }
         logger.logOutput();
-        for (var i = 0; i + 1 < items.size(); i++) {
-            items.get(i).setNext(items.get(i + 1));
+        var statements = pruneConditionals(items);
+        for (var i = 0; i + 1 < statements.size(); i++) {
+            statements.get(i).setNext(statements.get(i + 1));
         }
         logger.callback();
-        return items;
+        return statements;
+    }
+
+    /**
+     * Removes the clauses of {@link Conditional}s whose condition is a constant, since which of them runs is already
+     * known. A clause whose condition is always false is dropped, and so is everything after a clause whose condition
+     * is always true. If the first remaining clause always runs, it takes the place of the whole Conditional as an
+     * "else" Conditional, so that its items still leave that clause, and not the enclosing section, when they stop.
+     * @param items the items of a section
+     * @return the items, without the clauses that can never run
+     */
+    private static List<Statement> pruneConditionals(List<Statement> items) {
+        List<Statement> pruned = new ArrayList<>(items.size());
+        for (var item : items) {
+            if (!(item instanceof Conditional)) {
+                pruned.add(item);
+                continue;
+            }
+            List<Conditional> kept = new ArrayList<>();
+            var alwaysRuns = false;
+            var clause = (Conditional) item;
+            while (clause != null && !alwaysRuns) {
+                var condition = clause.getCondition();
+                if (condition.isEmpty()) {
+                    alwaysRuns = true;
+                } else if (condition.get() instanceof Literal && condition.get().isSingle()) {
+                    var value = ((Literal<? extends Boolean>) condition.get()).getSingle();
+                    if (value.isEmpty() || !value.get()) {
+                        clause = clause.getFallingClause().orElse(null);
+                        continue;
+                    }
+                    alwaysRuns = true;
+                }
+                kept.add(clause);
+                clause = clause.getFallingClause().orElse(null);
+            }
+            if (kept.isEmpty()) {
+                continue;
+            } else if (alwaysRuns && kept.size() == 1) {
+                pruned.add(kept.get(0).withoutCondition());
+                continue;
+            }
+            var first = kept.get(0);
+            for (var c : kept) {
+                c.removeFallingClause();
+            }
+            for (var i = 1; i < kept.size(); i++) {
+                first.setFallingClause(kept.get(i));
+            }
+            pruned.add(first);
+        }
+        return pruned;
     }
 
     public static MultiMap<String, Trigger> getTriggerMap() {
         return triggerMap;
     }
+
+    /**
+     * A script whose triggers are being loaded
+     */
+    private static class LoadingScript {
+        private final String scriptName;
+        private final SkriptLogger logger;
+        @Nullable
+        private final ScriptCache cache;
+        // Sorted by decreasing loading priority
+        private final List<UnloadedTrigger> unloadedTriggers;
+        private int loadedCount = 0;
+
+        LoadingScript(String scriptName, SkriptLogger logger, @Nullable ScriptCache cache, List<UnloadedTrigger> unloadedTriggers) {
+            this.scriptName = scriptName;
+            this.logger = logger;
+            this.cache = cache;
+            this.unloadedTriggers = unloadedTriggers;
+        }
+
+        /**
+         * @param priority the loading priority
+         * @return the triggers of this script with the given loading priority, in order
+         */
+        List<UnloadedTrigger> nextTriggers(int priority) {
+            var start = loadedCount;
+            while (loadedCount < unloadedTriggers.size()
+                    && unloadedTriggers.get(loadedCount).getTrigger().getEvent().getLoadingPriority() == priority) {
+                loadedCount++;
+            }
+            return unloadedTriggers.subList(start, loadedCount);
+        }
+
+        List<LogEntry> finish() {
+            if (cache != null) {
+                try {
+                    cache.save();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            logger.logOutput();
+            return logger.close();
+        }
+    }
 }
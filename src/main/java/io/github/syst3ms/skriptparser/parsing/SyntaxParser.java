@@ -3,6 +3,7 @@ package io.github.syst3ms.skriptparser.parsing;
 import io.github.syst3ms.skriptparser.file.FileSection;
 import io.github.syst3ms.skriptparser.lang.*;
 import io.github.syst3ms.skriptparser.lang.base.ConditionalExpression;
+import io.github.syst3ms.skriptparser.lang.base.ConvertedExpression;
 import io.github.syst3ms.skriptparser.log.ErrorContext;
 import io.github.syst3ms.skriptparser.log.ErrorType;
 import io.github.syst3ms.skriptparser.log.SkriptLogger;
@@ -15,13 +16,12 @@ import io.github.syst3ms.skriptparser.types.Type;
 import io.github.syst3ms.skriptparser.types.TypeManager;
 import io.github.syst3ms.skriptparser.types.conversions.Converters;
 import io.github.syst3ms.skriptparser.util.ClassUtils;
-import io.github.syst3ms.skriptparser.util.RecentElementList;
 import io.github.syst3ms.skriptparser.util.StringUtils;
 import io.github.syst3ms.skriptparser.variables.Variables;
 import org.intellij.lang.annotations.MagicConstant;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Array;
-import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 import java.util.function.Function;
 import java.util.regex.Pattern;
@@ -60,26 +60,14 @@ public class SyntaxParser {
     @SuppressWarnings({"RedundantCast"}) // Gradle requires the cast, but IntelliJ considers it redundant
     public static final PatternType<Object> OBJECTS_PATTERN_TYPE = new PatternType<>((Type<Object>) TypeManager.getByClass(Object.class).orElseThrow(AssertionError::new), false);
 
-    /**
-     * All {@link Effect effects} that are successfully parsed during parsing, in order of last successful parsing
-     */
-    private static final RecentElementList<SyntaxInfo<? extends Effect>> recentEffects = new RecentElementList<>();
-    /**
-     * All {@link CodeSection sections} that are successfully parsed during parsing, in order of last successful parsing
-     */
-    private static final RecentElementList<SyntaxInfo<? extends CodeSection>> recentSections = new RecentElementList<>();
-    /**
-     * All {@link SkriptEvent events} that are successfully parsed during parsing, in order of last successful parsing
+    /*
+     * The categories under which parsing decisions are stored in a ScriptCache
      */
-    private static final RecentElementList<SkriptEventInfo<?>> recentEvents = new RecentElementList<>();
-    /**
-     * All {@link Expression expressions} that are successfully parsed during parsing, in order of last successful parsing
-     */
-    private static final RecentElementList<ExpressionInfo<?, ?>> recentExpressions = new RecentElementList<>();
-    /**
-     * All {@link ConditionalExpression conditions} that are successfully parsed during parsing, in order of last successful parsing
-     */
-    private static final RecentElementList<ExpressionInfo<? extends ConditionalExpression, ? extends Boolean>> recentConditions = new RecentElementList<>();
+    private static final String EFFECT_CATEGORY = "effect";
+    private static final String SECTION_CATEGORY = "section";
+    private static final String EVENT_CATEGORY = "event";
+    private static final String CONDITION_CATEGORY = "condition";
+    private static final String EXPRESSION_CATEGORY = "expression/";
 
     /**
      * Parses an {@link Expression} from the given {@linkplain String} and {@link PatternType expected return type}
@@ -95,7 +83,7 @@ public class SyntaxParser {
     public static <T> Optional<? extends Expression<? extends T>> parseExpression(String s, PatternType<T> expectedType, ParserState parserState, SkriptLogger logger) {
         if (s.isEmpty())
             return Optional.empty();
-        if (s.startsWith("(") && s.endsWith(")") && StringUtils.findClosingIndex(s, '(', ')', 0) == s.length() - 1) {
+        if (parserState.getParseMemo().getTokens(s).isParenthesized()) {
             s = s.substring(1, s.length() - 1);
         }
         var literal = parseLiteral(s, expectedType, parserState, logger);
@@ -119,29 +107,50 @@ public class SyntaxParser {
                 return listLiteral;
             }
         }
-        for (var info : recentExpressions) {
-            var expr = matchExpressionInfo(s, info, expectedType, parserState, logger);
+        var folded = StringUtils.foldCase(s);
+        var profile = SyntaxProfiles.getExpressions(expectedType.getType().getTypeClass());
+        var category = EXPRESSION_CATEGORY + expectedType;
+        var hint = getHint(category, s, parserState, logger);
+        if (hint.isPresent()) {
+            var info = (ExpressionInfo<?, ?>) hint.get();
+            var expr = matchExpressionInfo(s, folded, info, expectedType, parserState, logger);
             if (expr.isPresent()) {
-                recentExpressions.acknowledge(info);
+                profile.acknowledge(info);
+                recordDecision(category, s, info, parserState, logger);
+                logger.clearLogs();
+                return expr;
+            }
+            logger.forgetError();
+        }
+        // Parsing may change the order of the profile, so it is only read once
+        var recent = profile.getElements();
+        for (var j = 0; j < recent.size(); j++) {
+            var info = recent.get(j);
+            var expr = matchExpressionInfo(s, folded, info, expectedType, parserState, logger);
+            if (expr.isPresent()) {
+                profile.acknowledge(info);
+                recordDecision(category, s, info, parserState, logger);
                 logger.clearLogs();
                 return expr;
             }
             logger.forgetError();
         }
         // Let's not loop over the same elements again
-        var remainingExpressions = SyntaxManager.getAllExpressions();
-        recentExpressions.removeFrom(remainingExpressions);
-        for (var info : remainingExpressions) {
-            var expr = matchExpressionInfo(s, info, expectedType, parserState, logger);
+        for (var info : SyntaxManager.getExpressionsFor(expectedType.getType().getTypeClass())) {
+            if (recent.contains(info))
+                continue;
+            var expr = matchExpressionInfo(s, folded, info, expectedType, parserState, logger);
             if (expr.isPresent()) {
-                recentExpressions.acknowledge(info);
+                profile.acknowledge(info);
+                recordDecision(category, s, info, parserState, logger);
                 logger.clearLogs();
                 return expr;
             }
             logger.forgetError();
         }
         logger.setContext(ErrorContext.NO_MATCH);
-        logger.error("No expression matching ''" + s + "' was found", ErrorType.NO_MATCH);
+        var unmatched = s;
+        logger.error(() -> "No expression matching ''" + unmatched + "' was found", ErrorType.NO_MATCH);
         return Optional.empty();
     }
 
@@ -161,7 +170,7 @@ public class SyntaxParser {
      */
     public static Optional<? extends Expression<Boolean>> parseBooleanExpression(String s, @MagicConstant(intValues = {NOT_CONDITIONAL, MAYBE_CONDITIONAL, CONDITIONAL}) int conditional, ParserState parserState, SkriptLogger logger) {
         // I swear this is the cleanest way to do it
-        if (s.startsWith("(") && s.endsWith(")") && StringUtils.findClosingIndex(s, '(', ')', 0) == s.length() - 1) {
+        if (parserState.getParseMemo().getTokens(s).isParenthesized()) {
             s = s.substring(1, s.length() - 1);
         }
         if (s.equalsIgnoreCase("true")) {
@@ -180,133 +189,230 @@ public class SyntaxParser {
                 return variable;
             }
         }
-        for (var info : recentExpressions) {
+        var folded = StringUtils.foldCase(s);
+        var profile = SyntaxProfiles.getConditions();
+        var hint = getHint(CONDITION_CATEGORY, s, parserState, logger);
+        if (hint.isPresent()) {
+            var info = (ExpressionInfo<?, ?>) hint.get();
+            var expr = (Optional<? extends Expression<Boolean>>) matchExpressionInfo(s, folded, info, BOOLEAN_PATTERN_TYPE, parserState, logger);
+            if (expr.isPresent())
+                return acceptBooleanExpression(s, expr.get(), info, conditional, parserState, logger);
+            logger.forgetError();
+        }
+        // Parsing may change the order of the profile, so it is only read once
+        var recent = profile.getElements();
+        for (var j = 0; j < recent.size(); j++) {
+            var info = recent.get(j);
             if (info.getReturnType().getType().getTypeClass() != Boolean.class)
                 continue;
-            var expr = (Optional<? extends Expression<Boolean>>) matchExpressionInfo(s, info, BOOLEAN_PATTERN_TYPE, parserState, logger);
-            if (expr.isPresent()) {
-                switch (conditional) {
-                    case 0: // Can't be conditional
-                        if (ConditionalExpression.class.isAssignableFrom(expr.get().getClass())) {
-                            logger.error("The boolean expression must not be conditional", ErrorType.SEMANTIC_ERROR);
-                            return Optional.empty();
-                        }
-                        break;
-                    case 2: // Has to be conditional
-                        if (!ConditionalExpression.class.isAssignableFrom(expr.get().getClass())) {
-                            logger.error("The boolean expression must be conditional", ErrorType.SEMANTIC_ERROR);
-                            return Optional.empty();
-                        }
-                    case 1: // Can be conditional
-                        if (ConditionalExpression.class.isAssignableFrom(expr.get().getClass())) {
-                            recentConditions.acknowledge((ExpressionInfo<? extends ConditionalExpression, ? extends Boolean>) info);
-                        }
-                    default: // You just want me dead, don't you ?
-                        break;
-                }
-                recentExpressions.acknowledge(info);
-                logger.clearLogs();
-                return expr;
-            }
+            var expr = (Optional<? extends Expression<Boolean>>) matchExpressionInfo(s, folded, info, BOOLEAN_PATTERN_TYPE, parserState, logger);
+            if (expr.isPresent())
+                return acceptBooleanExpression(s, expr.get(), info, conditional, parserState, logger);
             logger.forgetError();
         }
         // Let's not loop over the same elements again
-        var remainingExpressions = SyntaxManager.getAllExpressions();
-        recentExpressions.removeFrom(remainingExpressions);
-        for (var info : remainingExpressions) {
-            if (info.getReturnType().getType().getTypeClass() != Boolean.class)
+        for (var info : SyntaxManager.getExpressionsFor(Boolean.class)) {
+            if (info.getReturnType().getType().getTypeClass() != Boolean.class || recent.contains(info))
                 continue;
-            var expr = (Optional<? extends Expression<Boolean>>) matchExpressionInfo(s, info, BOOLEAN_PATTERN_TYPE, parserState, logger);
-            if (expr.isPresent()) {
-                switch (conditional) {
-                    case 0: // Can't be conditional
-                        if (ConditionalExpression.class.isAssignableFrom(expr.get().getClass())) {
-                            logger.error("The boolean expression must not be conditional", ErrorType.SEMANTIC_ERROR);
-                            return Optional.empty();
-                        }
-                        break;
-                    case 2: // Has to be conditional
-                        if (!ConditionalExpression.class.isAssignableFrom(expr.get().getClass())) {
-                            logger.error("The boolean expression must be conditional", ErrorType.SEMANTIC_ERROR);
-                            return Optional.empty();
-                        }
-                    case 1: // Can be conditional
-                        if (ConditionalExpression.class.isAssignableFrom(expr.get().getClass())) {
-                            recentConditions.acknowledge((ExpressionInfo<? extends ConditionalExpression, ? extends Boolean>) info);
-                        }
-                    default: // You just want me dead, don't you ?
-                        break;
-                }
-                recentExpressions.acknowledge(info);
-                logger.clearLogs();
-                return expr;
-            }
+            var expr = (Optional<? extends Expression<Boolean>>) matchExpressionInfo(s, folded, info, BOOLEAN_PATTERN_TYPE, parserState, logger);
+            if (expr.isPresent())
+                return acceptBooleanExpression(s, expr.get(), info, conditional, parserState, logger);
             logger.forgetError();
         }
         logger.setContext(ErrorContext.NO_MATCH);
-        logger.error("No expression matching '" + s + "' was found", ErrorType.NO_MATCH);
+        var unmatched = s;
+        logger.error(() -> "No expression matching '" + unmatched + "' was found", ErrorType.NO_MATCH);
         return Optional.empty();
     }
 
-    private static <T> Optional<? extends Expression<? extends T>> matchExpressionInfo(String s, ExpressionInfo<?, ?> info, PatternType<T> expectedType, ParserState parserState, SkriptLogger logger) {
+    private static Optional<? extends Expression<Boolean>> acceptBooleanExpression(String s, Expression<Boolean> expr, ExpressionInfo<?, ?> info, int conditional, ParserState parserState, SkriptLogger logger) {
+        if (!checkConditional(expr, conditional, logger))
+            return Optional.empty();
+        SyntaxProfiles.getConditions().acknowledge(info);
+        recordDecision(CONDITION_CATEGORY, s, info, parserState, logger);
+        logger.clearLogs();
+        return Optional.of(expr);
+    }
+
+    private static <T> Optional<? extends Expression<? extends T>> matchExpressionInfo(String s, String folded, ExpressionInfo<?, ?> info, PatternType<T> expectedType, ParserState parserState, SkriptLogger logger) {
         var patterns = info.getPatterns();
         var infoType = info.getReturnType();
         var infoTypeClass = infoType.getType().getTypeClass();
         var expectedTypeClass = expectedType.getType().getTypeClass();
         if (!expectedTypeClass.isAssignableFrom(infoTypeClass) && !Converters.converterExists(infoTypeClass, expectedTypeClass))
             return Optional.empty();
+        var chain = info.getOperatorParser()
+                .flatMap(p -> p.scan(s, info, parserState, logger))
+                .orElse(null);
         for (var i = 0; i < patterns.size(); i++) {
+            if (!info.mayMatch(i, folded))
+                continue;
             var element = patterns.get(i);
             logger.setContext(ErrorContext.MATCHING);
             var parser = new MatchContext(element, parserState, logger);
-            if (element.match(s, 0, parser) != -1) {
-                try {
-                    var expression = (Expression<? extends T>) info.getSyntaxClass()
-                            .getDeclaredConstructor()
-                            .newInstance();
-                    logger.setContext(ErrorContext.INITIALIZATION);
-                    if (!expression.init(
-                            parser.getParsedExpressions().toArray(new Expression[0]),
-                            i,
-                            parser.toParseResult()
-                    )) {
-                        continue;
-                    }
-                    logger.setContext(ErrorContext.CONSTRAINT_CHECKING);
-                    Class<?> expressionReturnType = expression.getReturnType();
-                    if (!expectedTypeClass.isAssignableFrom(expressionReturnType)) { // Would only screw up in case of bad dynamic type usage
-                        var converted = expression.convertExpression(expectedTypeClass);
-                        if (converted.isPresent()) {
-                            return converted;
-                        } else {
-                            var type = TypeManager.getByClass(expressionReturnType);
-                            assert type.isPresent();
-                            logger.error(StringUtils.withIndefiniteArticle(expectedType.toString(), false) +
-                                    " was expected, but " +
-                                    StringUtils.withIndefiniteArticle(type.get().toString(), false) +
-                                    " was found", ErrorType.SEMANTIC_ERROR);
-                            return Optional.empty();
-                        }
-                    }
-                    if (!expression.isSingle() &&
-                            expectedType.isSingle()) {
-                        logger.error("A single value was expected, but '" + s + "' represents multiple values.", ErrorType.SEMANTIC_ERROR);
-                        continue;
-                    }
-                    if (parserState.isRestrictingExpressions() && parserState.forbidsSyntax(expression.getClass())) {
-                        logger.setContext(ErrorContext.RESTRICTED_SYNTAXES);
-                        logger.error("The enclosing section does not allow the use of this expression : " + expression.toString(null, logger.isDebug()), ErrorType.SEMANTIC_ERROR);
-                        continue;
-                    }
-                    return Optional.of(expression);
-                } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
+            if (chain != null ? chain.match(i, parser) : element.match(s, 0, parser) != -1) {
+                var instance = newInstance(info);
+                if (instance.isEmpty()) {
                     logger.error("Couldn't instantiate class '" + info.getSyntaxClass().getName() + "'", ErrorType.EXCEPTION);
+                    continue;
+                }
+                var expression = (Expression<? extends T>) instance.get();
+                var expressions = parser.getParsedExpressions().toArray(new Expression[0]);
+                logger.setContext(ErrorContext.INITIALIZATION);
+                if (!expression.init(
+                        expressions,
+                        i,
+                        parser.toParseResult()
+                )) {
+                    continue;
+                }
+                var accepted = acceptExpression(s, info, expression, expressions, expectedType, parserState, logger);
+                if (accepted.isPresent()) {
+                    return accepted;
+                } else if (!expectedTypeClass.isAssignableFrom(expression.getReturnType())) {
+                    // An expression that can't be converted won't be for any other pattern either
+                    return Optional.empty();
                 }
             }
         }
         return Optional.empty();
     }
 
+    /**
+     * Checks whether an expression that was just initialized can be used where the given type is expected. Every
+     * expression goes through this, whether it was matched against its patterns or built as part of an
+     * {@linkplain OperatorParser operator chain}.
+     * @param s the string the expression was parsed from
+     * @param info the info of the expression
+     * @param expression the expression, already initialized
+     * @param expressions the expressions it was initialized with
+     * @param expectedType the expected return type
+     * @param parserState the current parser state
+     * @param logger the logger
+     * @param <T> the expected type
+     * @return the expression, {@linkplain #foldConstant(ExpressionInfo, Expression, Expression[]) folded} or converted
+     * to the expected type if need be, or an empty {@link Optional} if it can't be used there
+     */
+    static <T> Optional<? extends Expression<? extends T>> acceptExpression(String s, ExpressionInfo<?, ?> info, Expression<? extends T> expression, Expression<?>[] expressions, PatternType<T> expectedType, ParserState parserState, SkriptLogger logger) {
+        logger.setContext(ErrorContext.CONSTRAINT_CHECKING);
+        var expectedTypeClass = expectedType.getType().getTypeClass();
+        Class<?> expressionReturnType = expression.getReturnType();
+        if (!expectedTypeClass.isAssignableFrom(expressionReturnType)) { // Would only screw up in case of bad dynamic type usage
+            var converted = foldConstant(info, expression, expressions).convertExpression(expectedTypeClass);
+            if (converted.isEmpty()) {
+                var type = TypeManager.getByClass(expressionReturnType);
+                assert type.isPresent();
+                logger.error(() -> StringUtils.withIndefiniteArticle(expectedType.toString(), false) +
+                        " was expected, but " +
+                        StringUtils.withIndefiniteArticle(type.get().toString(), false) +
+                        " was found", ErrorType.SEMANTIC_ERROR);
+            }
+            return converted;
+        }
+        if (!expression.isSingle() &&
+                expectedType.isSingle()) {
+            logger.error(() -> "A single value was expected, but '" + s + "' represents multiple values.", ErrorType.SEMANTIC_ERROR);
+            return Optional.empty();
+        }
+        if (parserState.isRestrictingExpressions() && parserState.forbidsSyntax(expression.getClass())) {
+            logger.setContext(ErrorContext.RESTRICTED_SYNTAXES);
+            logger.error(() -> "The enclosing section does not allow the use of this expression : " + expression.toString(null, logger.isDebug()), ErrorType.SEMANTIC_ERROR);
+            return Optional.empty();
+        }
+        return Optional.of(foldConstant(info, expression, expressions));
+    }
+
+    /**
+     * Creates a new instance of a syntax class. A syntax whose constructor throws is treated like one that can't be
+     * instantiated at all, so that parsing moves on to the next syntax instead of failing as a whole.
+     * @param info the info of the syntax
+     * @param <C> the type of the syntax
+     * @return the new instance, or an empty {@link Optional} if it couldn't be created
+     */
+    static <C> Optional<? extends C> newInstance(SyntaxInfo<C> info) {
+        try {
+            return info.newInstance();
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Checks whether a boolean expression may be used, depending on whether it is {@linkplain ConditionalExpression
+     * conditional}
+     * @param expression the boolean expression
+     * @param conditional a constant describing whether the expression can be a {@link ConditionalExpression condition}
+     * @param logger the logger
+     * @return whether the expression may be used
+     */
+    static boolean checkConditional(Expression<?> expression, @MagicConstant(intValues = {NOT_CONDITIONAL, MAYBE_CONDITIONAL, CONDITIONAL}) int conditional, SkriptLogger logger) {
+        switch (conditional) {
+            case NOT_CONDITIONAL:
+                if (ConditionalExpression.class.isAssignableFrom(expression.getClass())) {
+                    logger.error("The boolean expression must not be conditional", ErrorType.SEMANTIC_ERROR);
+                    return false;
+                }
+                break;
+            case CONDITIONAL:
+                if (!ConditionalExpression.class.isAssignableFrom(expression.getClass())) {
+                    logger.error("The boolean expression must be conditional", ErrorType.SEMANTIC_ERROR);
+                    return false;
+                }
+            case MAYBE_CONDITIONAL:
+            default: // You just want me dead, don't you ?
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * Evaluates a {@linkplain ExpressionInfo#isPure() pure} expression right away if all the expressions it was
+     * initialized with are {@linkplain #isConstant(Expression) constant}, since its values can't change afterwards.
+     * @param info the info of the expression
+     * @param expression the expression, already initialized
+     * @param expressions the expressions it was initialized with
+     * @param <T> the return type
+     * @return a {@link FoldedLiteral} holding the values of the expression, or the expression itself if it can't be
+     * evaluated ahead of time
+     */
+    static <T> Expression<? extends T> foldConstant(ExpressionInfo<?, ?> info, Expression<? extends T> expression, Expression<?>[] expressions) {
+        // Conditions stay as they are, so that whether an expression is conditional never depends on folding
+        if (!info.isPure() || expression instanceof ConditionalExpression)
+            return expression;
+        for (var e : expressions) {
+            if (!isConstant(e))
+                return expression;
+        }
+        try {
+            var values = expression.getValues(TriggerContext.DUMMY);
+            // The literal must be interchangeable with the expression, down to the amount of values it has
+            if (values.length == 0 || expression.isSingle() != (values.length == 1))
+                return expression;
+            var literal = new FoldedLiteral<>((Class<T>) expression.getReturnType(), values);
+            literal.setAndList(expression.isAndList());
+            return literal;
+        } catch (RuntimeException e) {
+            // Errors are left for the runtime to report
+            return expression;
+        }
+    }
+
+    /**
+     * @param expression the expression
+     * @return whether the given expression always has the same values, no matter when it is evaluated
+     */
+    private static boolean isConstant(Expression<?> expression) {
+        if (expression instanceof Literal) {
+            return expression.isSingle() || expression.isAndList();
+        } else if (expression instanceof VariableString) {
+            return ((VariableString) expression).isSimple();
+        } else if (expression instanceof ConvertedExpression) {
+            return isConstant(expression.getSource());
+        } else {
+            return false;
+        }
+    }
+
     /**
      * Parses a line of code as an {@link InlineCondition}
      * @param s the line to be parsed
@@ -337,14 +443,17 @@ public class SyntaxParser {
         assert !expectedType.isSingle();
         if (!s.contains(",") && !s.contains("and") && !s.contains("nor") && !s.contains("or"))
             return Optional.empty();
-        List<String> parts = new ArrayList<>();
+        List<String> parts = new ArrayList<>(); // The elements of the list, stripped
+        var separated = false;
+        Boolean isAndList = null; // Hello nullable booleans, it had been a pleasure NOT using you
+        var tokens = parserState.getParseMemo().getTokens(s);
         var m = LIST_SPLIT_PATTERN.matcher(s);
         var lastIndex = 0;
-        for (var i = 0; i < s.length(); i = StringUtils.nextSimpleCharacterIndex(s, i+1)) {
+        for (var i = 0; i < s.length(); i = tokens.nextSimpleCharacterIndex(i+1)) {
             if (i == -1) {
                 return Optional.empty();
-            } else if (StringUtils.nextSimpleCharacterIndex(s, i) > i) { // We are currently at the start of something we need to skip over
-                i = StringUtils.nextSimpleCharacterIndex(s, i) - 1;
+            } else if (tokens.nextSimpleCharacterIndex(i) > i) { // We are currently at the start of something we need to skip over
+                i = tokens.nextSimpleCharacterIndex(i) - 1;
                 continue;
             }
             var c = s.charAt(i);
@@ -353,48 +462,39 @@ public class SyntaxParser {
                 if (m.lookingAt()) {
                     if (i == lastIndex)
                         return Optional.empty();
-                    parts.add(s.substring(lastIndex, i));
-                    parts.add(m.group());
+                    parts.add(StringUtils.stripRegion(s, lastIndex, i));
+                    separated = true;
+                    if (m.start(2) != -1) { // Either 'and', 'nor' or 'or'
+                        if (m.end(2) - m.start(2) == "or".length()) {
+                            isAndList = isAndList != null && isAndList;
+                        } else {
+                            isAndList = true;
+                        }
+                    }
                     i = m.end() - 1;
                     lastIndex = i;
                 }
             } else if (c == '(') {
-                var closing = StringUtils.getEnclosedText(s, '(', ')', i);
-                if (closing.isPresent()) {
-                    var finalI = i; // Lambdas require it
-                    i = closing.map(cl -> finalI + cl.length() + 1).orElse(i);
-                }
+                var closing = tokens.findClosingParenthesis(i);
+                if (closing != -1)
+                    i = closing;
             }
         }
         if (lastIndex < s.length() - 1)
-            parts.add(s.substring(lastIndex));
-        if (parts.size() == 1)
+            parts.add(StringUtils.stripRegion(s, lastIndex, s.length()));
+        if (!separated)
             return Optional.empty();
-        Boolean isAndList = null; // Hello nullable booleans, it had been a pleasure NOT using you
-        for (var i = 0; i < parts.size(); i++) {
-            if ((i & 1) == 1) { // Odd index == separator
-                var separator = parts.get(i).strip();
-                if (separator.equalsIgnoreCase("and") || separator.equalsIgnoreCase("nor")) {
-                    isAndList = true;
-                } else if (separator.equalsIgnoreCase("or")) {
-                    isAndList = isAndList != null && isAndList;
-                }
-            }
-        }
         isAndList = isAndList == null || isAndList; // Defaults to true
         List<Expression<? extends T>> expressions = new ArrayList<>();
         var isLiteralList = true;
-        for (var i = 0; i < parts.size(); i++) {
-            if ((i & 1) == 0) { // Even index == element
-                var part = parts.get(i).strip();
-                logger.recurse();
-                var expression = parseExpression(part, expectedType, parserState, logger);
-                logger.callback();
-                if (expression.isEmpty())
-                    return Optional.empty();
-                isLiteralList &= Literal.isLiteral(expression.get());
-                expressions.add(expression.get());
-            }
+        for (var part : parts) {
+            logger.recurse();
+            var expression = parseExpression(part, expectedType, parserState, logger);
+            logger.callback();
+            if (expression.isEmpty())
+                return Optional.empty();
+            isLiteralList &= Literal.isLiteral(expression.get());
+            expressions.add(expression.get());
         }
         if (expressions.size() == 1)
             return Optional.of(expressions.get(0));
@@ -440,6 +540,8 @@ public class SyntaxParser {
     public static <T> Optional<? extends Expression<? extends T>> parseLiteral(String s, PatternType<T> expectedType, ParserState parserState, SkriptLogger logger) {
         var classToTypeMap = TypeManager.getClassToTypeMap();
         for (var c : classToTypeMap.keySet()) {
+            if (!classToTypeMap.get(c).mayBeLiteral(s))
+                continue;
             Class<? extends T> expectedClass = expectedType.getType().getTypeClass();
             if (expectedClass.isAssignableFrom(c) || Converters.converterExists(c, expectedClass)) {
                 Optional<? extends Function<String, ?>> literalParser = classToTypeMap.get(c).getLiteralParser();
@@ -476,55 +578,75 @@ public class SyntaxParser {
     public static Optional<? extends Effect> parseEffect(String s, ParserState parserState, SkriptLogger logger) {
         if (s.isEmpty())
             return Optional.empty();
-        for (var recentEffect : recentEffects) {
-            var eff = matchEffectInfo(s, recentEffect, parserState, logger);
+        var folded = StringUtils.foldCase(s);
+        var profile = SyntaxProfiles.getEffects();
+        var hint = getHint(EFFECT_CATEGORY, s, parserState, logger);
+        if (hint.isPresent()) {
+            var info = (SyntaxInfo<? extends Effect>) hint.get();
+            var eff = matchEffectInfo(s, folded, info, parserState, logger);
             if (eff.isPresent()) {
-                recentEffects.acknowledge(recentEffect);
+                profile.acknowledge(info);
+                recordDecision(EFFECT_CATEGORY, s, info, parserState, logger);
+                logger.clearLogs();
+                return eff;
+            }
+            logger.forgetError();
+        }
+        // Parsing may change the order of the profile, so it is only read once
+        var recent = profile.getElements();
+        for (var j = 0; j < recent.size(); j++) {
+            var recentEffect = recent.get(j);
+            var eff = matchEffectInfo(s, folded, recentEffect, parserState, logger);
+            if (eff.isPresent()) {
+                profile.acknowledge(recentEffect);
+                recordDecision(EFFECT_CATEGORY, s, recentEffect, parserState, logger);
                 logger.clearLogs();
                 return eff;
             }
             logger.forgetError();
         }
         // Let's not loop over the same elements again
-        var remainingEffects = SyntaxManager.getEffects();
-        recentEffects.removeFrom(remainingEffects);
-        for (var remainingEffect : remainingEffects) {
-            var eff = matchEffectInfo(s, remainingEffect, parserState, logger);
+        for (var remainingEffect : SyntaxManager.getEffects()) {
+            if (recent.contains(remainingEffect))
+                continue;
+            var eff = matchEffectInfo(s, folded, remainingEffect, parserState, logger);
             if (eff.isPresent()) {
-                recentEffects.acknowledge(remainingEffect);
+                profile.acknowledge(remainingEffect);
+                recordDecision(EFFECT_CATEGORY, s, remainingEffect, parserState, logger);
                 logger.clearLogs();
                 return eff;
             }
             logger.forgetError();
         }
         logger.setContext(ErrorContext.NO_MATCH);
-        logger.error("No effect matching '" + s + "' was found", ErrorType.NO_MATCH);
+        logger.error(() -> "No effect matching '" + s + "' was found", ErrorType.NO_MATCH);
         return Optional.empty();
     }
 
-    private static Optional<? extends Effect> matchEffectInfo(String s, SyntaxInfo<? extends Effect> info, ParserState parserState, SkriptLogger logger) {
+    private static Optional<? extends Effect> matchEffectInfo(String s, String folded, SyntaxInfo<? extends Effect> info, ParserState parserState, SkriptLogger logger) {
         var patterns = info.getPatterns();
         for (var i = 0; i < patterns.size(); i++) {
+            if (!info.mayMatch(i, folded))
+                continue;
             var element = patterns.get(i);
             logger.setContext(ErrorContext.MATCHING);
             var parser = new MatchContext(element, parserState, logger);
             if (element.match(s, 0, parser) != -1) {
-                try {
-                    var eff = info.getSyntaxClass()
-                            .getDeclaredConstructor()
-                            .newInstance();
-                    logger.setContext(ErrorContext.INITIALIZATION);
-                    if (!eff.init(
-                            parser.getParsedExpressions().toArray(new Expression[0]),
-                            i,
-                            parser.toParseResult()
-                    )) {
-                        continue;
-                    }
-                    return Optional.of(eff);
-                } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
+                var instance = newInstance(info);
+                if (instance.isEmpty()) {
                     logger.error("Couldn't instantiate class " + info.getSyntaxClass(), ErrorType.EXCEPTION);
+                    continue;
+                }
+                var eff = instance.get();
+                logger.setContext(ErrorContext.INITIALIZATION);
+                if (!eff.init(
+                        parser.getParsedExpressions().toArray(new Expression[0]),
+                        i,
+                        parser.toParseResult()
+                )) {
+                    continue;
                 }
+                return Optional.of(eff);
             }
         }
         return Optional.empty();
@@ -544,7 +666,7 @@ public class SyntaxParser {
             return Optional.empty();
         if (s.regionMatches(true, 0, "continue if ", 0, "continue if ".length())) { // startsWithIgnoreCase
             var cond = parseInlineCondition(s.substring("continue if ".length()), parserState, logger)
-                    .filter(__ -> parserState.forbidsSyntax(InlineCondition.class));
+                    .filter(__ -> !parserState.forbidsSyntax(InlineCondition.class));
             if (cond.isEmpty()) {
                 logger.setContext(ErrorContext.RESTRICTED_SYNTAXES);
                 logger.error("Inline conditions are not allowed in this section", ErrorType.SEMANTIC_ERROR);
@@ -556,7 +678,7 @@ public class SyntaxParser {
             return Optional.empty();
         } else if (parserState.forbidsSyntax(eff.get().getClass())) {
             logger.setContext(ErrorContext.RESTRICTED_SYNTAXES);
-            logger.error("The enclosing section does not allow the use of this effect : " + eff.get().toString(null, logger.isDebug()), ErrorType.SEMANTIC_ERROR);
+            logger.error(() -> "The enclosing section does not allow the use of this effect : " + eff.get().toString(null, logger.isDebug()), ErrorType.SEMANTIC_ERROR);
             return Optional.empty();
         } else {
             return eff;
@@ -575,55 +697,76 @@ public class SyntaxParser {
     public static Optional<? extends CodeSection> parseSection(FileSection section, ParserState parserState, SkriptLogger logger) {
         if (section.getLineContent().isEmpty())
             return Optional.empty();
-        for (var recentSection : recentSections) {
-            var sec = matchSectionInfo(section, recentSection, parserState, logger);
+        var content = section.getLineContent();
+        var folded = StringUtils.foldCase(content);
+        var profile = SyntaxProfiles.getSections();
+        var hint = getHint(SECTION_CATEGORY, content, parserState, logger);
+        if (hint.isPresent()) {
+            var info = (SyntaxInfo<? extends CodeSection>) hint.get();
+            var sec = matchSectionInfo(section, folded, info, parserState, logger);
+            if (sec.isPresent()) {
+                profile.acknowledge(info);
+                recordDecision(SECTION_CATEGORY, content, info, parserState, logger);
+                logger.clearLogs();
+                return sec;
+            }
+            logger.forgetError();
+        }
+        // Parsing may change the order of the profile, so it is only read once
+        var recent = profile.getElements();
+        for (var j = 0; j < recent.size(); j++) {
+            var recentSection = recent.get(j);
+            var sec = matchSectionInfo(section, folded, recentSection, parserState, logger);
             if (sec.isPresent()) {
-                recentSections.acknowledge(recentSection);
+                profile.acknowledge(recentSection);
+                recordDecision(SECTION_CATEGORY, content, recentSection, parserState, logger);
                 logger.clearLogs();
                 return sec;
             }
             logger.forgetError();
         }
-        var remainingSections = SyntaxManager.getSections();
-        recentSections.removeFrom(remainingSections);
-        for (var remainingSection : remainingSections) {
-            var sec = matchSectionInfo(section, remainingSection, parserState, logger);
+        for (var remainingSection : SyntaxManager.getSections()) {
+            if (recent.contains(remainingSection))
+                continue;
+            var sec = matchSectionInfo(section, folded, remainingSection, parserState, logger);
             if (sec.isPresent()) {
-                recentSections.acknowledge(remainingSection);
+                profile.acknowledge(remainingSection);
+                recordDecision(SECTION_CATEGORY, content, remainingSection, parserState, logger);
                 logger.clearLogs();
                 return sec;
             }
             logger.forgetError();
         }
         logger.setContext(ErrorContext.NO_MATCH);
-        logger.error("No section matching '" + section.getLineContent() + "' was found", ErrorType.NO_MATCH);
+        logger.error(() -> "No section matching '" + content + "' was found", ErrorType.NO_MATCH);
         return Optional.empty();
     }
 
-    private static Optional<? extends CodeSection> matchSectionInfo(FileSection section, SyntaxInfo<? extends CodeSection> info, ParserState parserState, SkriptLogger logger) {
+    private static Optional<? extends CodeSection> matchSectionInfo(FileSection section, String folded, SyntaxInfo<? extends CodeSection> info, ParserState parserState, SkriptLogger logger) {
         var patterns = info.getPatterns();
         for (var i = 0; i < patterns.size(); i++) {
+            if (!info.mayMatch(i, folded))
+                continue;
             var element = patterns.get(i);
             logger.setContext(ErrorContext.MATCHING);
             var parser = new MatchContext(element, parserState, logger);
             if (element.match(section.getLineContent(), 0, parser) != -1) {
-                try {
-                    var sec = info.getSyntaxClass()
-                            .getDeclaredConstructor()
-                            .newInstance();
-                    logger.setContext(ErrorContext.INITIALIZATION);
-                    if (!sec.init(
-                            parser.getParsedExpressions().toArray(new Expression[0]),
-                            i,
-                            parser.toParseResult()
-                    )) {
-                        continue;
-                    }
-                    sec.loadSection(section, parserState, logger);
-                    return Optional.of(sec);
-                } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
+                var instance = newInstance(info);
+                if (instance.isEmpty()) {
                     logger.error("Couldn't instantiate class " + info.getSyntaxClass(), ErrorType.EXCEPTION);
+                    continue;
+                }
+                var sec = instance.get();
+                logger.setContext(ErrorContext.INITIALIZATION);
+                if (!sec.init(
+                        parser.getParsedExpressions().toArray(new Expression[0]),
+                        i,
+                        parser.toParseResult()
+                )) {
+                    continue;
                 }
+                sec.loadSection(section, parserState, logger);
+                return Optional.of(sec);
             }
         }
         return Optional.empty();
@@ -638,65 +781,110 @@ public class SyntaxParser {
      * or for another reason detailed in an error message
      */
     public static Optional<? extends UnloadedTrigger> parseTrigger(FileSection section, SkriptLogger logger) {
-        if (section.getLineContent().isEmpty())
+        return parseTrigger(section, null, logger);
+    }
+
+    /**
+     * Parses a section of a file as a {@link Trigger}, making use of a {@link ScriptCache}
+     * @param section the section to be parsed
+     * @param cache the cache of the script, or {@literal null} if there is none
+     * @param logger the logger
+     * @return a trigger that was successfully parsed, or {@literal null} if the section is empty,
+     * no match was found
+     * or for another reason detailed in an error message
+     */
+    public static Optional<? extends UnloadedTrigger> parseTrigger(FileSection section, @Nullable ScriptCache cache, SkriptLogger logger) {
+        var content = section.getLineContent();
+        if (content.isEmpty())
             return Optional.empty();
-        for (var recentEvent : recentEvents) {
-            var trigger = matchEventInfo(section, recentEvent, logger);
+        var folded = StringUtils.foldCase(content);
+        var profile = SyntaxProfiles.getEvents();
+        var hint = Optional.ofNullable(cache).flatMap(c -> c.getHint(logger.getLine(), EVENT_CATEGORY, content));
+        if (hint.isPresent()) {
+            var info = (SkriptEventInfo<?>) hint.get();
+            var trigger = matchEventInfo(section, folded, info, cache, logger);
+            if (trigger.isPresent()) {
+                profile.acknowledge(info);
+                cache.record(logger.getLine(), EVENT_CATEGORY, content, info);
+                logger.clearLogs();
+                return trigger;
+            }
+            logger.forgetError();
+        }
+        // Parsing may change the order of the profile, so it is only read once
+        var recent = profile.getElements();
+        for (var j = 0; j < recent.size(); j++) {
+            var recentEvent = recent.get(j);
+            var trigger = matchEventInfo(section, folded, recentEvent, cache, logger);
             if (trigger.isPresent()) {
-                recentEvents.acknowledge(recentEvent);
+                profile.acknowledge(recentEvent);
+                if (cache != null)
+                    cache.record(logger.getLine(), EVENT_CATEGORY, content, recentEvent);
                 logger.clearLogs();
                 return trigger;
             }
             logger.forgetError();
         }
         // Let's not loop over the same elements again
-        var remainingEvents = SyntaxManager.getEvents();
-        recentEvents.removeFrom(remainingEvents);
-        for (var remainingEvent : remainingEvents) {
-            var trigger = matchEventInfo(section, remainingEvent, logger);
+        for (var remainingEvent : SyntaxManager.getEvents()) {
+            if (recent.contains(remainingEvent))
+                continue;
+            var trigger = matchEventInfo(section, folded, remainingEvent, cache, logger);
             if (trigger.isPresent()) {
-                recentEvents.acknowledge(remainingEvent);
+                profile.acknowledge(remainingEvent);
+                if (cache != null)
+                    cache.record(logger.getLine(), EVENT_CATEGORY, content, remainingEvent);
                 logger.clearLogs();
                 return trigger;
             }
             logger.forgetError();
         }
         logger.setContext(ErrorContext.NO_MATCH);
-        logger.error("No trigger matching '" + section.getLineContent() + "' was found", ErrorType.NO_MATCH);
+        logger.error(() -> "No trigger matching '" + content + "' was found", ErrorType.NO_MATCH);
         return Optional.empty();
     }
 
-    private static Optional<? extends UnloadedTrigger> matchEventInfo(FileSection section, SkriptEventInfo<?> info, SkriptLogger logger) {
+    private static Optional<? extends UnloadedTrigger> matchEventInfo(FileSection section, String folded, SkriptEventInfo<?> info, @Nullable ScriptCache cache, SkriptLogger logger) {
         var patterns = info.getPatterns();
         for (var i = 0; i < patterns.size(); i++) {
+            if (!info.mayMatch(i, folded))
+                continue;
             var element = patterns.get(i);
             var parserState = new ParserState();
+            parserState.setScriptCache(cache);
             logger.setContext(ErrorContext.MATCHING);
             var parser = new MatchContext(element, parserState, logger);
             if (element.match(section.getLineContent(), 0, parser) != -1) {
-                try {
-                    var event = info.getSyntaxClass()
-                            .getDeclaredConstructor()
-                            .newInstance();
-                    logger.setContext(ErrorContext.INITIALIZATION);
-                    if (!event.init(
-                            parser.getParsedExpressions().toArray(new Expression[0]),
-                            i,
-                            parser.toParseResult()
-                    )) {
-                        continue;
-                    }
-                    var trig = new Trigger(event);
-                    parserState.setCurrentContexts(info.getContexts());
-                    /*
-                     * We don't actually load the trigger here, that will be left to the loading priority system
-                     */
-                    return Optional.of(new UnloadedTrigger(trig, section, logger.getLine(), info, parserState));
-                } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
+                var instance = newInstance(info);
+                if (instance.isEmpty()) {
                     logger.error("Couldn't instantiate class " + info.getSyntaxClass(), ErrorType.EXCEPTION);
+                    continue;
+                }
+                var event = instance.get();
+                logger.setContext(ErrorContext.INITIALIZATION);
+                if (!event.init(
+                        parser.getParsedExpressions().toArray(new Expression[0]),
+                        i,
+                        parser.toParseResult()
+                )) {
+                    continue;
                 }
+                var trig = new Trigger(event);
+                parserState.setCurrentContexts(info.getContexts());
+                /*
+                 * We don't actually load the trigger here, that will be left to the loading priority system
+                 */
+                return Optional.of(new UnloadedTrigger(trig, section, logger.getLine(), info, parserState));
             }
         }
         return Optional.empty();
     }
+
+    private static Optional<SyntaxInfo<?>> getHint(String category, String s, ParserState parserState, SkriptLogger logger) {
+        return parserState.getScriptCache().flatMap(cache -> cache.getHint(logger.getLine(), category, s));
+    }
+
+    private static void recordDecision(String category, String s, SyntaxInfo<?> info, ParserState parserState, SkriptLogger logger) {
+        parserState.getScriptCache().ifPresent(cache -> cache.record(logger.getLine(), category, s, info));
+    }
 }
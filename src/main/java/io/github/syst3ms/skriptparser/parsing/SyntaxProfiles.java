@@ -0,0 +1,197 @@
+package io.github.syst3ms.skriptparser.parsing;
+
+import io.github.syst3ms.skriptparser.lang.CodeSection;
+import io.github.syst3ms.skriptparser.lang.Effect;
+import io.github.syst3ms.skriptparser.registration.ExpressionInfo;
+import io.github.syst3ms.skriptparser.registration.SkriptEventInfo;
+import io.github.syst3ms.skriptparser.registration.SyntaxInfo;
+import io.github.syst3ms.skriptparser.registration.SyntaxManager;
+import io.github.syst3ms.skriptparser.types.TypeManager;
+import io.github.syst3ms.skriptparser.util.SyntaxProfile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link SyntaxProfile}s the {@link SyntaxParser} uses to decide which syntaxes to try first. Each kind of
+ * element being parsed has a profile of its own : effects, sections, events, conditions, and expressions for every
+ * expected type.
+ * <br>
+ * The profiles can be saved to a file and loaded back, so that parsing starts with the ordering learned during
+ * previous runs.
+ */
+public class SyntaxProfiles {
+    private static final int FORMAT_VERSION = 1;
+    private static final String EFFECT_CONTEXT = "effect";
+    private static final String SECTION_CONTEXT = "section";
+    private static final String EVENT_CONTEXT = "event";
+    private static final String CONDITION_CONTEXT = "condition";
+    private static final String EXPRESSION_CONTEXT = "expression/";
+    private static final List<String> CONTEXTS = List.of(EFFECT_CONTEXT, SECTION_CONTEXT, EVENT_CONTEXT, CONDITION_CONTEXT);
+
+    private static int capacity = SyntaxProfile.DEFAULT_CAPACITY;
+    private static double decay = SyntaxProfile.DEFAULT_DECAY;
+    private static final Map<String, SyntaxProfile<?>> profiles = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, SyntaxProfile<ExpressionInfo<?, ?>>> expressionProfiles = new ConcurrentHashMap<>();
+
+    /**
+     * Changes the capacity and decay of all profiles, forgetting everything that was learned so far.
+     * @param capacity the maximum amount of syntaxes in a profile
+     * @param decay the factor by which scores are multiplied with each successful parse
+     * @see SyntaxProfile#SyntaxProfile(int, double)
+     */
+    public static synchronized void configure(int capacity, double decay) {
+        new SyntaxProfile<>(capacity, decay); // Validates the arguments
+        SyntaxProfiles.capacity = capacity;
+        SyntaxProfiles.decay = decay;
+        clear();
+    }
+
+    /**
+     * Forgets everything that was learned so far.
+     */
+    public static synchronized void clear() {
+        profiles.clear();
+        expressionProfiles.clear();
+    }
+
+    /**
+     * @return whether no profile has learned anything yet
+     */
+    public static boolean isEmpty() {
+        return profiles.values().stream().allMatch(p -> p.getElements().isEmpty())
+                && expressionProfiles.values().stream().allMatch(p -> p.getElements().isEmpty());
+    }
+
+    public static SyntaxProfile<SyntaxInfo<? extends Effect>> getEffects() {
+        return get(EFFECT_CONTEXT);
+    }
+
+    public static SyntaxProfile<SyntaxInfo<? extends CodeSection>> getSections() {
+        return get(SECTION_CONTEXT);
+    }
+
+    public static SyntaxProfile<SkriptEventInfo<?>> getEvents() {
+        return get(EVENT_CONTEXT);
+    }
+
+    /**
+     * @return the profile of boolean expressions parsed as conditions
+     */
+    public static SyntaxProfile<ExpressionInfo<?, ?>> getConditions() {
+        return get(CONDITION_CONTEXT);
+    }
+
+    /**
+     * @param expectedClass the class the expressions are expected to return
+     * @return the profile of expressions parsed for the given type
+     */
+    public static SyntaxProfile<ExpressionInfo<?, ?>> getExpressions(Class<?> expectedClass) {
+        return expressionProfiles.computeIfAbsent(expectedClass, __ -> newProfile());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> SyntaxProfile<T> get(String context) {
+        return (SyntaxProfile<T>) profiles.computeIfAbsent(context, __ -> newProfile());
+    }
+
+    private static synchronized <T> SyntaxProfile<T> newProfile() {
+        return new SyntaxProfile<>(capacity, decay);
+    }
+
+    /**
+     * Loads profiles previously {@linkplain #save(Path) saved} to the given file, adding the saved scores to the
+     * current ones. Nothing happens if the file doesn't exist, or was saved with different registered syntaxes.
+     * @param file the file
+     * @throws IOException if the file couldn't be read
+     */
+    @SuppressWarnings("unchecked")
+    public static void load(Path file) throws IOException {
+        var syntaxesById = ScriptCache.identifySyntaxes();
+        Map<String, Class<?>> classesByName = new HashMap<>();
+        for (var c : TypeManager.getClassToTypeMap().keySet()) {
+            classesByName.put(c.getName(), c);
+        }
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != FORMAT_VERSION || !input.readUTF().equals(SyntaxManager.getFingerprint()))
+                return;
+            var profileCount = input.readInt();
+            for (var i = 0; i < profileCount; i++) {
+                var context = input.readUTF();
+                SyntaxProfile<SyntaxInfo<?>> profile = null;
+                if (context.startsWith(EXPRESSION_CONTEXT)) {
+                    var expectedClass = classesByName.get(context.substring(EXPRESSION_CONTEXT.length()));
+                    if (expectedClass != null)
+                        profile = (SyntaxProfile<SyntaxInfo<?>>) (SyntaxProfile<?>) getExpressions(expectedClass);
+                } else if (CONTEXTS.contains(context)) {
+                    profile = get(context);
+                }
+                var size = input.readInt();
+                for (var j = 0; j < size; j++) {
+                    var info = syntaxesById.get(input.readUTF());
+                    var score = input.readDouble();
+                    if (profile != null && info != null)
+                        profile.addScore(info, score);
+                }
+            }
+        } catch (NoSuchFileException ignored) {
+        }
+    }
+
+    /**
+     * Saves the current profiles to the given file, so that they can be {@linkplain #load(Path) loaded} later on.
+     * @param file the file
+     * @throws IOException if the file couldn't be written
+     */
+    @SuppressWarnings("unchecked")
+    public static void save(Path file) throws IOException {
+        Map<SyntaxInfo<?>, String> ids = new IdentityHashMap<>();
+        for (var entry : ScriptCache.identifySyntaxes().entrySet()) {
+            ids.put(entry.getValue(), entry.getKey());
+        }
+        Map<String, SyntaxProfile<?>> all = new HashMap<>(profiles);
+        for (var entry : expressionProfiles.entrySet()) {
+            all.put(EXPRESSION_CONTEXT + entry.getKey().getName(), entry.getValue());
+        }
+        Map<String, Map<String, Double>> saved = new TreeMap<>();
+        for (var entry : all.entrySet()) {
+            var profile = (SyntaxProfile<SyntaxInfo<?>>) entry.getValue();
+            Map<String, Double> scores = new LinkedHashMap<>(); // Keeps ties in the same order
+            for (var info : profile.getElements()) {
+                var id = ids.get(info);
+                if (id != null)
+                    scores.put(id, profile.getScore(info));
+            }
+            if (!scores.isEmpty())
+                saved.put(entry.getKey(), scores);
+        }
+        if (file.getParent() != null)
+            Files.createDirectories(file.getParent());
+        try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            output.writeInt(FORMAT_VERSION);
+            output.writeUTF(SyntaxManager.getFingerprint());
+            output.writeInt(saved.size());
+            for (var profile : saved.entrySet()) {
+                output.writeUTF(profile.getKey());
+                output.writeInt(profile.getValue().size());
+                for (var score : profile.getValue().entrySet()) {
+                    output.writeUTF(score.getKey());
+                    output.writeDouble(score.getValue());
+                }
+            }
+        }
+    }
+}
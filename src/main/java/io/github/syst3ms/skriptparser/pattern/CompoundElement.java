@@ -1,18 +1,42 @@
 package io.github.syst3ms.skriptparser.pattern;
 
 import io.github.syst3ms.skriptparser.parsing.MatchContext;
+import io.github.syst3ms.skriptparser.util.MultiStringSearcher;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Multiple {@link PatternElement}s put together in order.
+ * Since pattern elements are immutable, what could come after each of the elements is computed only once, as well as
+ * the string form of the pattern, and the searchers for these possible inputs.
  */
 public class CompoundElement implements PatternElement {
     private final List<PatternElement> elements;
+    private final int size;
+    private final List<List<PatternElement>> possibleInputs;
+    private final MultiStringSearcher[] inputSearchers;
+    private final String string;
 
     public CompoundElement(List<PatternElement> elements) {
         this.elements = elements;
+        this.size = elements.size();
+        List<List<PatternElement>> possibleInputs = new ArrayList<>(elements.size() + 1);
+        for (var i = 0; i <= elements.size(); i++) {
+            possibleInputs.add(Collections.unmodifiableList(PatternElement.getPossibleInputs(elements.subList(i, elements.size()))));
+        }
+        this.possibleInputs = Collections.unmodifiableList(possibleInputs);
+        this.inputSearchers = new MultiStringSearcher[possibleInputs.size()];
+        for (var i = 0; i < inputSearchers.length; i++) {
+            inputSearchers[i] = PatternElement.createInputSearcher(possibleInputs.get(i));
+        }
+        var builder = new StringBuilder();
+        for (var element : elements) {
+            builder.append(element);
+        }
+        this.string = builder.toString();
     }
 
     /**
@@ -26,6 +50,29 @@ public class CompoundElement implements PatternElement {
         return elements;
     }
 
+    /**
+     * @return the amount of elements in this element, as it is {@linkplain PatternElement#flatten(PatternElement) flattened}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index the index of an element, or the amount of elements for the end of the pattern
+     * @return the possible inputs that could come at the given index, as computed by {@link PatternElement#getPossibleInputs(List)}
+     */
+    public List<PatternElement> getPossibleInputs(int index) {
+        return possibleInputs.get(index);
+    }
+
+    /**
+     * @param index the index of an element, or the amount of elements for the end of the pattern
+     * @return the searcher of the possible inputs at the given index, as created by {@link PatternElement#createInputSearcher(List)}
+     */
+    public MultiStringSearcher getInputSearcher(int index) {
+        return inputSearchers[index];
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
@@ -56,10 +103,6 @@ public class CompoundElement implements PatternElement {
 
     @Override
     public String toString() {
-        var builder = new StringBuilder();
-        for (var element : elements) {
-            builder.append(element);
-        }
-        return builder.toString();
+        return string;
     }
 }
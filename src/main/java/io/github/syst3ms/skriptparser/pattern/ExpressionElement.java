@@ -1,19 +1,22 @@
 package io.github.syst3ms.skriptparser.pattern;
 
 import io.github.syst3ms.skriptparser.lang.Expression;
+import io.github.syst3ms.skriptparser.lang.ExpressionList;
 import io.github.syst3ms.skriptparser.lang.Literal;
 import io.github.syst3ms.skriptparser.lang.Variable;
 import io.github.syst3ms.skriptparser.lang.base.ConditionalExpression;
 import io.github.syst3ms.skriptparser.log.ErrorType;
 import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import io.github.syst3ms.skriptparser.parsing.LineTokens;
 import io.github.syst3ms.skriptparser.parsing.MatchContext;
 import io.github.syst3ms.skriptparser.parsing.ParserState;
 import io.github.syst3ms.skriptparser.parsing.SyntaxParser;
 import io.github.syst3ms.skriptparser.types.PatternType;
 import io.github.syst3ms.skriptparser.util.StringUtils;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -31,35 +34,52 @@ import java.util.Optional;
  */
 public class ExpressionElement implements PatternElement {
     private final List<PatternType<?>> types;
+    private final PatternType<?>[] typeArray;
     private final Acceptance acceptance;
     private final boolean nullable;
     private final boolean acceptsConditional;
 
     public ExpressionElement(List<PatternType<?>> types, Acceptance acceptance, boolean nullable, boolean acceptsConditional) {
         this.types = types;
+        this.typeArray = types.toArray(new PatternType<?>[0]);
         this.acceptance = acceptance;
         this.nullable = nullable;
         this.acceptsConditional = acceptsConditional;
     }
 
+    public List<PatternType<?>> getTypes() {
+        return types;
+    }
+
+    public Acceptance getAcceptance() {
+        return acceptance;
+    }
+
+    public boolean acceptsConditional() {
+        return acceptsConditional;
+    }
+
     @Override
     public int match(String s, int index, MatchContext context) {
-        var typeArray = types.toArray(new PatternType<?>[0]);
         if (index >= s.length()) {
             return -1;
         }
         var logger = context.getLogger();
+        context.getParserState().getParseMemo().validate(s);
         var source = context.getSource();
         var possibilityIndex = context.getPatternIndex();
-        var flattened = PatternElement.flatten(context.getOriginalElement());
-        while (source.isPresent() && possibilityIndex >= flattened.size()) {
-            flattened = PatternElement.flatten(source.get().getOriginalElement());
+        var originalElement = context.getOriginalElement();
+        while (source.isPresent() && possibilityIndex >= PatternElement.flattenedSize(originalElement)) {
+            originalElement = source.get().getOriginalElement();
             possibilityIndex = source.get().getPatternIndex();
             source = source.get().getSource();
         }
         // We look at what could possibly be after the expression in the current syntax
-        var possibleInputs = PatternElement.getPossibleInputs(flattened.subList(possibilityIndex, flattened.size()));
-        for (var possibleInput : possibleInputs) {  // We iterate over those possibilities
+        var possibleInputs = PatternElement.getPossibleInputs(originalElement, possibilityIndex);
+        // All the places where each of the possible texts occurs are found at once, as soon as one is needed
+        int[][] occurrences = null;
+        for (var p = 0; p < possibleInputs.size(); p++) {  // We iterate over those possibilities
+            var possibleInput = possibleInputs.get(p);
             if (possibleInput instanceof TextElement) {
                 var text = ((TextElement) possibleInput).getText();
                 if (text.isEmpty())
@@ -68,23 +88,23 @@ public class ExpressionElement implements PatternElement {
                     if (index == 0) {
                         return -1;
                     }
-                    var toParse = s.substring(index).strip();
-                    var expression = parse(toParse, typeArray, context.getParserState(), logger);
+                    var toParse = StringUtils.stripRegion(s, index, s.length());
+                    var expression = parse(s, skipWhitespace(s, index), toParse, typeArray, context.getParserState(), logger);
                     if (expression.isPresent()) {
                         context.addExpression(expression.get());
                         return index + toParse.length();
                     }
                     return -1;
                 }
-                var i = StringUtils.indexOfIgnoreCase(s, text, index);
-                while (i != -1) {
-                    var toParse = s.substring(index, i).strip();
-                    var expression = parse(toParse, typeArray, context.getParserState(), logger);
+                if (occurrences == null)
+                    occurrences = PatternElement.getInputSearcher(originalElement, possibilityIndex).findAll(s, index);
+                for (var i : occurrences[p]) {
+                    var toParse = StringUtils.stripRegion(s, index, i);
+                    var expression = parse(s, skipWhitespace(s, index), toParse, typeArray, context.getParserState(), logger);
                     if (expression.isPresent()) {
                         context.addExpression(expression.get());
                         return index + toParse.length();
                     }
-                    i = StringUtils.indexOfIgnoreCase(s, text, i + 1);
                 }
             } else if (possibleInput instanceof RegexGroup) {
                 var m = ((RegexGroup) possibleInput).getPattern().matcher(s).region(index, s.length());
@@ -93,10 +113,10 @@ public class ExpressionElement implements PatternElement {
                     if (i == -1) {
                         continue;
                     }
-                    var toParse = s.substring(index, i);
-                    if (toParse.length() == context.getOriginalPattern().length())
+                    if (i - index == context.getOriginalPattern().length())
                         continue;
-                    var expression = parse(toParse, typeArray, context.getParserState(), logger);
+                    var toParse = s.substring(index, i);
+                    var expression = parse(s, index, toParse, typeArray, context.getParserState(), logger);
                     if (expression.isPresent()) {
                         context.addExpression(expression.get());
                         return index + toParse.length();
@@ -104,20 +124,20 @@ public class ExpressionElement implements PatternElement {
                 }
             } else {
                 assert possibleInput instanceof ExpressionElement;
-                var nextPossibleInputs = PatternElement.getPossibleInputs(flattened.subList(context.getPatternIndex() + 1, flattened.size()));
+                var nextPossibleInputs = PatternElement.getPossibleInputs(originalElement, context.getPatternIndex() + 1);
                 if (nextPossibleInputs.stream().anyMatch(pe -> !(pe instanceof TextElement))) {
                     continue;
                 }
-                for (var nextPossibleInput : nextPossibleInputs) {
-                    var text = ((TextElement) nextPossibleInput).getText();
+                int[][] nextOccurrences = null;
+                for (var q = 0; q < nextPossibleInputs.size(); q++) {
+                    var text = ((TextElement) nextPossibleInputs.get(q)).getText();
                     if (text.equals("")) {
-                        var rest = s.substring(index);
-                        var splits = splitAtSpaces(rest);
-                        for (var split : splits) {
-                            var i = StringUtils.indexOfIgnoreCase(s, split, index);
+                        var splits = splitAtSpaces(context.getParserState().getParseMemo().getTokens(s), index, s.length());
+                        for (var j = 0; j < splits.length; j += 2) {
+                            var i = StringUtils.indexOfIgnoreCase(s, s, splits[j], splits[j + 1], index);
                             if (i != -1) {
                                 var toParse = s.substring(index, i);
-                                var expression = parse(toParse, typeArray, context.getParserState(), logger);
+                                var expression = parse(s, index, toParse, typeArray, context.getParserState(), logger);
                                 if (expression.isPresent()) {
                                     context.addExpression(expression.get());
                                     return index + toParse.length();
@@ -126,17 +146,20 @@ public class ExpressionElement implements PatternElement {
                         }
                         return -1;
                     } else {
-                        var bound = StringUtils.indexOfIgnoreCase(s, text, index);
-                        if (bound == -1) {
+                        if (nextOccurrences == null) {
+                            nextOccurrences = PatternElement.getInputSearcher(originalElement, context.getPatternIndex() + 1)
+                                    .findAll(s, index);
+                        }
+                        if (nextOccurrences[q].length == 0) {
                             continue;
                         }
-                        var rest = s.substring(index, bound);
-                        var splits = splitAtSpaces(rest);
-                        for (var split : splits) {
-                            var i = StringUtils.indexOfIgnoreCase(s, split, index);
+                        var bound = nextOccurrences[q][0];
+                        var splits = splitAtSpaces(context.getParserState().getParseMemo().getTokens(s), index, bound);
+                        for (var j = 0; j < splits.length; j += 2) {
+                            var i = StringUtils.indexOfIgnoreCase(s, s, splits[j], splits[j + 1], index);
                             if (i != -1) {
                                 var toParse = s.substring(index, i);
-                                var expression = parse(toParse, typeArray, context.getParserState(), logger);
+                                var expression = parse(s, index, toParse, typeArray, context.getParserState(), logger);
                                 if (expression.isPresent()) {
                                     context.addExpression(expression.get());
                                     return index + toParse.length();
@@ -150,34 +173,98 @@ public class ExpressionElement implements PatternElement {
         return -1;
     }
 
-    private List<String> splitAtSpaces(String s) {
-        List<String> split = new ArrayList<>();
-        var sb = new StringBuilder();
-        var charArray = s.toCharArray();
-        for (var i = 0; i < charArray.length; i++) {
-            var c = charArray[i];
+    /**
+     * Splits a region of a string at spaces, keeping parenthesized text together
+     * @return the bounds of each part, as consecutive pairs of start (inclusive) and end (exclusive) indices
+     */
+    private static int[] splitAtSpaces(LineTokens tokens, int start, int end) {
+        var s = tokens.getString();
+        var bounds = new int[8];
+        var count = 0;
+        var partStart = -1;
+        for (var i = start; i < end; i++) {
+            var c = s.charAt(i);
             if (c == ' ') {
-                if (sb.length() > 0) {
-                    split.add(sb.toString());
-                    sb.setLength(0);
+                if (partStart != -1) {
+                    bounds = add(bounds, count, partStart, i);
+                    count += 2;
+                    partStart = -1;
                 }
-            } else if (c == '(') {
-                var enclosed = StringUtils.getEnclosedText(s, '(', ')', i)
-                        .map(en -> "(" + en + ")");
-                sb.append(enclosed.orElse("("));
-                i += enclosed.map(s1 -> s1.length() + 1).orElse(0);
-            } else {
-                sb.append(c);
+                continue;
+            } else if (partStart == -1) {
+                partStart = i;
+            }
+            if (c == '(') {
+                var closing = tokens.findClosingParenthesis(i);
+                if (closing != -1 && closing < end)
+                    i = closing;
             }
         }
-        if (sb.length() > 0) {
-            split.add(sb.toString());
+        if (partStart != -1) {
+            bounds = add(bounds, count, partStart, end);
+            count += 2;
+        }
+        return Arrays.copyOf(bounds, count);
+    }
+
+    private static int[] add(int[] bounds, int count, int start, int end) {
+        if (count + 2 > bounds.length)
+            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        bounds[count] = start;
+        bounds[count + 1] = end;
+        return bounds;
+    }
+
+    /**
+     * Parses part of a string the same way as when this element is matched, sharing results with the other matches of
+     * the line through the {@link io.github.syst3ms.skriptparser.parsing.ParseMemo}.
+     * @param source the string being matched
+     * @param start where the part to parse starts, inclusive
+     * @param end where the part to parse ends, exclusive
+     * @param parserState the current parser state
+     * @param logger the logger
+     * @return the parsed expression, or an empty {@link Optional} if the string didn't parse
+     */
+    public Optional<? extends Expression<?>> parse(String source, int start, int end, ParserState parserState, SkriptLogger logger) {
+        return parse(source, start, source.substring(start, end), typeArray, parserState, logger);
+    }
+
+    private static int skipWhitespace(String s, int index) {
+        while (index < s.length() && Character.isWhitespace(s.charAt(index)))
+            index++;
+        return index;
+    }
+
+    /**
+     * Parses an expression, or looks it up if the same part of the same string was already parsed for an equivalent
+     * element on this line. The same expression is then handed to every syntax matching that part of the line, which is
+     * why {@link io.github.syst3ms.skriptparser.lang.SyntaxElement#init} must not modify it. Lists are never memoized,
+     * since the syntax using them may modify them.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Optional<? extends Expression<? extends T>> parse(String source, int start, String s, PatternType<?>[] types, ParserState parserState, SkriptLogger logger) {
+        var memo = parserState.getParseMemo();
+        var memoized = memo.get(this, source, start, s);
+        if (memoized.isPresent()) {
+            logger.replay(memoized.get().getRecording());
+            return (Optional<? extends Expression<? extends T>>) memoized.get().getResult();
+        }
+        var recording = logger.startRecording();
+        Optional<? extends Expression<? extends T>> expression;
+        memo.enter();
+        try {
+            expression = parseExpression(s, types, parserState, logger);
+        } finally {
+            memo.exit();
+            logger.stopRecording(recording);
         }
-        return split;
+        if (expression.filter(e -> e instanceof ExpressionList).isEmpty())
+            memo.put(this, source, start, s, expression, recording);
+        return expression;
     }
 
     @SuppressWarnings("unchecked")
-    private <T> Optional<? extends Expression<? extends T>> parse(String s, PatternType<?>[] types, ParserState parserState, SkriptLogger logger) {
+    private <T> Optional<? extends Expression<? extends T>> parseExpression(String s, PatternType<?>[] types, ParserState parserState, SkriptLogger logger) {
         for (var type : types) {
             Optional<? extends Expression<? extends T>> expression;
             logger.recurse();
@@ -201,19 +288,19 @@ public class ExpressionElement implements PatternElement {
                         break;
                     case EXPRESSIONS_ONLY:
                         if (Literal.isLiteral(e)) {
-                            logger.error("Only expressions are allowed, found literal " + s, ErrorType.SEMANTIC_ERROR);
+                            logger.error(() -> "Only expressions are allowed, found literal " + s, ErrorType.SEMANTIC_ERROR);
                             return false;
                         }
                         break;
                     case LITERALS_ONLY:
                         if (!Literal.isLiteral(e)) {
-                            logger.error("Only literals are allowed, found expression " + s, ErrorType.SEMANTIC_ERROR);
+                            logger.error(() -> "Only literals are allowed, found expression " + s, ErrorType.SEMANTIC_ERROR);
                             return false;
                         }
                         break;
                     case VARIABLES_ONLY:
                         if (!(e instanceof Variable)) {
-                            logger.error("Only variables are allowed, found " + s, ErrorType.SEMANTIC_ERROR);
+                            logger.error(() -> "Only variables are allowed, found " + s, ErrorType.SEMANTIC_ERROR);
                             return false;
                         }
                         break;
@@ -237,6 +324,11 @@ public class ExpressionElement implements PatternElement {
         }
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(types, acceptance, acceptsConditional);
+    }
+
     @Override
     public String toString() {
         var sb = new StringBuilder("%");
@@ -1,6 +1,7 @@
 package io.github.syst3ms.skriptparser.pattern;
 
 import io.github.syst3ms.skriptparser.parsing.MatchContext;
+import io.github.syst3ms.skriptparser.util.MultiStringSearcher;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -29,6 +30,59 @@ public interface PatternElement {
         }
     }
 
+    /**
+     * @param element the pattern element
+     * @return the size of the {@linkplain #flatten(PatternElement) flattened} element, without flattening it
+     */
+    static int flattenedSize(PatternElement element) {
+        return element instanceof CompoundElement ? ((CompoundElement) element).size() : 1;
+    }
+
+    /**
+     * Returns what could possibly come right after the element at the given index inside of a {@link PatternElement},
+     * as it is {@linkplain #flatten(PatternElement) flattened}. These are precomputed for {@link CompoundElement}s.
+     * @param element the pattern element
+     * @param index the index inside of the flattened element
+     * @return the possible inputs
+     * @see #getPossibleInputs(List)
+     */
+    static List<PatternElement> getPossibleInputs(PatternElement element, int index) {
+        if (element instanceof CompoundElement)
+            return ((CompoundElement) element).getPossibleInputs(index);
+        var flattened = flatten(element);
+        return getPossibleInputs(flattened.subList(index, flattened.size()));
+    }
+
+    /**
+     * Returns a {@link MultiStringSearcher} looking for all the {@link TextElement}s among the
+     * {@linkplain #getPossibleInputs(PatternElement, int) possible inputs} at the given index, in the same order.
+     * These are precomputed for {@link CompoundElement}s.
+     * @param element the pattern element
+     * @param index the index inside of the flattened element
+     * @return the searcher of the possible inputs
+     * @see #createInputSearcher(List)
+     */
+    static MultiStringSearcher getInputSearcher(PatternElement element, int index) {
+        if (element instanceof CompoundElement)
+            return ((CompoundElement) element).getInputSearcher(index);
+        return createInputSearcher(getPossibleInputs(element, index));
+    }
+
+    /**
+     * @param possibleInputs some possible inputs
+     * @return a searcher whose needles are the text of each {@link TextElement} in the list, and {@literal null} for
+     * anything else, including the end of line
+     */
+    static MultiStringSearcher createInputSearcher(List<PatternElement> possibleInputs) {
+        var needles = new String[possibleInputs.size()];
+        for (var i = 0; i < needles.length; i++) {
+            var input = possibleInputs.get(i);
+            if (input instanceof TextElement && !((TextElement) input).getText().equals("\0"))
+                needles[i] = ((TextElement) input).getText();
+        }
+        return new MultiStringSearcher(needles);
+    }
+
     static List<PatternElement> getPossibleInputs(List<PatternElement> elements) {
         List<PatternElement> optionalPossibilities = new ArrayList<>(); // We generally want to get the non-optional ones out of the way first
         List<PatternElement> possibilities = new ArrayList<>();
@@ -61,7 +115,7 @@ public interface PatternElement {
             }
         }
         possibilities.addAll(optionalPossibilities);
-        possibilities.add(new TextElement("\0")); // EOL still goes at the very end
+        possibilities.add(TextElement.END_OF_LINE); // EOL still goes at the very end
         return possibilities;
     }
 }
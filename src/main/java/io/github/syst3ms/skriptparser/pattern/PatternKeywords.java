@@ -0,0 +1,132 @@
+package io.github.syst3ms.skriptparser.pattern;
+
+import io.github.syst3ms.skriptparser.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The literal words a {@link PatternElement} requires in order to match, along with the length of the shortest string
+ * it could match. These are extracted once, when the pattern is registered, so that a pattern can be ruled out before
+ * even attempting to match it.
+ * <br>
+ * The requirements take the form of a conjunction of groups : every group must have at least one of its words
+ * present in a string for the pattern to possibly match it. A {@link ChoiceGroup} therefore contributes a single group
+ * holding one requirement of each of its branches.
+ * All words are case-folded using {@link StringUtils#foldCase(String)}.
+ */
+public class PatternKeywords {
+    private final String[][] requirements;
+    private final int minimumLength;
+
+    private PatternKeywords(String[][] requirements, int minimumLength) {
+        this.requirements = requirements;
+        this.minimumLength = minimumLength;
+    }
+
+    /**
+     * Extracts the words required by the given {@link PatternElement}
+     * @param element the pattern
+     * @return the required words of the pattern
+     */
+    public static PatternKeywords of(PatternElement element) {
+        var groups = requirementsOf(element);
+        var requirements = new String[groups.size()][];
+        for (var i = 0; i < groups.size(); i++) {
+            requirements[i] = groups.get(i).toArray(new String[0]);
+        }
+        return new PatternKeywords(requirements, minimumLengthOf(element));
+    }
+
+    /**
+     * Only text is guaranteed to consume characters : whitespace around text is optional, and expressions as well as
+     * regexes are left out, since they may end up matching less than one would think.
+     */
+    private static int minimumLengthOf(PatternElement element) {
+        if (element instanceof TextElement) {
+            return ((TextElement) element).getText().strip().length();
+        } else if (element instanceof CompoundElement) {
+            var length = 0;
+            for (var e : ((CompoundElement) element).getElements()) {
+                length += minimumLengthOf(e);
+            }
+            return length;
+        } else if (element instanceof ChoiceGroup) {
+            var length = Integer.MAX_VALUE;
+            for (var choice : ((ChoiceGroup) element).getChoices()) {
+                length = Math.min(length, minimumLengthOf(choice.getElement()));
+            }
+            return length == Integer.MAX_VALUE ? 0 : length;
+        } else {
+            return 0;
+        }
+    }
+
+    private static List<List<String>> requirementsOf(PatternElement element) {
+        if (element instanceof TextElement) {
+            var stripped = ((TextElement) element).getText().strip();
+            if (stripped.isEmpty())
+                return Collections.emptyList();
+            return Collections.singletonList(Collections.singletonList(StringUtils.foldCase(stripped)));
+        } else if (element instanceof CompoundElement) {
+            List<List<String>> requirements = new ArrayList<>();
+            for (var e : ((CompoundElement) element).getElements()) {
+                requirements.addAll(requirementsOf(e));
+            }
+            return requirements;
+        } else if (element instanceof ChoiceGroup) {
+            List<String> alternatives = new ArrayList<>();
+            for (var choice : ((ChoiceGroup) element).getChoices()) {
+                var choiceRequirements = requirementsOf(choice.getElement());
+                if (choiceRequirements.isEmpty()) // This choice doesn't require anything, so neither does the group
+                    return Collections.emptyList();
+                alternatives.addAll(mostSelective(choiceRequirements));
+            }
+            return Collections.singletonList(alternatives);
+        } else {
+            // Optional groups may be omitted, and expressions or regexes can match about anything
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Picks the group whose shortest word is the longest, as it is the least likely to be present by accident
+     */
+    private static List<String> mostSelective(List<List<String>> groups) {
+        List<String> best = null;
+        var bestLength = -1;
+        for (var group : groups) {
+            var length = Integer.MAX_VALUE;
+            for (var word : group) {
+                length = Math.min(length, word.length());
+            }
+            if (length > bestLength) {
+                best = group;
+                bestLength = length;
+            }
+        }
+        assert best != null;
+        return best;
+    }
+
+    /**
+     * Checks whether the pattern could possibly match the given string, based on its length and the words it contains.
+     * A return value of {@code true} doesn't mean that the pattern matches, only that it cannot be ruled out.
+     * @param folded the string to check, already case-folded using {@link StringUtils#foldCase(String)}
+     * @return whether the pattern could match the string
+     */
+    public boolean mayMatch(String folded) {
+        if (folded.length() < minimumLength)
+            return false;
+        outer:
+        for (var group : requirements) {
+            for (var word : group) {
+                if (folded.contains(word))
+                    continue outer;
+            }
+            return false;
+        }
+        return true;
+    }
+}
@@ -35,14 +35,14 @@ public class RegexGroup implements PatternElement {
     @Override
     public int match(String s, int index, MatchContext context) {
         var source = context.getSource();
-        var flattened = PatternElement.flatten(context.getOriginalElement());
+        var originalElement = context.getOriginalElement();
         var possibilityIndex = context.getPatternIndex();
-        while (source.isPresent() && possibilityIndex >= flattened.size()) {
-            flattened = PatternElement.flatten(source.get().getOriginalElement());
+        while (source.isPresent() && possibilityIndex >= PatternElement.flattenedSize(originalElement)) {
+            originalElement = source.get().getOriginalElement();
             possibilityIndex = source.get().getPatternIndex();
             source = source.get().getSource();
         }
-        var possibleInputs = PatternElement.getPossibleInputs(flattened.subList(possibilityIndex, flattened.size()));
+        var possibleInputs = PatternElement.getPossibleInputs(originalElement, possibilityIndex);
         for (var possibleInput : possibleInputs) {
             if (possibleInput instanceof TextElement) {
                 var text = ((TextElement) possibleInput).getText();
@@ -61,8 +61,7 @@ public class RegexGroup implements PatternElement {
                 if (!m.matches())
                     continue;
                 context.addRegexMatch(m.toMatchResult());
-                var content = m.group();
-                return index + content.length();
+                return m.end();
             } else {
                 assert possibleInput instanceof RegexGroup;
                 var boundMatcher = ((RegexGroup) possibleInput).getPattern().matcher(s).region(index, s.length());
@@ -76,8 +75,7 @@ public class RegexGroup implements PatternElement {
                      */
                     if (m.matches()) {
                         context.addRegexMatch(m.toMatchResult());
-                        var content = m.group();
-                        return index + content.length();
+                        return m.end();
                     }
                 }
             }
@@ -7,10 +7,21 @@ import org.jetbrains.annotations.Nullable;
  * Text inside of a pattern. Is case and whitespace insensitive.
  */
 public class TextElement implements PatternElement {
+    /**
+     * Marks the end of the line among {@linkplain PatternElement#getPossibleInputs(java.util.List) possible inputs}
+     */
+    static final TextElement END_OF_LINE = new TextElement("\0");
+
     private final String text;
+    private final String stripped;
+    private final boolean leadingWhitespace;
+    private final boolean trailingWhitespace;
 
     public TextElement(String text) {
         this.text = text;
+        this.stripped = text.strip();
+        this.leadingWhitespace = !text.isEmpty() && Character.isWhitespace(text.charAt(0));
+        this.trailingWhitespace = !text.isEmpty() && Character.isWhitespace(text.charAt(text.length() - 1));
     }
 
     public String getText() {
@@ -27,12 +38,11 @@ public class TextElement implements PatternElement {
         if (text.isEmpty())
             return index;
         var start = 0;
-        if (Character.isWhitespace(text.charAt(0))) {
+        if (leadingWhitespace) {
             while (index + start < s.length() && Character.isWhitespace(s.charAt(index + start)))
                 start++;
         }
         var end = 0;
-        var stripped = text.strip();
         // We advance until we reach the first non-whitespace character in s
         if (index + start + stripped.length() > s.length()) {
             return -1;
@@ -40,7 +50,7 @@ public class TextElement implements PatternElement {
         if (stripped.isEmpty()) {
             return index + start;
         } else if (s.regionMatches(true, index + start, stripped, 0, stripped.length())) {
-            if (Character.isWhitespace(text.charAt(text.length() - 1))) {
+            if (trailingWhitespace) {
                 while (end < s.length() && Character.isWhitespace(s.charAt(index + start + stripped.length() - end)))
                     end++;
             }
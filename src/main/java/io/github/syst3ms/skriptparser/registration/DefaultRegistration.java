@@ -7,6 +7,7 @@ import io.github.syst3ms.skriptparser.types.comparisons.Comparators;
 import io.github.syst3ms.skriptparser.types.comparisons.Relation;
 import io.github.syst3ms.skriptparser.types.conversions.Converters;
 import io.github.syst3ms.skriptparser.types.ranges.Ranges;
+import io.github.syst3ms.skriptparser.util.NumberUtils;
 import io.github.syst3ms.skriptparser.util.SkriptDate;
 import io.github.syst3ms.skriptparser.util.TimeUtils;
 import io.github.syst3ms.skriptparser.util.math.BigDecimalMath;
@@ -37,32 +38,17 @@ public class DefaultRegistration {
                     .literalParser(s -> {
                         Number n;
                         if (s.endsWith("L") || s.endsWith("l")) {
-                            try {
-                                n = Long.parseLong(s.substring(0, s.length() - 1));
-                            } catch (NumberFormatException e) {
-                                return null;
-                            }
+                            n = NumberUtils.parseLong(s.substring(0, s.length() - 1));
                         } else if (s.endsWith("D") || s.endsWith("d")) {
-                            try {
-                                n = Double.parseDouble(s.substring(0, s.length() - 1));
-                            } catch (NumberFormatException e) {
-                                return null;
-                            }
+                            n = NumberUtils.parseDouble(s.substring(0, s.length() - 1));
                         } else if (s.contains(".")) {
-                            try {
-                                n = new BigDecimal(s);
-                            } catch (NumberFormatException e) {
-                                return null;
-                            }
+                            n = NumberUtils.parseBigDecimal(s);
                         } else {
-                            try {
-                                n = new BigInteger(s);
-                            } catch (NumberFormatException e) {
-                                return null;
-                            }
+                            n = NumberUtils.parseBigInteger(s);
                         }
                         return n;
                     })
+                    .literalFilter(NumberUtils::mayBeNumber)
                     .toStringFunction(o -> {
                         if (o instanceof BigDecimal) {
                             BigDecimal bd = (BigDecimal) o;
@@ -162,13 +148,8 @@ public class DefaultRegistration {
                         }
                     }).register();
         registration.newType(Long.class, "integer", "integer@s")
-                .literalParser(s -> {
-                    try {
-                        return Long.parseLong(s);
-                    } catch (NumberFormatException e) {
-                        return null;
-                    }
-                })
+                .literalParser(NumberUtils::parseLong)
+                .literalFilter(NumberUtils::mayBeInteger)
                 .arithmetic(new Arithmetic<Long, Long>() {
                     @Override
                     public Long difference(Long first, Long second) {
@@ -192,13 +173,8 @@ public class DefaultRegistration {
                 })
                 .register();
         registration.newType(BigInteger.class, "biginteger", "biginteger@s")
-                .literalParser(s -> {
-                    try {
-                        return new BigInteger(s);
-                    } catch (NumberFormatException e) {
-                        return null;
-                    }
-                })
+                .literalParser(NumberUtils::parseBigInteger)
+                .literalFilter(NumberUtils::mayBeInteger)
                 .arithmetic(new Arithmetic<BigInteger, BigInteger>() {
                     @Override
                     public BigInteger difference(BigInteger first, BigInteger second) {
@@ -236,10 +212,12 @@ public class DefaultRegistration {
                             return null;
                         }
                     })
+                    .literalFilter(s -> s.length() == 4 || s.length() == 5)
                     .toStringFunction(String::valueOf)
                     .register();
         registration.newType(Duration.class, "duration", "duration@s")
                 .literalParser(TimeUtils::parseDuration)
+                .literalFilter(NumberUtils::mayBeInteger)
                 .toStringFunction(TimeUtils::toStringDuration)
                 .arithmetic(new Arithmetic<Duration, Duration>() {
                     @Override
@@ -1,11 +1,16 @@
 package io.github.syst3ms.skriptparser.registration;
 
 import io.github.syst3ms.skriptparser.lang.Expression;
+import io.github.syst3ms.skriptparser.parsing.OperatorParser;
+import io.github.syst3ms.skriptparser.parsing.SkriptParserException;
 import io.github.syst3ms.skriptparser.pattern.PatternElement;
 import io.github.syst3ms.skriptparser.types.PatternType;
 import io.github.syst3ms.skriptparser.types.Type;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * A class containing info about an {@link Expression} syntax
@@ -14,13 +19,50 @@ import java.util.List;
  */
 public class ExpressionInfo<C, T> extends SyntaxInfo<C> {
     private final PatternType<T> returnType;
+    private final boolean pure;
+    @Nullable
+    private final OperatorParser operatorParser;
 
     public ExpressionInfo(Class<C> c, List<PatternElement> patterns, SkriptAddon registerer, Type<T> returnType, boolean isSingle, int priority) {
-        super(c, patterns, priority, registerer);
+        this(c, null, patterns, registerer, returnType, isSingle, priority);
+    }
+
+    public ExpressionInfo(Class<C> c, @Nullable Supplier<? extends C> factory, List<PatternElement> patterns, SkriptAddon registerer, Type<T> returnType, boolean isSingle, int priority) {
+        this(c, factory, patterns, registerer, returnType, isSingle, priority, false);
+    }
+
+    public ExpressionInfo(Class<C> c, @Nullable Supplier<? extends C> factory, List<PatternElement> patterns, SkriptAddon registerer, Type<T> returnType, boolean isSingle, int priority, boolean pure) {
+        this(c, factory, patterns, registerer, returnType, isSingle, priority, pure, false);
+    }
+
+    public ExpressionInfo(Class<C> c, @Nullable Supplier<? extends C> factory, List<PatternElement> patterns, SkriptAddon registerer, Type<T> returnType, boolean isSingle, int priority, boolean pure, boolean operator) {
+        super(c, factory, patterns, priority, registerer);
         this.returnType = new PatternType<>(returnType, isSingle);
+        this.pure = pure;
+        this.operatorParser = operator
+                ? OperatorParser.of(patterns).orElseThrow(() -> new SkriptParserException("The patterns of '" + c.getName() + "' aren't all operators !"))
+                : null;
     }
 
     public PatternType<T> getReturnType() {
         return returnType;
     }
+
+    /**
+     * @return whether the {@link Expression} is pure, meaning that its values only depend on the values of the
+     * expressions it was initialized with. A pure expression whose inner expressions are all constant is evaluated
+     * once, when it is parsed.
+     */
+    public boolean isPure() {
+        return pure;
+    }
+
+    /**
+     * @return the parser for chains of the operators of the {@link Expression}, if its patterns are all operators, such
+     * as {@code %number% + %number%} or {@code not %boolean%}. This is only the case when the syntax was registered
+     * as such.
+     */
+    public Optional<OperatorParser> getOperatorParser() {
+        return Optional.ofNullable(operatorParser);
+    }
 }
\ No newline at end of file
@@ -3,8 +3,10 @@ package io.github.syst3ms.skriptparser.registration;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
 import io.github.syst3ms.skriptparser.lang.SkriptEvent;
 import io.github.syst3ms.skriptparser.pattern.PatternElement;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * A class containing info about an {@link SkriptEvent event} syntax
@@ -14,7 +16,11 @@ public class SkriptEventInfo<E extends SkriptEvent> extends SyntaxInfo<E> {
     private final Class<? extends TriggerContext>[] contexts;
 
     public SkriptEventInfo(Class<E> c, Class<? extends TriggerContext>[] handledContexts, List<PatternElement> patterns, int priority, SkriptAddon registerer) {
-        super(c, patterns, priority, registerer);
+        this(c, null, handledContexts, patterns, priority, registerer);
+    }
+
+    public SkriptEventInfo(Class<E> c, @Nullable Supplier<? extends E> factory, Class<? extends TriggerContext>[] handledContexts, List<PatternElement> patterns, int priority, SkriptAddon registerer) {
+        super(c, factory, patterns, priority, registerer);
         this.contexts = handledContexts;
     }
 
@@ -22,6 +22,8 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * A mutable object keeping track of all syntax and types registered by an {@link SkriptAddon addon}
@@ -103,6 +105,13 @@ public class SkriptRegistration {
         return contextValues;
     }
 
+    /**
+     * @return the logger of this registration, whose entries are returned by {@link #register()}
+     */
+    public SkriptLogger getLogger() {
+        return logger;
+    }
+
     /**
      * Starts a registration process for an {@link Expression}
      * @param c the Expression's class
@@ -339,6 +348,7 @@ public class SkriptRegistration {
         TypeManager.register(this);
         Converters.registerConverters(this);
         Converters.createMissingConverters();
+        SyntaxManager.indexExpressions();
         return logger.close();
     }
 
@@ -358,6 +368,8 @@ public class SkriptRegistration {
         @Nullable
         private Function<String, ? extends C> literalParser;
         @Nullable
+        private Predicate<String> literalFilter;
+        @Nullable
         private Changer<? super C> defaultChanger;
         @Nullable
         private Arithmetic<C, ?> arithmetic;
@@ -377,6 +389,16 @@ public class SkriptRegistration {
             return this;
         }
 
+        /**
+         * @param literalFilter a cheap check telling whether a string could possibly be parsed by the literal parser.
+         *                      Literal parsing happens very often, so this avoids calling the literal parser in vain.
+         * @return the registrar
+         */
+        public TypeRegistrar<C> literalFilter(Predicate<String> literalFilter) {
+            this.literalFilter = literalFilter;
+            return this;
+        }
+
         /**
          * @param toStringFunction a function converting an instance of the type to a String
          * @return the registrar
@@ -410,7 +432,7 @@ public class SkriptRegistration {
         @Override
         public void register() {
             newTypes = true;
-            types.add(new Type<>(c, baseName, pattern, literalParser, toStringFunction, defaultChanger, arithmetic));
+            types.add(new Type<>(c, baseName, pattern, literalParser, literalFilter, toStringFunction, defaultChanger, arithmetic));
         }
     }
 
@@ -418,6 +440,8 @@ public class SkriptRegistration {
         protected final Class<C> c;
         private final List<String> patterns = new ArrayList<>();
         private int priority;
+        @Nullable
+        private Supplier<? extends C> supplier;
 
         SyntaxRegistrar(Class<C> c, String... patterns) {
             this(c, 5, patterns);
@@ -451,11 +475,24 @@ public class SkriptRegistration {
             this.priority = priority;
             return this;
         }
+
+        /**
+         * Sets the supplier used to create instances of the current syntax. By default, instances are created using
+         * the no-argument constructor of the syntax class.
+         * @param supplier the supplier
+         * @return the registrar
+         */
+        public SyntaxRegistrar<C> setSupplier(Supplier<? extends C> supplier) {
+            this.supplier = supplier;
+            return this;
+        }
     }
 
     public class ExpressionRegistrar<C extends Expression<? extends T>, T> extends SyntaxRegistrar<C> {
         private final Class<T> returnType;
         private final boolean isSingle;
+        private boolean pure = false;
+        private boolean operator = false;
 
         ExpressionRegistrar(Class<C> c, Class<T> returnType, boolean isSingle) {
             this(c, returnType, isSingle, new String[0]);
@@ -468,6 +505,30 @@ public class SkriptRegistration {
             this.isSingle = isSingle;
         }
 
+        /**
+         * Declares the current expression as pure : its values only depend on the values of the expressions it was
+         * initialized with, and getting them has no side effects. When all of those expressions are constant, the
+         * expression is then evaluated once, at parse time, and replaced by a {@link Literal}.
+         * @return the registrar
+         * @see ExpressionInfo#isPure()
+         */
+        public ExpressionRegistrar<C, T> setPure() {
+            this.pure = true;
+            return this;
+        }
+
+        /**
+         * Declares all the patterns of the current expression as operators, either binary ({@code %number% + %number%})
+         * or prefix ({@code not %boolean%}), the first patterns binding the loosest. Chains of these operators are then
+         * parsed in a single pass, instead of trying every way to split them.
+         * @return the registrar
+         * @see ExpressionInfo#getOperatorParser()
+         */
+        public ExpressionRegistrar<C, T> setOperator() {
+            this.operator = true;
+            return this;
+        }
+
         /**
          * Adds this expression to the list of currently registered syntaxes
          */
@@ -480,7 +541,7 @@ public class SkriptRegistration {
                 logger.error("Couldn't find a type corresponding to the class '" + returnType.getName() + "'", ErrorType.NO_MATCH);
                 return;
             }
-            var info = new ExpressionInfo<>(super.c, elements, registerer, type.get(), isSingle, super.priority);
+            var info = new ExpressionInfo<>(super.c, super.supplier, elements, registerer, type.get(), isSingle, super.priority, pure, operator);
             expressions.putOne(super.c, info);
         }
     }
@@ -499,7 +560,7 @@ public class SkriptRegistration {
         public void register() {
             List<PatternElement> elements = new ArrayList<>();
             super.patterns.forEach(s -> patternParser.parsePattern(s, logger).ifPresent(elements::add));
-            var info = new SyntaxInfo<>(super.c, elements, super.priority, registerer);
+            var info = new SyntaxInfo<>(super.c, super.supplier, elements, super.priority, registerer);
             effects.add(info);
         }
     }
@@ -518,7 +579,7 @@ public class SkriptRegistration {
         public void register() {
             List<PatternElement> elements = new ArrayList<>();
             super.patterns.forEach(s -> patternParser.parsePattern(s, logger).ifPresent(elements::add));
-            var info = new SyntaxInfo<>(super.c, elements, super.priority, registerer);
+            var info = new SyntaxInfo<>(super.c, super.supplier, elements, super.priority, registerer);
             sections.add(info);
         }
     }
@@ -546,7 +607,7 @@ public class SkriptRegistration {
                 }
                 patternParser.parsePattern(s, logger).ifPresent(elements::add);
             }
-            var info = new SkriptEventInfo<>(super.c, handledContexts, elements, super.priority, registerer);
+            var info = new SkriptEventInfo<>(super.c, super.supplier, handledContexts, elements, super.priority, registerer);
             events.add(info);
             registerer.addHandledEvent(this.c);
         }
@@ -4,8 +4,17 @@ import io.github.syst3ms.skriptparser.lang.Expression;
 import io.github.syst3ms.skriptparser.lang.SkriptEvent;
 import io.github.syst3ms.skriptparser.lang.SyntaxElement;
 import io.github.syst3ms.skriptparser.pattern.PatternElement;
+import io.github.syst3ms.skriptparser.pattern.PatternKeywords;
+import io.github.syst3ms.skriptparser.util.StringUtils;
+import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * A class containing info about a {@link SyntaxElement} that isn't an {@link Expression} or an {@link SkriptEvent}
@@ -16,12 +25,32 @@ public class SyntaxInfo<C> {
     private final List<PatternElement> patterns;
     private final int priority;
     private final SkriptAddon registerer;
+    private final PatternKeywords[] keywords;
+    @Nullable
+    private final Supplier<? extends C> factory;
 
     public SyntaxInfo(Class<C> c, List<PatternElement> patterns, int priority, SkriptAddon registerer) {
+        this(c, null, patterns, priority, registerer);
+    }
+
+    /**
+     * @param c the syntax class
+     * @param factory the supplier creating instances of the syntax class, or {@literal null} to generate one
+     *                from its no-argument constructor
+     * @param patterns the patterns
+     * @param priority the priority
+     * @param registerer the addon registering the syntax
+     */
+    public SyntaxInfo(Class<C> c, @Nullable Supplier<? extends C> factory, List<PatternElement> patterns, int priority, SkriptAddon registerer) {
         this.c = c;
+        this.factory = factory != null ? factory : createFactory(c);
         this.patterns = patterns;
         this.priority = priority;
         this.registerer = registerer;
+        this.keywords = new PatternKeywords[patterns.size()];
+        for (var i = 0; i < keywords.length; i++) {
+            keywords[i] = PatternKeywords.of(patterns.get(i));
+        }
     }
 
     public List<PatternElement> getPatterns() {
@@ -39,4 +68,65 @@ public class SyntaxInfo<C> {
     public SkriptAddon getRegisterer() {
         return registerer;
     }
+
+    /**
+     * Creates a new instance of the syntax class. Exceptions thrown by the constructor are passed on to the caller.
+     * @return the new instance, or an empty {@link Optional} if the class has no accessible no-argument constructor
+     */
+    public Optional<? extends C> newInstance() {
+        if (factory == null)
+            return Optional.empty();
+        return Optional.of(factory.get());
+    }
+
+    /**
+     * Creates a {@link Supplier} calling the no-argument constructor of the given class directly, so that instantiating
+     * a syntax doesn't go through reflection each time.
+     * @param c the class
+     * @param <C> the type of the class
+     * @return the supplier, or {@literal null} if the class cannot be instantiated
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static <C> Supplier<? extends C> createFactory(Class<C> c) {
+        if (c.isInterface() || Modifier.isAbstract(c.getModifiers()))
+            return null;
+        try {
+            var lookup = MethodHandles.privateLookupIn(c, MethodHandles.lookup());
+            var constructor = lookup.findConstructor(c, MethodType.methodType(void.class));
+            try {
+                return (Supplier<? extends C>) LambdaMetafactory.metafactory(
+                        lookup,
+                        "get",
+                        MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class),
+                        constructor,
+                        MethodType.methodType(c)
+                ).getTarget().invoke();
+            } catch (Throwable t) { // Fall back to the method handle itself
+                return () -> {
+                    try {
+                        return (C) constructor.invoke();
+                    } catch (RuntimeException | Error e) {
+                        throw e;
+                    } catch (Throwable e) {
+                        throw new IllegalStateException(e);
+                    }
+                };
+            }
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether the pattern at the given index could match the given string, based on the words it requires.
+     * @param pattern the index of the pattern
+     * @param folded the string, case-folded using {@link StringUtils#foldCase(String)}
+     * @return whether the pattern could match the string
+     * @see PatternKeywords
+     */
+    public boolean mayMatch(int pattern, String folded) {
+        return keywords[pattern].mayMatch(folded);
+    }
 }
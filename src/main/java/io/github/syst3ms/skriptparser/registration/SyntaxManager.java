@@ -3,13 +3,22 @@ package io.github.syst3ms.skriptparser.registration;
 import io.github.syst3ms.skriptparser.lang.CodeSection;
 import io.github.syst3ms.skriptparser.lang.Effect;
 import io.github.syst3ms.skriptparser.lang.Expression;
+import io.github.syst3ms.skriptparser.types.TypeManager;
+import io.github.syst3ms.skriptparser.types.conversions.Converters;
 import io.github.syst3ms.skriptparser.util.MultiMap;
 import org.jetbrains.annotations.Nullable;
 
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class SyntaxManager {
     /**
@@ -26,6 +35,14 @@ public class SyntaxManager {
     private static final List<SyntaxInfo<? extends Effect>> effects = new ArrayList<>();
     private static final List<SyntaxInfo<? extends CodeSection>> sections = new ArrayList<>();
     private static final List<SkriptEventInfo<?>> triggers = new ArrayList<>();
+    private static List<ExpressionInfo<?, ?>> allExpressions = Collections.emptyList();
+    /*
+     * For each class, all expressions that may be used where an instance of the class is expected, that is
+     * whose return type is a subclass of it or can be converted to it, sorted like allExpressions.
+     */
+    private static final Map<Class<?>, List<ExpressionInfo<?, ?>>> expressionsByType = new ConcurrentHashMap<>();
+    private static String fingerprint = "";
+    private static volatile ClassValue<Optional<ExpressionInfo<?, ?>>> expressionsByClass = newExpressionsByClass();
 
     static void register(SkriptRegistration reg) {
         effects.addAll(reg.getEffects());
@@ -41,15 +58,83 @@ public class SyntaxManager {
                 expressions.putOne(key, info);
             }
         }
+        var expressionInfos = expressions.getAllValues();
+        expressionInfos.sort(INFO_COMPARATOR);
+        allExpressions = Collections.unmodifiableList(expressionInfos);
+        expressionsByType.clear();
+        expressionsByClass = newExpressionsByClass();
+        fingerprint = computeFingerprint();
+    }
+
+    /**
+     * Indexes all expressions by the types they can be used as. Must be called once all types and converters are
+     * registered, as it depends on both.
+     */
+    static void indexExpressions() {
+        expressionsByType.clear();
+        for (var type : TypeManager.getClassToTypeMap().keySet()) {
+            expressionsByType.put(type, viableExpressions(type));
+        }
+    }
+
+    private static List<ExpressionInfo<?, ?>> viableExpressions(Class<?> c) {
+        List<ExpressionInfo<?, ?>> viable = new ArrayList<>();
+        for (var info : allExpressions) {
+            var returnType = info.getReturnType().getType().getTypeClass();
+            if (c.isAssignableFrom(returnType) || Converters.converterExists(returnType, c))
+                viable.add(info);
+        }
+        return Collections.unmodifiableList(viable);
+    }
+
+    /**
+     * The fingerprint changes whenever the registered syntaxes, their patterns or the order in which they are tried
+     * changes. It is used to know whether things computed from a given set of syntaxes are still relevant.
+     * @return a fingerprint of all currently registered syntaxes
+     */
+    public static String getFingerprint() {
+        return fingerprint;
+    }
+
+    private static String computeFingerprint() {
+        List<SyntaxInfo<?>> syntaxes = new ArrayList<>();
+        syntaxes.addAll(effects);
+        syntaxes.addAll(sections);
+        syntaxes.addAll(triggers);
+        syntaxes.addAll(getAllExpressions());
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            for (var info : syntaxes) {
+                var description = new StringBuilder(info.getSyntaxClass().getName())
+                        .append('\0')
+                        .append(info.getPriority());
+                for (var pattern : info.getPatterns()) {
+                    description.append('\0').append(pattern);
+                }
+                if (info instanceof ExpressionInfo)
+                    description.append('\0').append(((ExpressionInfo<?, ?>) info).getReturnType());
+                digest.update(description.append('\n').toString().getBytes(StandardCharsets.UTF_8));
+            }
+            return new BigInteger(1, digest.digest()).toString(16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError("SHA-256 is always supported", e);
+        }
     }
 
     /**
-     * @return a list of all currently registered expressions
+     * @return an unmodifiable list of all currently registered expressions, in the order they should be tested in
      */
     public static List<ExpressionInfo<?, ?>> getAllExpressions() {
-        var expressionInfos = expressions.getAllValues();
-        expressionInfos.sort(INFO_COMPARATOR);
-        return expressionInfos;
+        return allExpressions;
+    }
+
+    /**
+     * @param c the class
+     * @return an unmodifiable list of all currently registered expressions that return instances of the given class,
+     * or of a type that can be converted to it, in the order they should be tested in
+     */
+    public static List<ExpressionInfo<?, ?>> getExpressionsFor(Class<?> c) {
+        return expressionsByType.computeIfAbsent(c, SyntaxManager::viableExpressions);
     }
 
     /**
@@ -60,13 +145,29 @@ public class SyntaxManager {
      */
     @SuppressWarnings("unchecked")
     public static <E extends Expression<T>, T> Optional<? extends ExpressionInfo<E, T>> getExpressionExact(Expression<T> expr) {
-        Class<?> c = expr.getSource().getClass();
-        for (var info : SyntaxManager.getAllExpressions()) {
-            if (info.getSyntaxClass() == c) {
-                return Optional.of((ExpressionInfo<E, T>) info);
+        return (Optional<? extends ExpressionInfo<E, T>>) (Optional<?>) getExpressionInfo(expr.getSource().getClass());
+    }
+
+    /**
+     * The result is looked up once per class, and kept until new syntaxes are registered.
+     * @param c the expression class
+     * @return the {@link ExpressionInfo} the given class was registered with
+     */
+    public static Optional<ExpressionInfo<?, ?>> getExpressionInfo(Class<?> c) {
+        return expressionsByClass.get(c);
+    }
+
+    private static ClassValue<Optional<ExpressionInfo<?, ?>>> newExpressionsByClass() {
+        return new ClassValue<>() {
+            @Override
+            protected Optional<ExpressionInfo<?, ?>> computeValue(Class<?> type) {
+                for (var info : allExpressions) {
+                    if (info.getSyntaxClass() == type)
+                        return Optional.of(info);
+                }
+                return Optional.empty();
             }
-        }
-        return Optional.empty();
+        };
     }
 
     /**
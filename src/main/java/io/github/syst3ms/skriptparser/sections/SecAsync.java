@@ -46,15 +46,22 @@ public class SecAsync extends CodeSection {
         return true;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public Optional<? extends Statement> walk(TriggerContext ctx) {
-        Optional<? extends Statement>[] item = new Optional[]{getFirst()};
+        return Optional.ofNullable(step(ctx));
+    }
+
+    @Nullable
+    @Override
+    public Statement step(TriggerContext ctx) {
+        var first = getFirstStatement();
+        var next = getNextStatement();
         ThreadUtils.runAsync(() -> {
-            while (!item[0].equals(getNext())) // Calling equals() on optionals calls equals() on their values
-                item[0] = item[0].flatMap(i -> i.walk(ctx));
+            var item = first;
+            while (item != null && item != next)
+                item = item.step(ctx);
         });
-        return getNext();
+        return next;
     }
 
     @Override
@@ -49,6 +49,12 @@ public class SecLoop extends CodeSection {
 
 	@Override
 	public Optional<? extends Statement> walk(TriggerContext ctx) {
+		return Optional.ofNullable(step(ctx));
+	}
+
+	@Nullable
+	@Override
+	public Statement step(TriggerContext ctx) {
 		Iterator<?> iter = currentIter.get(ctx);
 		if (iter == null) {
 			iter = expr instanceof Variable ? ((Variable<?>) expr).variablesIterator(ctx) : expr.iterator(ctx);
@@ -62,13 +68,27 @@ public class SecLoop extends CodeSection {
 		if (iter == null || !iter.hasNext()) {
 			if (iter != null)
 				currentIter.remove(ctx); // a loop inside another loop can be called multiple times in the same event
-			return Optional.ofNullable(actualNext);
+			if (actualNext == null && parent != null)
+				return parent.getNextStatement(); // The last item of a section goes on after the section
+			return actualNext;
 		} else {
 			current.put(ctx, iter.next());
-			return getFirst();
+			return getFirstStatement();
 		}
 	}
 
+	@Override
+	public Optional<? extends CompiledStatement> compile() {
+		return compileItems().map(body -> ctx -> {
+			Iterator<?> iter = expr instanceof Variable ? ((Variable<?>) expr).variablesIterator(ctx) : expr.iterator(ctx);
+			while (iter != null && iter.hasNext()) {
+				current.put(ctx, iter.next());
+				body.execute(ctx);
+			}
+			return true;
+		});
+	}
+
 	@Override
 	public String toString(@Nullable TriggerContext ctx, boolean debug) {
 		return "loop " + expr.toString(ctx, debug);
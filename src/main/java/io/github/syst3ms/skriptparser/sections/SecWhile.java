@@ -3,6 +3,7 @@ package io.github.syst3ms.skriptparser.sections;
 import io.github.syst3ms.skriptparser.Parser;
 import io.github.syst3ms.skriptparser.file.FileSection;
 import io.github.syst3ms.skriptparser.lang.CodeSection;
+import io.github.syst3ms.skriptparser.lang.CompiledStatement;
 import io.github.syst3ms.skriptparser.lang.Expression;
 import io.github.syst3ms.skriptparser.lang.Statement;
 import io.github.syst3ms.skriptparser.lang.TriggerContext;
@@ -43,14 +44,32 @@ public class SecWhile extends CodeSection {
 
     @Override
     public Optional<? extends Statement> walk(TriggerContext ctx) {
+        return Optional.ofNullable(step(ctx));
+    }
+
+    @Nullable
+    @Override
+    public Statement step(TriggerContext ctx) {
         Optional<? extends Boolean> cond = condition.getSingle(ctx);
         if (cond.isEmpty() || !cond.get()) {
-            return Optional.ofNullable(actualNext);
+            if (actualNext == null && parent != null)
+                return parent.getNextStatement(); // The last item of a section goes on after the section
+            return actualNext;
         } else {
-            return getFirst();
+            return getFirstStatement();
         }
     }
 
+    @Override
+    public Optional<? extends CompiledStatement> compile() {
+        return compileItems().map(body -> ctx -> {
+            while (condition.getSingle(ctx).filter(b -> b).isPresent()) {
+                body.execute(ctx);
+            }
+            return true;
+        });
+    }
+
     @Override
     public Statement setNext(@Nullable Statement next) {
         this.actualNext = next;
@@ -33,6 +33,11 @@ public class PatternType<T> {
         }
     }
 
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + Boolean.hashCode(single);
+    }
+
     @Override
     public String toString() {
         var forms = type.getPluralForms();
@@ -9,6 +9,7 @@ import java.util.Arrays;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * A basic definition of a type. This doesn't handle number (single/plural), unlike {@link PatternType}
@@ -22,6 +23,8 @@ public class Type<T> {
     @Nullable
     private final Function<String, ? extends T> literalParser;
     @Nullable
+    private final Predicate<String> literalFilter;
+    @Nullable
     private final Changer<? super T> defaultChanger;
     @Nullable
     private final Arithmetic<T, ?> arithmetic;
@@ -96,17 +99,42 @@ public class Type<T> {
         this(typeClass, baseName, pattern, literalParser, toStringFunction, defaultChanger, null);
     }
 
+    public Type(Class<T> typeClass,
+                String baseName,
+                String pattern,
+                @Nullable Function<String, ? extends T> literalParser,
+                Function<? super T, String> toStringFunction,
+                @Nullable Changer<? super T> defaultChanger,
+                @Nullable Arithmetic<T, ?> arithmetic) {
+        this(typeClass, baseName, pattern, literalParser, null, toStringFunction, defaultChanger, arithmetic);
+    }
+
+    /**
+     * Constructs a new Type.
+     *
+     * @param typeClass the class this type represents
+     * @param baseName the basic name to represent this type with
+     * @param pattern the pattern for plural forms
+     * @param literalParser the function that would parse literals for the given type
+     * @param literalFilter a cheap check telling whether a string could possibly be parsed by the literal parser. The
+     *                      literal parser is never called on strings this check rejects.
+     * @param toStringFunction the functions that converts an object of the type {@link T} to a {@link String}
+     * @param defaultChanger the default {@link Changer} of the type
+     * @param arithmetic the {@link Arithmetic} of the type
+     */
     @SuppressWarnings("unchecked")
     public Type(Class<T> typeClass,
                 String baseName,
                 String pattern,
                 @Nullable Function<String, ? extends T> literalParser,
+                @Nullable Predicate<String> literalFilter,
                 Function<? super T, String> toStringFunction,
                 @Nullable Changer<? super T> defaultChanger,
                 @Nullable Arithmetic<T, ?> arithmetic) {
         this.typeClass = typeClass;
         this.baseName = baseName;
         this.literalParser = literalParser;
+        this.literalFilter = literalFilter;
         this.toStringFunction = (Function<Object, String>) toStringFunction;
         this.pluralForms = StringUtils.getForms(pattern.strip());
         this.defaultChanger = defaultChanger;
@@ -117,6 +145,15 @@ public class Type<T> {
         return Optional.ofNullable(literalParser);
     }
 
+    /**
+     * @param s the string
+     * @return whether the given string could be a literal of this type, according to the literal filter of this type.
+     * Types without a literal filter accept every string.
+     */
+    public boolean mayBeLiteral(String s) {
+        return literalFilter == null || literalFilter.test(s);
+    }
+
     public String[] getPluralForms() {
         return pluralForms;
     }
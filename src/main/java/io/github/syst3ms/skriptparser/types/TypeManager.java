@@ -1,6 +1,7 @@
 package io.github.syst3ms.skriptparser.types;
 
 import io.github.syst3ms.skriptparser.registration.SkriptRegistration;
+import io.github.syst3ms.skriptparser.util.StringUtils;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
@@ -23,6 +24,12 @@ public class TypeManager {
     public static final String EMPTY_REPRESENTATION = "<empty>";
     private static final Map<String, Type<?>> nameToType = new HashMap<>();
     private static final Map<Class<?>, Type<?>> classToType = new LinkedHashMap<>(); // Ordering is important for stuff like number types
+    /*
+     * Every singular and plural form, case-folded, mapped to the corresponding PatternType. Rebuilt with each registration,
+     * so that the first type in the iteration order of nameToType wins, just like a linear search would.
+     */
+    private static volatile Map<String, PatternType<?>> formToPatternType = Map.of();
+    private static volatile ClassValue<Optional<? extends Type<?>>> typesByClass = newTypesByClass();
 
     public static Map<Class<?>, Type<?>> getClassToTypeMap() {
         return classToType;
@@ -43,13 +50,7 @@ public class TypeManager {
      * @return the matching Type, or {@literal null} if nothing matched
      */
     public static Optional<? extends Type<?>> getByName(String name) {
-        for (var t : nameToType.values()) {
-            var forms = t.getPluralForms();
-            if (name.equalsIgnoreCase(forms[0]) || name.equalsIgnoreCase(forms[1])) {
-                return Optional.of(t);
-            }
-        }
-        return Optional.empty();
+        return getPatternType(name).map(PatternType::getType);
     }
 
 
@@ -65,7 +66,18 @@ public class TypeManager {
         return Optional.ofNullable((Type<T>) classToType.get(c));
     }
 
+    /**
+     * Gets the {@link Type} of the given {@link Class} or of its closest superclass or interface that has one. The result
+     * is cached for each class.
+     * @param c the Class to get the Type from
+     * @param <T> the underlying type of the Class
+     * @return the Type, or {@literal null} if none was found
+     */
     public static <T> Optional<? extends Type<? super T>> getByClass(Class<T> c) {
+        return (Optional<? extends Type<? super T>>) typesByClass.get(c);
+    }
+
+    private static <T> Optional<? extends Type<? super T>> resolveByClass(Class<T> c) {
         Optional<? extends Type<? super T>> type = getByClassExact(c);
         var superclass = c.getSuperclass();
         while (superclass != null && type.isEmpty()) {
@@ -81,6 +93,15 @@ public class TypeManager {
         return type;
     }
 
+    private static ClassValue<Optional<? extends Type<?>>> newTypesByClass() {
+        return new ClassValue<>() {
+            @Override
+            protected Optional<? extends Type<?>> computeValue(Class<?> type) {
+                return resolveByClass(type);
+            }
+        };
+    }
+
     public static String toString(Object... objects) {
         var sb = new StringBuilder();
         for (var i = 0; i < objects.length; i++) {
@@ -105,15 +126,7 @@ public class TypeManager {
      * @return a corresponding PatternType, or {@literal null} if nothing matched
      */
     public static Optional<PatternType<?>> getPatternType(String name) {
-        for (var t : nameToType.values()) {
-            var forms = t.getPluralForms();
-            if (name.equalsIgnoreCase(forms[0])) {
-                return Optional.of(new PatternType<>(t, true));
-            } else if (name.equalsIgnoreCase(forms[1])) {
-                return Optional.of(new PatternType<>(t, false));
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable(formToPatternType.get(StringUtils.foldCase(name)));
     }
 
     public static void register(SkriptRegistration reg) {
@@ -121,5 +134,13 @@ public class TypeManager {
             nameToType.put(type.getBaseName(), type);
             classToType.put(type.getTypeClass(), type);
         }
+        Map<String, PatternType<?>> forms = new HashMap<>();
+        for (var t : nameToType.values()) {
+            var pluralForms = t.getPluralForms();
+            forms.putIfAbsent(StringUtils.foldCase(pluralForms[0]), new PatternType<>(t, true));
+            forms.putIfAbsent(StringUtils.foldCase(pluralForms[1]), new PatternType<>(t, false));
+        }
+        formToPatternType = forms;
+        typesByClass = newTypesByClass();
     }
-}
\ No newline at end of file
+}
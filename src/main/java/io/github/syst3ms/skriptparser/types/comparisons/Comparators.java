@@ -1,7 +1,7 @@
 package io.github.syst3ms.skriptparser.types.comparisons;
 
 import io.github.syst3ms.skriptparser.types.conversions.Converters;
-import io.github.syst3ms.skriptparser.util.Pair;
+import io.github.syst3ms.skriptparser.util.ClassPairCache;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
@@ -32,6 +32,7 @@ public class Comparators {
         if (t1 == Object.class && t2 == Object.class)
             throw new IllegalArgumentException("You must not add a comparator for Objects");
         comparators.add(new ComparatorInfo<>(t1, t2, c));
+        comparatorsQuickAccess.clear();
     }
 
     @SuppressWarnings({"unchecked"})
@@ -39,7 +40,7 @@ public class Comparators {
         if (o1 == null || o2 == null)
             return Relation.NOT_EQUAL;
         var c = getComparator((Class<F>) o1.getClass(), (Class<S>) o2.getClass());
-        return c.map(comp -> comp.apply(o1, o2)).orElse(Relation.NOT_EQUAL);
+        return c.isPresent() ? c.get().apply(o1, o2) : Relation.NOT_EQUAL;
     }
 
     private final static java.util.Comparator<Object> javaComparator = (o1, o2) -> compare(o1, o2).getComparison();
@@ -48,16 +49,20 @@ public class Comparators {
         return javaComparator;
     }
 
-    private final static Map<Pair<Class<?>, Class<?>>, Comparator<?, ?>> comparatorsQuickAccess = new HashMap<>();
+    private final static ClassPairCache<Optional<? extends Comparator<?, ?>>> comparatorsQuickAccess = new ClassPairCache<>();
+    /*
+     * Comparators may rely on converters, so the cache is outdated as soon as they change
+     */
+    private static volatile List<?> knownConverters = Converters.getConverters();
 
     @SuppressWarnings("unchecked")
     public static <F, S> Optional<? extends Comparator<? super F, ? super S>> getComparator(Class<F> f, Class<S> s) {
-        var p = new Pair<Class<?>, Class<?>>(f, s);
-        if (comparatorsQuickAccess.containsKey(p))
-            return Optional.ofNullable((Comparator<? super F, ? super S>) comparatorsQuickAccess.get(p));
-        var comp = getComparator_i(f, s);
-        comp.ifPresent(c -> comparatorsQuickAccess.put(p, c));
-        return comp;
+        var converters = Converters.getConverters();
+        if (converters != knownConverters) {
+            knownConverters = converters;
+            comparatorsQuickAccess.clear();
+        }
+        return (Optional<? extends Comparator<? super F, ? super S>>) comparatorsQuickAccess.get(f, s, Comparators::getComparator_i);
     }
 
     @SuppressWarnings("unchecked")
@@ -20,12 +20,13 @@
 package io.github.syst3ms.skriptparser.types.conversions;
 
 import io.github.syst3ms.skriptparser.registration.SkriptRegistration;
-import io.github.syst3ms.skriptparser.util.Pair;
+import io.github.syst3ms.skriptparser.util.ClassPairCache;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Array;
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * @author Peter Güttinger (Njol)
@@ -48,11 +49,17 @@ public abstract class Converters {
      */
     public static final int NO_CHAINING = NO_LEFT_CHAINING | NO_RIGHT_CHAINING;
 
+    /*
+     * The converters that were registered directly, most specific first, followed by the chained converters derived
+     * from them
+     */
     private static final List<ConverterInfo<?, ?>> converters = new ArrayList<>(50);
+    private static final List<ConverterInfo<?, ?>> chainedConverters = new ArrayList<>();
+    private static volatile List<ConverterInfo<?, ?>> allConverters = Collections.emptyList();
 
 
     public static List<ConverterInfo<?, ?>> getConverters() {
-        return Collections.unmodifiableList(converters);
+        return allConverters;
     }
 
 
@@ -84,38 +91,126 @@ public abstract class Converters {
         if (converterExistsSlow(from, to))
             return;
         var info = new ConverterInfo<>(from, to, converter, options);
+        var index = converters.size();
         for (var i = 0; i < converters.size(); i++) {
             var info2 = converters.get(i);
             if (info2.getFrom().isAssignableFrom(from) && to.isAssignableFrom(info2.getTo())) {
-                converters.add(i, info);
-                return;
+                index = i;
+                break;
             }
         }
-        converters.add(info);
+        converters.add(index, info);
+        updateConverters();
     }
 
     /**
-     * Adds all possible {@link ChainedConverter}s to the current converters
+     * Adds all possible {@link ChainedConverter}s to the current converters.
+     * <br>
+     * The converters form a graph whose nodes are the classes they convert to : a converter leads from a class to
+     * another if it accepts instances of the former. For every class a converter starts from, a breadth-first search
+     * finds the shortest chain towards every reachable class, respecting the chaining flags of each converter along the
+     * way. Just like a converter being registered, a chain is only added if no converter, registered or chained, already
+     * converts between a subclass or superclass of its source and a subclass or superclass of its target.
      */
     public static void createMissingConverters() {
-        for (var i = 0; i < converters.size(); i++) {
-            var info = converters.get(i);
-            for (var j = 0; j < converters.size(); j++) { // not from j = i+1 since new converters get added during the loops
-                var info2 = converters.get(j);
-                if ((info.getFlags() & NO_RIGHT_CHAINING) == 0 && (info2.getFlags() & NO_LEFT_CHAINING) == 0
-                    && info2.getFrom().isAssignableFrom(info.getTo()) && !converterExistsSlow(info.getFrom(), info2.getTo())) {
-                    converters.add(createChainedConverter(info, info2));
-                } else if ((info.getFlags() & NO_LEFT_CHAINING) == 0 && (info2.getFlags() & NO_RIGHT_CHAINING) == 0
-                    && info.getFrom().isAssignableFrom(info2.getTo()) && !converterExistsSlow(info2.getFrom(), info.getTo())) {
-                    converters.add(createChainedConverter(info2, info));
+        chainedConverters.clear();
+        // The converters applicable to instances of each class, in order of priority
+        Map<Class<?>, List<ConverterInfo<?, ?>>> successors = new HashMap<>();
+        Set<Class<?>> sources = new LinkedHashSet<>();
+        for (var info : converters) {
+            sources.add(info.getFrom());
+            successors.computeIfAbsent(info.getTo(), Converters::applicableConverters);
+        }
+        for (var source : sources) {
+            // The classes that converters from a subclass or superclass of the source convert to, registered or
+            // chained so far, and the targets already known to be covered by one of them
+            Set<Class<?>> convertedTo = new LinkedHashSet<>();
+            for (var info : converters) {
+                if (related(info.getFrom(), source))
+                    convertedTo.add(info.getTo());
+            }
+            for (var info : chainedConverters) {
+                if (related(info.getFrom(), source))
+                    convertedTo.add(info.getTo());
+            }
+            Set<Class<?>> covered = new HashSet<>();
+            Set<Class<?>> visited = new HashSet<>();
+            Deque<ConverterInfo<?, ?>> queue = new ArrayDeque<>();
+            for (var info : converters) {
+                if (info.getFrom() == source && (info.getFlags() & NO_RIGHT_CHAINING) == 0 && visited.add(info.getTo()))
+                    queue.add(info);
+            }
+            while (!queue.isEmpty()) {
+                var chain = queue.poll();
+                for (var next : successors.get(chain.getTo())) {
+                    if ((next.getFlags() & NO_LEFT_CHAINING) != 0 || next.getTo().isAssignableFrom(source))
+                        continue;
+                    var chained = createChainedConverter(chain, next);
+                    if (!isCovered(next.getTo(), convertedTo, covered)) {
+                        chainedConverters.add(chained);
+                        convertedTo.add(next.getTo());
+                        covered.add(next.getTo());
+                    }
+                    if ((next.getFlags() & NO_RIGHT_CHAINING) == 0 && visited.add(next.getTo()))
+                        queue.add(chained);
                 }
             }
         }
+        updateConverters();
+    }
+
+    /**
+     * Checks whether a class is a subclass or superclass of any of the given classes, remembering it if so
+     * @param to the class
+     * @param convertedTo the classes to check against
+     * @param covered the classes already known to be covered, which the class is added to
+     * @return whether the class is covered
+     */
+    private static boolean isCovered(Class<?> to, Set<Class<?>> convertedTo, Set<Class<?>> covered) {
+        if (covered.contains(to))
+            return true;
+        for (var c : convertedTo) {
+            if (related(c, to)) {
+                covered.add(to);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean related(Class<?> first, Class<?> second) {
+        return first.isAssignableFrom(second) || second.isAssignableFrom(first);
+    }
+
+    private static List<ConverterInfo<?, ?>> applicableConverters(Class<?> c) {
+        List<ConverterInfo<?, ?>> applicable = new ArrayList<>();
+        for (var info : converters) {
+            if (info.getFrom().isAssignableFrom(c))
+                applicable.add(info);
+        }
+        return applicable;
+    }
+
+    private static void updateConverters() {
+        List<ConverterInfo<?, ?>> all = new ArrayList<>(converters.size() + chainedConverters.size());
+        all.addAll(converters);
+        all.addAll(chainedConverters);
+        allConverters = Collections.unmodifiableList(all);
+        convertersCache.clear();
+    }
+
+    /**
+     * Removes the registered converters matching the given filter, along with every chained converter
+     * @param filter the filter
+     */
+    static void removeConverters(Predicate<? super ConverterInfo<?, ?>> filter) {
+        converters.removeIf(filter);
+        createMissingConverters();
     }
 
     private static boolean converterExistsSlow(Class<?> from, Class<?> to) {
-        for (var i : converters) {
-            if ((i.getFrom().isAssignableFrom(from) || from.isAssignableFrom(i.getFrom())) && (i.getTo().isAssignableFrom(to) || to.isAssignableFrom(i.getTo()))) {
+        for (var i : allConverters) {
+            if (related(i.getFrom(), from) && related(i.getTo(), to)) {
                 return true;
             }
         }
@@ -151,8 +246,8 @@ public abstract class Converters {
             return Optional.empty();
         if (to.isInstance(o))
             return Optional.of((T) o);
-        return getConverter((Class<F>) o.getClass(), to)
-                .flatMap(c -> c.apply(o));
+        var converter = getConverter((Class<F>) o.getClass(), to);
+        return converter.isPresent() ? converter.get().apply(o) : Optional.empty();
     }
 
     /**
@@ -173,10 +268,12 @@ public abstract class Converters {
                 return Optional.of((T) o);
         var c = (Class<F>) o.getClass();
         for (var t : to) {
-            @SuppressWarnings("null")
-            var conv = getConverter(c, t).flatMap(co -> co.apply(o));
-            if (conv.isPresent())
-                return conv;
+            var converter = getConverter(c, t);
+            if (converter.isPresent()) {
+                Optional<? extends T> conv = converter.get().apply(o);
+                if (conv.isPresent())
+                    return conv;
+            }
         }
         return Optional.empty();
     }
@@ -223,7 +320,7 @@ public abstract class Converters {
         return l.toArray((T[]) Array.newInstance(superType, l.size()));
     }
 
-    private final static Map<Pair<Class<?>, Class<?>>, Function<?, ?>> convertersCache = new HashMap<>();
+    private final static ClassPairCache<Optional<? extends Function<?, ?>>> convertersCache = new ClassPairCache<>();
 
     /**
 	 * Tests whether a converter between the given classes exists.
@@ -254,36 +351,39 @@ public abstract class Converters {
 	 */
     @SuppressWarnings("unchecked")
     public static <F, T> Optional<? extends Function<? super F, Optional<? extends T>>> getConverter(Class<F> from, Class<T> to) {
-        var p = new Pair<Class<?>, Class<?>>(from, to);
-        if (convertersCache.containsKey(p)) // can contain null to denote nonexistence of a converter
-            return Optional.ofNullable((Function<? super F, Optional<? extends T>>) convertersCache.get(p));
-        var c = getConverter_i(from, to);
-        c.ifPresent(con -> convertersCache.put(p, con));
-        return c;
+        return (Optional<? extends Function<? super F, Optional<? extends T>>>) convertersCache.get(from, to, Converters::getConverter_i);
     }
 
+    /**
+     * Looks for a converter in a single pass, in order of preference : one that converts exactly as desired, then one
+     * that needs to check the type of either its input or its output, then one that needs to check both.
+     */
     @SuppressWarnings("unchecked")
-    private static <F, T> Optional<Function<? super F, Optional<? extends T>>> getConverter_i(Class<F> from, Class<T> to) {
-        for (var conv : converters) {
-            if (conv.getFrom().isAssignableFrom(from) && to.isAssignableFrom(conv.getTo())) {
+    private static <F, T> Optional<? extends Function<? super F, Optional<? extends T>>> getConverter_i(Class<F> from, Class<T> to) {
+        Function<? super F, Optional<? extends T>> checked = null;
+        ConverterInfo<?, ?> doubleChecked = null;
+        for (var conv : allConverters) {
+            var fromMatches = conv.getFrom().isAssignableFrom(from);
+            var toMatches = to.isAssignableFrom(conv.getTo());
+            if (fromMatches && toMatches) {
                 var inf = (ConverterInfo<F, T>) conv;
                 return Optional.ofNullable(inf.getConverter());
-            }
-        }
-        for (var conv : converters) {
-            if (conv.getFrom().isAssignableFrom(from) && conv.getTo().isAssignableFrom(to)) {
+            } else if (checked != null) {
+                continue;
+            } else if (fromMatches && conv.getTo().isAssignableFrom(to)) {
                 var inf = (ConverterInfo<F, T>) conv;
-                return Optional.of(ConverterUtils.createInstanceofConverter(inf.getConverter(), to));
-            } else if (from.isAssignableFrom(conv.getFrom()) && to.isAssignableFrom(conv.getTo())) {
+                checked = ConverterUtils.createInstanceofConverter(inf.getConverter(), to);
+            } else if (toMatches && from.isAssignableFrom(conv.getFrom())) {
                 var inf = (ConverterInfo<F, T>) conv;
-                return Optional.of((Function<? super F, Optional<? extends T>>) ConverterUtils.createInstanceofConverter(inf));
-            }
-        }
-        for (var conv : converters) {
-            if (from.isAssignableFrom(conv.getFrom()) && conv.getTo().isAssignableFrom(to)) {
-                return Optional.of((Function<? super F, Optional<? extends T>>) ConverterUtils.createDoubleInstanceofConverter(conv, to));
+                checked = (Function<? super F, Optional<? extends T>>) ConverterUtils.createInstanceofConverter(inf);
+            } else if (doubleChecked == null && from.isAssignableFrom(conv.getFrom()) && conv.getTo().isAssignableFrom(to)) {
+                doubleChecked = conv;
             }
         }
+        if (checked != null)
+            return Optional.of(checked);
+        if (doubleChecked != null)
+            return Optional.of((Function<? super F, Optional<? extends T>>) ConverterUtils.createDoubleInstanceofConverter(doubleChecked, to));
         return Optional.empty();
     }
 
@@ -304,7 +404,9 @@ public abstract class Converters {
         var ts = (T[]) Array.newInstance(to, from.length);
         var j = 0;
         for (var f : from) {
-            var t = Optional.ofNullable(f).flatMap(conv::apply);
+            if (f == null)
+                continue;
+            var t = conv.apply(f);
             if (t.isPresent())
                 ts[j++] = t.get();
         }
@@ -0,0 +1,54 @@
+package io.github.syst3ms.skriptparser.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * A cache of values computed from a pair of classes, such as the converter between two types. The first class leads to
+ * a map through a {@link ClassValue}, and the second class to the value inside of that map, so that looking a value up
+ * doesn't allocate anything.
+ * <br>
+ * This class is thread-safe, and reading from it never blocks. Since a computed value is stored as is, a missing result
+ * should be represented by a value as well (for example an empty {@link java.util.Optional}), so that it is cached too.
+ * @param <V> the type of the values
+ */
+public class ClassPairCache<V> {
+    private volatile ClassValue<Map<Class<?>, V>> cache = newCache();
+
+    /**
+     * Gets the value for the given pair of classes, computing it if it isn't known yet. The value may end up being
+     * computed more than once when several threads ask for it at the same time, but only one of them is kept.
+     * @param first the first class
+     * @param second the second class
+     * @param computer the function computing the value, which must not return {@literal null}
+     * @return the value
+     */
+    public V get(Class<?> first, Class<?> second, BiFunction<Class<?>, Class<?>, ? extends V> computer) {
+        var values = cache.get(first);
+        var value = values.get(second);
+        if (value == null) {
+            value = computer.apply(first, second);
+            var previous = values.putIfAbsent(second, value);
+            if (previous != null)
+                value = previous;
+        }
+        return value;
+    }
+
+    /**
+     * Forgets all values that were computed so far.
+     */
+    public void clear() {
+        cache = newCache();
+    }
+
+    private static <V> ClassValue<Map<Class<?>, V>> newCache() {
+        return new ClassValue<>() {
+            @Override
+            protected Map<Class<?>, V> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+    }
+}
@@ -1,5 +1,8 @@
 package io.github.syst3ms.skriptparser.util;
 
+import io.github.syst3ms.skriptparser.log.ErrorType;
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
+
 import java.io.*;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
@@ -18,6 +21,12 @@ import java.util.stream.StreamSupport;
 public class FileUtils {
     public static final Pattern LEADING_WHITESPACE_PATTERN = Pattern.compile("(\\s+)\\S.*");
     public static final String MULTILINE_SYNTAX_TOKEN = "\\";
+    /**
+     * The resource listing the classes of a JAR file, generated at build time by the annotation processor in the
+     * {@code processor} source set. It lists every class that was compiled, whatever its package, and only those in
+     * the packages given to {@link #loadIndexedClasses(String, SkriptLogger, String...)} are loaded.
+     */
+    public static final String REGISTRATION_INDEX = "META-INF/skript-parser/registration.index";
     private static final String OS_SEPARATOR = FileSystems.getDefault().getSeparator();
 
     /**
@@ -43,16 +52,19 @@ public class FileUtils {
     public static List<String> readAllLines(Path filePath) throws IOException {
         List<String> lines = new ArrayList<>();
         var multilineBuilder = new StringBuilder();
-        for (var line : Files.readAllLines(filePath, StandardCharsets.UTF_8)) {
-            line = line.replaceAll("\\s*$", "");
-            if (line.replace("\\" + MULTILINE_SYNTAX_TOKEN, "\0").endsWith(MULTILINE_SYNTAX_TOKEN)) {
-                multilineBuilder.append(line, 0, line.length() - 1).append("\0");
-            } else if (multilineBuilder.length() > 0) {
-                multilineBuilder.append(line);
-                lines.add(trimMultilineIndent(multilineBuilder.toString()));
-                multilineBuilder.setLength(0);
-            } else {
-                lines.add(line);
+        try (var reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = stripTrailingWhitespace(line);
+                if (endsWithMultilineToken(line)) {
+                    multilineBuilder.append(line, 0, line.length() - 1).append("\0");
+                } else if (multilineBuilder.length() > 0) {
+                    multilineBuilder.append(line);
+                    lines.add(trimMultilineIndent(multilineBuilder.toString()));
+                    multilineBuilder.setLength(0);
+                } else {
+                    lines.add(line);
+                }
             }
         }
         if (multilineBuilder.length() > 0) {
@@ -71,17 +83,67 @@ public class FileUtils {
      * @return the indentation level
      */
     public static int getIndentationLevel(String line, boolean countAllSpaces) {
-        var m = LEADING_WHITESPACE_PATTERN.matcher(line);
-        if (m.matches()) {
-            var space = m.group(1);
-            if (countAllSpaces) {
-                return 4 * StringUtils.count(space, "\t") + StringUtils.count(space, " ");
+        // Same as matching LEADING_WHITESPACE_PATTERN, without the regex
+        var end = 0;
+        while (end < line.length() && isRegexWhitespace(line.charAt(end))) {
+            end++;
+        }
+        if (end == 0 || end == line.length())
+            return 0;
+        for (var i = end + 1; i < line.length(); i++) {
+            if (isLineTerminator(line.charAt(i)))
+                return 0;
+        }
+        var tabs = 0;
+        var spaces = 0;
+        var spaceGroups = 0;
+        var consecutiveSpaces = 0;
+        for (var i = 0; i < end; i++) {
+            var c = line.charAt(i);
+            if (c == ' ') {
+                spaces++;
+                if (++consecutiveSpaces == 4) {
+                    spaceGroups++;
+                    consecutiveSpaces = 0;
+                }
             } else {
-                return StringUtils.count(space, "\t", "    ");
+                if (c == '\t')
+                    tabs++;
+                consecutiveSpaces = 0;
             }
-        } else {
-            return 0;
         }
+        return countAllSpaces ? 4 * tabs + spaces : tabs + spaceGroups;
+    }
+
+    /**
+     * @param c a character
+     * @return whether the character is matched by {@code \s} in a regular expression
+     */
+    public static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static String stripTrailingWhitespace(String line) {
+        var end = line.length();
+        while (end > 0 && isRegexWhitespace(line.charAt(end - 1))) {
+            end--;
+        }
+        return end == line.length() ? line : line.substring(0, end);
+    }
+
+    /**
+     * Whether the line ends with a backslash that isn't itself escaped by another backslash
+     */
+    private static boolean endsWithMultilineToken(String line) {
+        var backslashes = 0;
+        for (var i = line.length() - 1; i >= 0 && line.charAt(i) == '\\'; i--) {
+            backslashes++;
+        }
+        return backslashes % 2 == 1;
     }
 
     private static String trimMultilineIndent(String multilineText) {
@@ -94,18 +156,79 @@ public class FileUtils {
                 .orElse(0);
         if (baseIndent == 0)
             return multilineText.replace("\0", "");
-        var pat = Pattern.compile("\\s");
         var sb = new StringBuilder(lines[0]);
-        for (var line : Arrays.copyOfRange(lines, 1, lines.length)) {
-            var m = pat.matcher(line);
-            for (var i = 0; i < baseIndent && m.find(); i++) {
-                line = line.replaceFirst(m.group(), "");
+        for (var i = 1; i < lines.length; i++) {
+            // Removes as many whitespace characters as the indent, wherever they are
+            var line = lines[i];
+            var removed = 0;
+            for (var j = 0; j < line.length(); j++) {
+                var c = line.charAt(j);
+                if (removed < baseIndent && isRegexWhitespace(c)) {
+                    removed++;
+                } else {
+                    sb.append(c);
+                }
             }
-            sb.append(line);
         }
         return sb.toString();
     }
 
+    /**
+     * Loads all classes of selected packages that are listed in the {@linkplain #REGISTRATION_INDEX registration
+     * indexes} available on the classpath. This loads the same classes as scanning the JAR files would, without having
+     * to go through all of their entries.
+     *
+     * @param rootPackage a root package
+     * @param logger the logger classes that fail to initialize are reported to, usually the one of the
+     *               {@linkplain io.github.syst3ms.skriptparser.registration.SkriptRegistration registration} they
+     *               register into
+     * @param subPackages a list of all subpackages of the root package, in which classes will be loaded
+     * @return whether a registration index listed classes of the root package, all of which could be found. If not,
+     * the JAR file should be scanned using {@link #loadClasses(File, String, String...)} instead. This is the case for a
+     * root package built without the index, even though skript-parser's own index is always there, and for an index
+     * that is out of date.
+     * @throws IOException if an I/O error has occurred
+     */
+    public static boolean loadIndexedClasses(String rootPackage, SkriptLogger logger, String... subPackages) throws IOException {
+        return loadIndexedClasses(FileUtils.class.getClassLoader(), rootPackage, logger, subPackages);
+    }
+
+    static boolean loadIndexedClasses(ClassLoader classLoader, String rootPackage, SkriptLogger logger, String... subPackages) throws IOException {
+        var indexes = classLoader.getResources(REGISTRATION_INDEX);
+        var root = rootPackage + ".";
+        var indexed = false;
+        var stale = false;
+        while (indexes.hasMoreElements()) {
+            try (var reader = new BufferedReader(new InputStreamReader(indexes.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                String className;
+                while ((className = reader.readLine()) != null) {
+                    if (!className.startsWith(root))
+                        continue;
+                    indexed = true;
+                    var load = subPackages.length == 0;
+                    for (var sub : subPackages) {
+                        if (className.startsWith(sub + ".", root.length())) {
+                            load = true;
+                            break;
+                        }
+                    }
+                    if (load) {
+                        try {
+                            Class.forName(className, true, classLoader);
+                        } catch (final ClassNotFoundException ex) {
+                            // The index lists a class that was since removed, so it can't be trusted with the others
+                            stale = true;
+                        } catch (final ExceptionInInitializerError ex) {
+                            logger.error("Couldn't initialize class '" + className + "' : " + ex.getCause(), ErrorType.EXCEPTION);
+                            logger.logOutput();
+                        }
+                    }
+                }
+            }
+        }
+        return indexed && !stale;
+    }
+
     /**
      * Loads all classes of selected packages of the provided JAR file.
      *
@@ -0,0 +1,158 @@
+package io.github.syst3ms.skriptparser.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds every occurrence of several strings at once, ignoring case, in a single pass over the searched string.
+ * This is an Aho-Corasick automaton, built once for a fixed set of needles, whose characters are compared the same way
+ * {@link StringUtils#indexOfIgnoreCase(String, String, int)} compares them.
+ */
+public class MultiStringSearcher {
+    private static final int[] NONE = new int[0];
+
+    private final int needleCount;
+    private final int[] needleLengths;
+    // The automaton : for each state, its outgoing characters and the states they lead to
+    private final List<char[]> keys = new ArrayList<>();
+    private final List<int[]> targets = new ArrayList<>();
+    private final List<int[]> outputs = new ArrayList<>();
+    private int[] fallbacks;
+
+    /**
+     * @param needles the strings to search for. A {@literal null} or empty needle is allowed, but is never found.
+     */
+    public MultiStringSearcher(@Nullable String[] needles) {
+        this.needleCount = needles.length;
+        this.needleLengths = new int[needles.length];
+        newState();
+        for (var i = 0; i < needles.length; i++) {
+            var needle = needles[i];
+            if (needle == null || needle.isEmpty())
+                continue;
+            needleLengths[i] = needle.length();
+            var state = 0;
+            for (var j = 0; j < needle.length(); j++) {
+                var c = Character.toLowerCase(needle.charAt(j));
+                var next = transition(state, c);
+                if (next == -1) {
+                    next = newState();
+                    addTransition(state, c, next);
+                }
+                state = next;
+            }
+            outputs.set(state, append(outputs.get(state), i));
+        }
+        computeFallbacks();
+    }
+
+    /**
+     * @return whether there is anything to search for at all
+     */
+    public boolean isEmpty() {
+        return keys.size() == 1;
+    }
+
+    /**
+     * Finds all occurrences of the needles in a string, starting at the given index. Occurrences may overlap.
+     * @param haystack the string to search in
+     * @param start the index to start searching from
+     * @return for each needle, in the order they were given, the indices at which it was found, in ascending order
+     */
+    public int[][] findAll(String haystack, int start) {
+        var found = new int[needleCount][];
+        var counts = new int[needleCount];
+        Arrays.fill(found, NONE);
+        if (isEmpty())
+            return found;
+        var state = 0;
+        for (var i = start; i < haystack.length(); i++) {
+            var c = Character.toLowerCase(haystack.charAt(i));
+            var next = transition(state, c);
+            while (next == -1 && state != 0) {
+                state = fallbacks[state];
+                next = transition(state, c);
+            }
+            state = next == -1 ? 0 : next;
+            for (var needle : outputs.get(state)) {
+                var occurrences = found[needle];
+                if (counts[needle] == occurrences.length)
+                    found[needle] = occurrences = Arrays.copyOf(occurrences, Math.max(4, occurrences.length * 2));
+                occurrences[counts[needle]++] = i - needleLengths[needle] + 1;
+            }
+        }
+        for (var i = 0; i < needleCount; i++) {
+            if (found[i].length != counts[i])
+                found[i] = Arrays.copyOf(found[i], counts[i]);
+        }
+        return found;
+    }
+
+    private int newState() {
+        keys.add(new char[0]);
+        targets.add(NONE);
+        outputs.add(NONE);
+        return keys.size() - 1;
+    }
+
+    private int transition(int state, char c) {
+        var stateKeys = keys.get(state);
+        for (var i = 0; i < stateKeys.length; i++) {
+            if (stateKeys[i] == c)
+                return targets.get(state)[i];
+        }
+        return -1;
+    }
+
+    private void addTransition(int state, char c, int target) {
+        var stateKeys = keys.get(state);
+        var newKeys = Arrays.copyOf(stateKeys, stateKeys.length + 1);
+        newKeys[stateKeys.length] = c;
+        keys.set(state, newKeys);
+        targets.set(state, append(targets.get(state), target));
+    }
+
+    /**
+     * Breadth-first, so that the fallback of a state is always known before those of its children. A state inherits the
+     * outputs of its fallback, so that needles ending inside of longer ones are found as well.
+     */
+    private void computeFallbacks() {
+        fallbacks = new int[keys.size()];
+        var queue = new ArrayDeque<Integer>();
+        for (var child : targets.get(0)) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            var stateKeys = keys.get(state);
+            var stateTargets = targets.get(state);
+            for (var i = 0; i < stateKeys.length; i++) {
+                var child = stateTargets[i];
+                var fallback = fallbacks[state];
+                var next = transition(fallback, stateKeys[i]);
+                while (next == -1 && fallback != 0) {
+                    fallback = fallbacks[fallback];
+                    next = transition(fallback, stateKeys[i]);
+                }
+                fallbacks[child] = next == -1 || next == child ? 0 : next;
+                var inherited = outputs.get(fallbacks[child]);
+                if (inherited.length > 0) {
+                    var merged = Arrays.copyOf(outputs.get(child), outputs.get(child).length + inherited.length);
+                    System.arraycopy(inherited, 0, merged, outputs.get(child).length, inherited.length);
+                    outputs.set(child, merged);
+                }
+                queue.add(child);
+            }
+        }
+    }
+
+    private static int[] append(int[] array, int value) {
+        var result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = value;
+        return result;
+    }
+}
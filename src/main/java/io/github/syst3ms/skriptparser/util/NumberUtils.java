@@ -0,0 +1,151 @@
+package io.github.syst3ms.skriptparser.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Utility functions for parsing numbers. Unlike the parsing methods of the standard library, these never throw : a
+ * string is first checked to be well-formed, and only then handed to the actual parsing method, which is then
+ * guaranteed to succeed.
+ */
+public class NumberUtils {
+    /*
+     * Any integer with that many digits or less fits in a long
+     */
+    private static final int SAFE_LONG_DIGITS = 18;
+
+    /**
+     * A cheap check telling whether the given string could possibly be parsed by any of the methods in this class.
+     * @param s the string
+     * @return whether the string might be a number
+     */
+    public static boolean mayBeNumber(String s) {
+        if (s.isEmpty())
+            return false;
+        var c = s.charAt(0);
+        return mayBeInteger(s) || c == '.' || c == 'N' || c == 'I' || c <= ' ';
+    }
+
+    /**
+     * A cheap check telling whether the given string could possibly be parsed as an integer.
+     * @param s the string
+     * @return whether the string might be an integer
+     */
+    public static boolean mayBeInteger(String s) {
+        if (s.isEmpty())
+            return false;
+        var c = s.charAt(0);
+        return c == '-' || c == '+' || Character.digit(c, 10) >= 0;
+    }
+
+    /**
+     * Parses a string in the format accepted by {@link Long#parseLong(String)}
+     * @param s the string
+     * @return the parsed long, or {@literal null} if the string isn't a valid long
+     */
+    @Nullable
+    public static Long parseLong(String s) {
+        var start = signEnd(s, 0);
+        var end = digitsEnd(s, start, false);
+        if (end == start || end != s.length())
+            return null;
+        if (end - start <= SAFE_LONG_DIGITS)
+            return Long.parseLong(s);
+        var big = new BigInteger(s);
+        return big.bitLength() < Long.SIZE ? big.longValue() : null;
+    }
+
+    /**
+     * Parses a string in the format accepted by {@link BigInteger#BigInteger(String)}
+     * @param s the string
+     * @return the parsed integer, or {@literal null} if the string isn't a valid integer
+     */
+    @Nullable
+    public static BigInteger parseBigInteger(String s) {
+        var start = signEnd(s, 0);
+        var end = digitsEnd(s, start, false);
+        if (end == start || end != s.length())
+            return null;
+        return new BigInteger(s);
+    }
+
+    /**
+     * Parses a string in the format accepted by {@link BigDecimal#BigDecimal(String)}
+     * @param s the string
+     * @return the parsed decimal, or {@literal null} if the string isn't a valid decimal
+     */
+    @Nullable
+    public static BigDecimal parseBigDecimal(String s) {
+        var start = signEnd(s, 0);
+        var i = digitsEnd(s, start, false);
+        var digits = i - start;
+        var fractionDigits = 0;
+        if (i < s.length() && s.charAt(i) == '.') {
+            var fractionEnd = digitsEnd(s, i + 1, false);
+            fractionDigits = fractionEnd - i - 1;
+            i = fractionEnd;
+        }
+        if (digits + fractionDigits == 0)
+            return null;
+        if (i < s.length() && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            var exponentStart = signEnd(s, i + 1);
+            var exponentEnd = digitsEnd(s, exponentStart, false);
+            if (exponentEnd == exponentStart || exponentEnd - exponentStart > SAFE_LONG_DIGITS)
+                return null;
+            // Both the exponent and the resulting scale must fit in an int
+            var exponent = Long.parseLong(s.substring(i + 1, exponentEnd));
+            var scale = fractionDigits - exponent;
+            if (exponent != (int) exponent || scale != (int) scale)
+                return null;
+            i = exponentEnd;
+        }
+        return i == s.length() ? new BigDecimal(s) : null;
+    }
+
+    /**
+     * Parses a string in the format accepted by {@link Double#parseDouble(String)}, hexadecimal notation excepted
+     * @param s the string
+     * @return the parsed double, or {@literal null} if the string isn't a valid double
+     */
+    @Nullable
+    public static Double parseDouble(String s) {
+        var trimmed = s.trim();
+        var start = signEnd(trimmed, 0);
+        var rest = trimmed.substring(start);
+        if (rest.equals("NaN") || rest.equals("Infinity"))
+            return Double.parseDouble(trimmed);
+        var i = digitsEnd(trimmed, start, true);
+        var digits = i - start;
+        var fractionDigits = 0;
+        if (i < trimmed.length() && trimmed.charAt(i) == '.') {
+            var fractionEnd = digitsEnd(trimmed, i + 1, true);
+            fractionDigits = fractionEnd - i - 1;
+            i = fractionEnd;
+        }
+        if (digits + fractionDigits == 0)
+            return null;
+        if (i < trimmed.length() && (trimmed.charAt(i) == 'e' || trimmed.charAt(i) == 'E')) {
+            var exponentStart = signEnd(trimmed, i + 1);
+            i = digitsEnd(trimmed, exponentStart, true);
+            if (i == exponentStart)
+                return null;
+        }
+        if (i < trimmed.length() && "fFdD".indexOf(trimmed.charAt(i)) >= 0)
+            i++;
+        return i == trimmed.length() ? Double.parseDouble(trimmed) : null;
+    }
+
+    private static int signEnd(String s, int start) {
+        return start < s.length() && (s.charAt(start) == '-' || s.charAt(start) == '+') ? start + 1 : start;
+    }
+
+    private static int digitsEnd(String s, int start, boolean asciiOnly) {
+        var i = start;
+        while (i < s.length() && (asciiOnly ? s.charAt(i) >= '0' && s.charAt(i) <= '9' : Character.digit(s.charAt(i), 10) >= 0)) {
+            i++;
+        }
+        return i;
+    }
+}
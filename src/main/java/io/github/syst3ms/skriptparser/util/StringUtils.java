@@ -83,11 +83,10 @@ public class StringUtils {
     public static int nextSimpleCharacterIndex(String s, int index) {
         if (index < 0)
             throw new StringIndexOutOfBoundsException(index);
-        var chars = s.toCharArray();
-        for (var i = index; i < chars.length; i++) {
-            var c = chars[i];
+        for (var i = index; i < s.length(); i++) {
+            var c = s.charAt(i);
             if (c == '\\') {
-                if (i == chars.length - 1)
+                if (i == s.length() - 1)
                     return -1;
                 return i + 1;
             } else if (c == '{') {
@@ -105,7 +104,7 @@ public class StringUtils {
                 if (closing == -1)
                     return -1;
                 i = closing;
-            } else if (c == 'R' && i < s.length() - 2 && chars[i + 1] == '"') {
+            } else if (c == 'R' && i < s.length() - 2 && s.charAt(i + 1) == '"') {
                 var m = R_LITERAL_CONTENT_PATTERN.matcher(s).region(i + 2, s.length());
                 if (!m.lookingAt())
                     return -1;
@@ -154,16 +153,32 @@ public class StringUtils {
             // Fallback to legacy behavior.
             return haystack.indexOf(needle);
         }
+        return indexOfIgnoreCase(haystack, needle, 0, needle.length(), start);
+    }
+
+    /**
+     * Find the first occurrence of a region of a string in another one, ignoring case. This is equivalent to
+     * {@code indexOfIgnoreCase(haystack, needle.substring(needleStart, needleEnd), start)} for a non-empty region, without
+     * creating the substring.
+     * @param haystack the string to look in
+     * @param needle the string containing the region to look for
+     * @param needleStart where the region starts, inclusive
+     * @param needleEnd where the region ends, exclusive
+     * @param start where to look from
+     * @return the index of the first occurrence
+     */
+    public static int indexOfIgnoreCase(String haystack, String needle, int needleStart, int needleEnd, int start) {
+        var length = needleEnd - needleStart;
         for (var i = start; i < haystack.length(); ++i) {
             // Early out, if possible.
-            if (i + needle.length() > haystack.length()) {
+            if (i + length > haystack.length()) {
                 return -1;
             }
 
             // Attempt to match substring starting at position i of haystack.
-            var j = 0;
+            var j = needleStart;
             var k = i;
-            while (k < haystack.length() && j < needle.length()) {
+            while (k < haystack.length() && j < needleEnd) {
                 var c = Character.toLowerCase(haystack.charAt(k));
                 var c2 = Character.toLowerCase(needle.charAt(j));
                 if (c != c2) {
@@ -174,13 +189,43 @@ public class StringUtils {
             }
             // Walked all the way to the end of the needle, return the start
             // position that this was found at.
-            if (j == needle.length()) {
+            if (j == needleEnd) {
                 return i;
             }
         }
         return -1;
     }
 
+    /**
+     * Strips a region of a string of its leading and trailing whitespace. This is equivalent to
+     * {@code s.substring(start, end).strip()}, but only creates a single string.
+     * @param s the string
+     * @param start where the region starts, inclusive
+     * @param end where the region ends, exclusive
+     * @return the stripped region
+     */
+    public static String stripRegion(String s, int start, int end) {
+        while (start < end && Character.isWhitespace(s.charAt(start)))
+            start++;
+        while (end > start && Character.isWhitespace(s.charAt(end - 1)))
+            end--;
+        return s.substring(start, end);
+    }
+
+    /**
+     * Folds the case of a string, character by character, the same way {@link String#regionMatches(boolean, int, String, int, int)}
+     * does when ignoring case. Two strings match each other ignoring case if and only if their folded forms are equal.
+     * @param s the string to fold
+     * @return the case-folded string
+     */
+    public static String foldCase(String s) {
+        var chars = s.toCharArray();
+        for (var i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
     /**
      * Split a pattern at pipe characters, properly accounting for brackets and escapes
      * @param s the string to split
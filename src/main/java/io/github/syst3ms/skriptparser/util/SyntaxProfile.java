@@ -0,0 +1,178 @@
+package io.github.syst3ms.skriptparser.util;
+
+import io.github.syst3ms.skriptparser.registration.SyntaxInfo;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Keeps track of which syntaxes are used frequently, in order to preemptively check them against a string that's being
+ * parsed.
+ * <br>
+ * Every syntax in the profile has a score, that is increased by one each time it is successfully parsed, and decays
+ * exponentially with every other successful parse. This way, syntaxes used a lot a long time ago eventually make room
+ * for the ones being used right now. To illustrate, imagine you use some syntax A 8 times, then use syntax B once : the
+ * very next time the profile is checked, A comes before B, because it was used more. Keep using only B, and it will
+ * take over A after a while.
+ * <br>
+ * The profile holds at most a given amount of syntaxes, since checking a lot of previously used syntaxes before one
+ * that was never used would defeat the purpose. When the profile is full, a new syntax replaces the one with the lowest
+ * score, provided its own score is at least as high.
+ * <br>
+ * This class is thread-safe. The order of the syntaxes is kept up-to-date with every change, so reading it never
+ * involves sorting or copying.
+ * @param <T> the type of {@link SyntaxInfo}
+ */
+public class SyntaxProfile<T> {
+    public static final int DEFAULT_CAPACITY = 10;
+    public static final double DEFAULT_DECAY = 0.99;
+    /*
+     * Instead of decaying every score, the amount added to a score grows : only the relative scores matter.
+     * Everything is scaled back down once the increment gets too large.
+     */
+    private static final double MAX_INCREMENT = 1e100;
+
+    private final int capacity;
+    private final double decay;
+    private final Object[] elements;
+    private final double[] scores;
+    private int size = 0;
+    private double increment = 1;
+    private volatile Snapshot<T> ordered = new Snapshot<>(new Object[0]);
+
+    public SyntaxProfile() {
+        this(DEFAULT_CAPACITY, DEFAULT_DECAY);
+    }
+
+    /**
+     * @param capacity the maximum amount of syntaxes in this profile
+     * @param decay the factor by which scores are multiplied with each successful parse, between 0 (exclusive) and
+     *              1 (inclusive). A decay of 1 means scores never decay.
+     */
+    public SyntaxProfile(int capacity, double decay) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Negative capacity : " + capacity);
+        if (!(decay > 0 && decay <= 1))
+            throw new IllegalArgumentException("Decay must be between 0 (exclusive) and 1 (inclusive) : " + decay);
+        this.capacity = capacity;
+        this.decay = decay;
+        this.elements = new Object[capacity];
+        this.scores = new double[capacity];
+    }
+
+    /**
+     * Acknowledges that a given syntax has been successfully parsed, updating its position inside of the profile.
+     * @param element the element to update
+     */
+    public synchronized void acknowledge(T element) {
+        increment /= decay;
+        add(element, increment);
+        if (increment > MAX_INCREMENT) {
+            for (var i = 0; i < size; i++) {
+                scores[i] /= increment;
+            }
+            increment = 1;
+        }
+    }
+
+    /**
+     * Adds to the score of a syntax, as if it had been parsed that many times with no decay in between. This is
+     * mainly meant for restoring a profile that was previously {@linkplain #getScore(Object) saved}.
+     * @param element the element
+     * @param score the score to add, which must be positive
+     */
+    public synchronized void addScore(T element, double score) {
+        if (score > 0)
+            add(element, score * increment);
+    }
+
+    /**
+     * @param element the element
+     * @return the current score of the given syntax, or 0 if it isn't part of this profile
+     */
+    public synchronized double getScore(T element) {
+        var index = indexOf(element);
+        return index == -1 ? 0 : scores[index] / increment;
+    }
+
+    /**
+     * @return the syntaxes in this profile, in decreasing order of score. The returned list is immutable, and isn't
+     * affected by later changes to this profile. Its {@link List#contains(Object)} takes constant time, so that it can
+     * be checked for every other syntax.
+     */
+    public List<T> getElements() {
+        return ordered;
+    }
+
+    private void add(T element, double score) {
+        var index = indexOf(element);
+        var changed = index == -1;
+        if (index == -1) {
+            if (size < capacity) {
+                index = size++;
+            } else if (size > 0 && scores[size - 1] <= score) {
+                index = size - 1;
+            } else {
+                return;
+            }
+            elements[index] = element;
+            scores[index] = score;
+        } else {
+            scores[index] += score;
+        }
+        // The score only went up, so the element may only move towards the front
+        while (index > 0 && scores[index - 1] < scores[index]) {
+            var previousElement = elements[index - 1];
+            var previousScore = scores[index - 1];
+            elements[index - 1] = elements[index];
+            scores[index - 1] = scores[index];
+            elements[index] = previousElement;
+            scores[index] = previousScore;
+            index--;
+            changed = true;
+        }
+        if (changed)
+            ordered = new Snapshot<>(Arrays.copyOf(elements, size));
+    }
+
+    private int indexOf(T element) {
+        for (var i = 0; i < size; i++) {
+            if (elements[i].equals(element))
+                return i;
+        }
+        return -1;
+    }
+
+    /*
+     * The syntaxes of the profile at some point, along with a set of them to tell whether one is part of them
+     */
+    private static class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+        private final Object[] elements;
+        private final Set<Object> members;
+
+        Snapshot(Object[] elements) {
+            this.elements = elements;
+            this.members = new HashSet<>(Arrays.asList(elements));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T get(int index) {
+            return (T) elements[index];
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return members.contains(o);
+        }
+    }
+}
@@ -44,14 +44,10 @@ public class TimeUtils {
                 continue;
             }
 
-            long amount;
-
-            try {
-                amount = Long.parseLong(s);
-                s = split[++i];
-            } catch (NumberFormatException | ArrayIndexOutOfBoundsException ex) {
+            var amount = NumberUtils.parseLong(s);
+            if (amount == null || i + 1 >= split.length)
                 return null;
-            }
+            s = split[++i];
 
             if (s.matches("days?")) {
                 if (passed[0] || oneIsTrue(passed[1], passed[2], passed[3], passed[4]))
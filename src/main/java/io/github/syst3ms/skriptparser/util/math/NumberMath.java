@@ -46,7 +46,7 @@ public class NumberMath {
 
     public static Number log(Number base, Number n) {
         if ((n instanceof Long || n instanceof Double) && (base instanceof Long || base instanceof Double)) {
-            return Math.log(n.doubleValue()) / Math.log(base.doubleValue());
+            return log(base.doubleValue(), n.doubleValue());
         } else {
             var bd = bigToBigDecimal(n);
             var bdBase = bigToBigDecimal(base);
@@ -61,6 +61,10 @@ public class NumberMath {
         }
     }
 
+    public static double log(double base, double n) {
+        return Math.log(n) / Math.log(base);
+    }
+
     public static Number factorial(Number n) {
         if (n instanceof Long && n.longValue() < 13)
             return BigDecimalMath.factorial(n.intValue()).longValue();
@@ -72,6 +76,21 @@ public class NumberMath {
         }
     }
 
+    /**
+     * @param n a number between 0 and 12, since the factorial of 13 doesn't fit in a {@code long}
+     * @return the factorial of the number
+     * @throws ArithmeticException if the number is out of range
+     */
+    public static long factorial(long n) {
+        if (n < 0 || n > 12)
+            throw new ArithmeticException("The factorial of " + n + " isn't a long");
+        long fac = 1;
+        for (var i = 2; i <= n; i++) {
+            fac *= i;
+        }
+        return fac;
+    }
+
     public static Number floor(Number n) {
         if (n instanceof Long || n instanceof BigInteger) {
             return n;
@@ -105,25 +124,37 @@ public class NumberMath {
         }
     }
 
+    public static double sin(double n) {
+        return Math.sin(Math.toDegrees(n));
+    }
+
     public static Number sin(Number n) {
         if (n instanceof Long || n instanceof Double) {
-            return Math.sin(Math.toDegrees(n.doubleValue()));
+            return sin(n.doubleValue());
         } else {
             return BigDecimalMath.sin(bigToBigDecimal(n).multiply(DEGREES_TO_RADIANS), BigDecimalMath.DEFAULT_CONTEXT);
         }
     }
 
+    public static double cos(double n) {
+        return Math.cos(Math.toDegrees(n));
+    }
+
     public static Number cos(Number n) {
         if (n instanceof Long || n instanceof Double) {
-            return Math.cos(Math.toDegrees(n.doubleValue()));
+            return cos(n.doubleValue());
         } else {
             return BigDecimalMath.cos(bigToBigDecimal(n).multiply(DEGREES_TO_RADIANS), BigDecimalMath.DEFAULT_CONTEXT);
         }
     }
 
+    public static double tan(double n) {
+        return Math.tan(Math.toDegrees(n));
+    }
+
     public static Number tan(Number n) {
         if (n instanceof Long || n instanceof Double) {
-            return Math.tan(Math.toDegrees(n.doubleValue()));
+            return tan(n.doubleValue());
         } else {
             return BigDecimalMath.tan(bigToBigDecimal(n).multiply(DEGREES_TO_RADIANS), BigDecimalMath.DEFAULT_CONTEXT);
         }
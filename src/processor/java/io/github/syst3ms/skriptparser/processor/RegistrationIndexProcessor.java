@@ -0,0 +1,73 @@
+package io.github.syst3ms.skriptparser.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Writes the names of all classes being compiled to a registration index, so that the classes holding syntax
+ * registrations can be loaded at startup without scanning the JAR file for them.
+ * <br>
+ * Every class being compiled is listed, and not only those in the packages holding registrations, as these packages
+ * are only known when the classes are loaded. Just like scanning the JAR file, this lists nested classes, but not
+ * anonymous ones. Class names are written in their binary form, one per line, sorted alphabetically.
+ */
+@SupportedAnnotationTypes("*")
+public class RegistrationIndexProcessor extends AbstractProcessor {
+    /**
+     * Must be kept in sync with {@code FileUtils.REGISTRATION_INDEX}
+     */
+    public static final String REGISTRATION_INDEX = "META-INF/skript-parser/registration.index";
+
+    private final Set<String> classNames = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (var element : roundEnv.getRootElements()) {
+            addTypes(element);
+        }
+        if (roundEnv.processingOver() && !classNames.isEmpty())
+            writeIndex();
+        // Every annotation is claimed, as nothing else processes them, so that -Xlint:processing doesn't warn about them
+        return true;
+    }
+
+    private void addTypes(Element element) {
+        if (!(element instanceof TypeElement))
+            return;
+        classNames.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+        for (var enclosed : element.getEnclosedElements()) {
+            addTypes(enclosed);
+        }
+    }
+
+    private void writeIndex() {
+        try {
+            var resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", REGISTRATION_INDEX);
+            try (Writer writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (var className : classNames) {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Couldn't write the registration index : " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * This package contains the annotation processor that indexes the classes of skript-parser at build time, so that
+ * they don't have to be searched for when the parser starts.
+ */
+@ParametersAreNonnullByDefault
+package io.github.syst3ms.skriptparser.processor;
+
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -25,8 +25,10 @@ public class TestRegistration {
                     Path.of("build/classes/java/main"),
                     "io.github.syst3ms.skriptparser",
                     "effects",
+                    "event",
                     "expressions",
-                    "lang"
+                    "lang",
+                    "sections"
             );
         } catch (IOException e) {
             e.printStackTrace();
@@ -1,5 +1,6 @@
 package io.github.syst3ms.skriptparser.file;
 
+import io.github.syst3ms.skriptparser.log.LogEntry;
 import io.github.syst3ms.skriptparser.log.SkriptLogger;
 import io.github.syst3ms.skriptparser.util.FileUtils;
 import org.junit.Test;
@@ -9,6 +10,7 @@ import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 
@@ -103,6 +105,45 @@ public class FileParserTest {
         );
     }
 
+    @Test
+    public void overIndentedLines() {
+        FileParser parser = new FileParser();
+        SkriptLogger logger = new SkriptLogger();
+        // The over-indented line is skipped, and the lines after it still belong to the section
+        assertEquals(
+            Arrays.asList(
+                fileSection(
+                    "section",
+                    0,
+                    1,
+                    simpleFileLine("element", 1, 2),
+                    simpleFileLine("other element", 1, 4),
+                    simpleFileLine("last element", 1, 5)
+                ),
+                simpleFileLine("element after", 0, 6)
+            ),
+            parser.parseFileLines(
+                "unit-tests",
+                Arrays.asList(
+                    "section:",
+                    "\telement",
+                    "\t\tover-indented",
+                    "\tother element",
+                    "\tlast element",
+                    "element after"
+                ),
+                0,
+                1,
+                logger
+            )
+        );
+        logger.logOutput();
+        assertEquals(
+            Collections.singletonList("The line is indented too much (line 3: \"over-indented\")"),
+            logger.close().stream().map(LogEntry::getMessage).collect(Collectors.toList())
+        );
+    }
+
     @Test
     public void readLines() throws Exception {
         Path filePath = Paths.get(ClassLoader.getSystemResource("multiline.txt").toURI());
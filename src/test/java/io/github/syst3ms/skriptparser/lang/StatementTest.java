@@ -0,0 +1,56 @@
+package io.github.syst3ms.skriptparser.lang;
+
+import io.github.syst3ms.skriptparser.parsing.ParseContext;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static io.github.syst3ms.skriptparser.lang.TriggerContext.DUMMY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StatementTest {
+
+    private static class Record extends Effect {
+        private final List<String> record;
+        private final String name;
+
+        Record(List<String> record, String name) {
+            this.record = record;
+            this.name = name;
+        }
+
+        @Override
+        protected void execute(TriggerContext ctx) {
+            record.add(name);
+        }
+
+        @Override
+        public boolean init(Expression<?>[] expressions, int matchedPattern, ParseContext parseContext) {
+            return true;
+        }
+
+        @Override
+        public String toString(@Nullable TriggerContext ctx, boolean debug) {
+            return name;
+        }
+    }
+
+    @Test
+    public void superWalkTest() {
+        List<String> record = new ArrayList<>();
+        var first = new Record(record, "first") {
+            @Override
+            public Optional<? extends Statement> walk(TriggerContext ctx) {
+                record.add("walk override");
+                return super.walk(ctx);
+            }
+        };
+        first.setNext(new Record(record, "second"));
+        assertTrue(Statement.runAll(first, DUMMY));
+        assertEquals(List.of("walk override", "first", "second"), record);
+    }
+}
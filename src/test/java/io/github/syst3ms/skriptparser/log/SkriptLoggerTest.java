@@ -6,8 +6,10 @@ import io.github.syst3ms.skriptparser.parsing.ParserState;
 import io.github.syst3ms.skriptparser.parsing.SyntaxParser;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.Optional;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class SkriptLoggerTest {
@@ -32,4 +34,57 @@ public class SkriptLoggerTest {
         logger.logOutput();
         assertTrue(wrongRange.isEmpty() && logger.close().get(0).getMessage().startsWith("'1' cannot"));
     }
+
+    @Test
+    public void recordingTest() {
+        SkriptLogger logger = new SkriptLogger();
+        ParserState parserState = new ParserState();
+        LogRecording recording = logger.startRecording();
+        SyntaxParser.parseExpression("1 is between 'a' and 'b'", SyntaxParser.OBJECT_PATTERN_TYPE, parserState, logger);
+        logger.stopRecording(recording);
+        logger.logOutput();
+        List<LogEntry> expected = logger.close();
+        SkriptLogger replayed = new SkriptLogger();
+        replayed.replay(recording);
+        replayed.logOutput();
+        List<LogEntry> actual = replayed.close();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getMessage(), actual.get(i).getMessage());
+        }
+    }
+
+    @Test
+    public void nestedRecordingTest() {
+        SkriptLogger logger = new SkriptLogger();
+        LogRecording outer = logger.startRecording();
+        logger.recurse();
+        logger.setContext(ErrorContext.INITIALIZATION);
+        LogRecording inner = logger.startRecording();
+        logger.warn("A warning");
+        logger.error(() -> "A deferred error", ErrorType.SEMANTIC_ERROR);
+        logger.stopRecording(inner);
+        logger.forgetError();
+        logger.error("An error", ErrorType.NO_MATCH);
+        logger.callback();
+        logger.stopRecording(outer);
+        logger.logOutput();
+        List<LogEntry> expected = logger.close();
+        // Replaying the outer recording replays the inner one as well
+        SkriptLogger replayed = new SkriptLogger();
+        replayed.replay(outer);
+        replayed.logOutput();
+        List<LogEntry> actual = replayed.close();
+        assertEquals(1, expected.size());
+        assertEquals("A deferred error", expected.get(0).getMessage());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.get(0).getMessage(), actual.get(0).getMessage());
+        // Replaying an inner recording on its own only reproduces its calls
+        replayed = new SkriptLogger();
+        replayed.replay(inner);
+        replayed.logOutput();
+        actual = replayed.close();
+        assertEquals(1, actual.size());
+        assertEquals("A deferred error", actual.get(0).getMessage());
+    }
 }
@@ -0,0 +1,65 @@
+package io.github.syst3ms.skriptparser.parsing;
+
+import io.github.syst3ms.skriptparser.util.StringUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LineTokensTest {
+    private static final String[] STRINGS = {
+            "",
+            "set {_x} to 2",
+            "(1 + (2 * 3)) and ((4))",
+            "(1 + 2) * (3 + 4)",
+            "{_list::%{_x}%::{_y}} and {_z}",
+            "{_unclosed::(1 + 2)",
+            "\"a (b\" and (\"c)\" or 'd')",
+            "\"escaped \\\" quote\" and (1)",
+            "'single \\' quote' (2)",
+            "\"unclosed (1)",
+            "R\"(raw \" string)\" and (1 + 2)",
+            "a \\(b\\) (c \\) d) e",
+            "trailing \\",
+            "((((nested) (brackets)) (again)))"
+    };
+
+    @Test
+    public void nextSimpleCharacterIndexTest() {
+        for (var s : STRINGS) {
+            var tokens = new LineTokens(s);
+            assertEquals(s, tokens.getString());
+            for (var i = 0; i <= s.length() + 1; i++) {
+                assertEquals(s + " at " + i, StringUtils.nextSimpleCharacterIndex(s, i), tokens.nextSimpleCharacterIndex(i));
+            }
+        }
+    }
+
+    @Test
+    public void findClosingParenthesisTest() {
+        for (var s : STRINGS) {
+            var tokens = new LineTokens(s);
+            for (var i = 0; i <= s.length(); i++) {
+                var expected = StringUtils.findClosingIndex(s, '(', ')', i);
+                assertEquals(s + " at " + i, expected, tokens.findClosingParenthesis(i));
+                // Answers are remembered, and must stay the same
+                assertEquals(s + " at " + i, expected, tokens.findClosingParenthesis(i));
+            }
+        }
+    }
+
+    @Test
+    public void isParenthesizedTest() {
+        assertTrue(new LineTokens("(1 + 2)").isParenthesized());
+        assertTrue(new LineTokens("((1 + 2) * (3 + 4))").isParenthesized());
+        assertTrue(new LineTokens("(\"a\" + (\"b\"))").isParenthesized());
+        // Like the check it replaces, parentheses inside of strings aren't skipped
+        assertFalse(new LineTokens("(\"(\")").isParenthesized());
+        assertFalse(new LineTokens("(1 + 2) * (3 + 4)").isParenthesized());
+        assertFalse(new LineTokens("(1 + 2").isParenthesized());
+        assertFalse(new LineTokens("1 + 2)").isParenthesized());
+        assertFalse(new LineTokens("(1 \\)").isParenthesized());
+        assertFalse(new LineTokens("").isParenthesized());
+    }
+}
@@ -0,0 +1,339 @@
+package io.github.syst3ms.skriptparser.parsing;
+
+import io.github.syst3ms.skriptparser.TestRegistration;
+import io.github.syst3ms.skriptparser.effects.EffPrint;
+import io.github.syst3ms.skriptparser.event.ScriptLoadContext;
+import io.github.syst3ms.skriptparser.file.FileParser;
+import io.github.syst3ms.skriptparser.file.FileSection;
+import io.github.syst3ms.skriptparser.lang.Conditional;
+import io.github.syst3ms.skriptparser.lang.InlineCondition;
+import io.github.syst3ms.skriptparser.lang.Statement;
+import io.github.syst3ms.skriptparser.lang.Trigger;
+import io.github.syst3ms.skriptparser.log.LogEntry;
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import io.github.syst3ms.skriptparser.registration.SyntaxManager;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ScriptLoaderTest {
+
+    static {
+        TestRegistration.register();
+    }
+
+    private List<Trigger> loadScript(String fileName) throws Exception {
+        var scriptName = fileName.replaceAll("(.+)\\..+", "$1");
+        ScriptLoader.getTriggerMap().remove(scriptName);
+        var logs = ScriptLoader.loadScript(Paths.get(ClassLoader.getSystemResource(fileName).toURI()), false);
+        assertEquals(Collections.emptyList(), logs.stream().map(LogEntry::getMessage).collect(Collectors.toList()));
+        return ScriptLoader.getTriggerMap().get(scriptName);
+    }
+
+    /**
+     * Runs a trigger, either through its compiled code or by walking through its statements
+     * @param lines the amount of lines to wait for, as some of them may be printed later or from another thread
+     * @return the lines the trigger printed
+     */
+    private List<String> run(Trigger trigger, boolean compiled, int lines) throws InterruptedException {
+        var output = new ByteArrayOutputStream();
+        var stdout = System.out;
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+        try {
+            var ctx = new ScriptLoadContext(new String[0]);
+            if (compiled) {
+                trigger.getCompiledCode().orElseThrow(AssertionError::new).execute(ctx);
+            } else {
+                var first = trigger.step(ctx);
+                if (first != null)
+                    assertTrue(Statement.runAll(first, ctx));
+            }
+            var deadline = System.currentTimeMillis() + 5000;
+            while (output.toString(StandardCharsets.UTF_8).lines().count() < lines && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+        } finally {
+            System.setOut(stdout);
+        }
+        return output.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+    }
+
+    private void assertPrints(String fileName, String... expected) throws Exception {
+        var trigger = loadScript(fileName).get(0);
+        assertEquals(Arrays.asList(expected), run(trigger, false, expected.length));
+        assertEquals(Arrays.asList(expected), run(trigger, true, expected.length));
+    }
+
+    /**
+     * @return the log messages of the given scripts, followed by the contents of each of their triggers, in order
+     */
+    private List<List<String>> loadAll(List<Path> scriptPaths, Executor executor) {
+        var triggerMap = ScriptLoader.getTriggerMap();
+        var scriptNames = scriptPaths.stream()
+                .map(p -> p.getFileName().toString().replaceAll("(.+)\\..+", "$1"))
+                .collect(Collectors.toList());
+        scriptNames.forEach(triggerMap::remove);
+        var logs = ScriptLoader.loadScripts(scriptPaths, null, executor, false);
+        List<String> triggers = new ArrayList<>();
+        for (var scriptName : scriptNames) {
+            for (var trigger : triggerMap.get(scriptName)) {
+                triggers.add(trigger.getItems().stream()
+                        .map(s -> s.toString(null, false))
+                        .collect(Collectors.joining("\n")));
+            }
+        }
+        return List.of(logs.stream().map(LogEntry::getMessage).collect(Collectors.toList()), triggers);
+    }
+
+    /**
+     * Loads lines as the contents of a trigger, under the given restrictions
+     * @return the items that were loaded, and the log messages in the order they were logged
+     */
+    private List<Statement> loadItems(List<String> lines, ParserState parserState, List<String> logs) {
+        var logger = new SkriptLogger();
+        var elements = new FileParser().parseFileLines("restrictions", lines, 1, 2, logger);
+        var section = new FileSection("restrictions", 1, "on script load", elements, 0);
+        logger.setFileInfo("restrictions", List.of(section));
+        logger.nextLine();
+        var items = ScriptLoader.loadItems(section, parserState, logger);
+        logger.logOutput();
+        logger.close().stream().map(LogEntry::getMessage).forEach(logs::add);
+        return items;
+    }
+
+    private interface TemporaryDirectoryTest {
+        void run(Path directory) throws Exception;
+    }
+
+    /**
+     * Runs a test in a new temporary directory, which is deleted afterwards along with everything the test put in it
+     */
+    private void inTemporaryDirectory(String prefix, TemporaryDirectoryTest test) throws Exception {
+        var directory = Files.createTempDirectory(prefix);
+        try {
+            test.run(directory);
+        } finally {
+            try (var files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    public void conditionalRestrictionsTest() {
+        var lines = List.of(
+            "    if 1 = 2:",
+            "        print \"if\"",
+            "    else if 1 = 1:",
+            "        print \"else if\"",
+            "    else:",
+            "        print \"else\"",
+            "    continue if 1 = 1",
+            "    print \"after\""
+        );
+        // Sections that don't restrict anything allow conditionals and inline conditions
+        List<String> logs = new ArrayList<>();
+        var items = loadItems(lines, new ParserState(), logs);
+        assertEquals(List.of(), logs);
+        assertEquals(3, items.size());
+        assertTrue(items.get(0) instanceof Conditional);
+        assertTrue(items.get(1) instanceof InlineCondition);
+        // Sections that only allow some syntaxes reject them
+        var parserState = new ParserState();
+        parserState.setSyntaxRestrictions(List.of(EffPrint.class), false);
+        logs.clear();
+        items = loadItems(lines, parserState, logs);
+        assertEquals(1, items.size());
+        assertTrue(items.get(0) instanceof EffPrint);
+        assertTrue(logs.get(0).startsWith("Conditionals are not allowed in this section"));
+        assertTrue(logs.get(logs.size() - 1).startsWith("Inline conditions are not allowed in this section"));
+    }
+
+    @Test
+    public void nestedConditionsTest() throws Exception {
+        assertPrints("nested-conditions.sk",
+            "one",
+            "two",
+            "three",
+            "four",
+            "done"
+        );
+    }
+
+    @Test
+    public void compilingSwitchTest() throws Exception {
+        Trigger.setCompiling(false);
+        try {
+            var trigger = loadScript("nested-conditions.sk").get(0);
+            // Triggers loaded this way are only ever walked through
+            assertFalse(trigger.getCompiledCode().isPresent());
+            assertEquals(List.of("one", "two", "three", "four", "done"), run(trigger, false, 5));
+        } finally {
+            Trigger.setCompiling(true);
+        }
+        assertTrue(loadScript("nested-conditions.sk").get(0).getCompiledCode().isPresent());
+    }
+
+    @Test
+    public void lastLoopsTest() throws Exception {
+        // A loop or while that comes last in a section goes on after that section once it is done
+        assertPrints("last-loops.sk",
+            "while",
+            "after while",
+            "inner loop",
+            "inner loop",
+            "after inner loop 1",
+            "inner loop",
+            "inner loop",
+            "after inner loop 2",
+            "after loop",
+            "while in loop",
+            "done"
+        );
+    }
+
+    @Test
+    public void inlineExitsTest() throws Exception {
+        assertPrints("inline-exits.sk",
+            "kept 1",
+            "kept 3",
+            "before exit",
+            "after if",
+            "done"
+        );
+    }
+
+    @Test
+    public void conditionalPruningTest() throws Exception {
+        // The items of a clause that always runs still only leave that clause
+        assertPrints("conditional-pruning.sk",
+            "after if true",
+            "after 1",
+            "inside 2",
+            "after 2",
+            "after 3"
+        );
+    }
+
+    @Test
+    public void waitTest() throws Exception {
+        var trigger = loadScript("wait.sk").get(0);
+        // The code after a wait runs later, so it can only be walked through
+        assertFalse(trigger.getCompiledCode().isPresent());
+        assertEquals(
+            List.of("before wait", "waited 1", "waited 2", "after wait"),
+            run(trigger, false, 4)
+        );
+    }
+
+    @Test
+    public void asyncTest() throws Exception {
+        var trigger = loadScript("async.sk").get(0);
+        assertFalse(trigger.getCompiledCode().isPresent());
+        // The section runs in another thread, so only the order of the lines outside of it is known
+        var lines = run(trigger, false, 3);
+        assertEquals(List.of("after async", "async", "async"), lines.stream().sorted().collect(Collectors.toList()));
+        // A wait stops the section's thread, and hands what comes after it over to yet another thread
+        trigger = loadScript("async-wait.sk").get(0);
+        lines = run(trigger, false, 3);
+        assertEquals(List.of("after async", "after async", "async"), lines.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void parallelLoadingTest() throws Exception {
+        inTemporaryDirectory("parallel-loading-test", root -> {
+            List<Path> scriptPaths = new ArrayList<>();
+            for (var i = 1; i <= 6; i++) {
+                List<String> lines = new ArrayList<>();
+                for (var j = 1; j <= 4; j++) {
+                    lines.add("on script load:");
+                    lines.add("    print \"parallel-" + i + " " + j + "\"");
+                    if ((i + j) % 3 == 0)
+                        lines.add("    this is not an effect " + j);
+                }
+                var scriptPath = root.resolve("parallel-" + i + ".sk");
+                Files.write(scriptPath, lines);
+                scriptPaths.add(scriptPath);
+            }
+            // Whichever thread finishes first, the logs and the triggers come in the same order as when loading sequentially
+            var expected = loadAll(scriptPaths, Runnable::run);
+            var logs = expected.get(0);
+            assertEquals(8, logs.size());
+            assertTrue(logs.get(0).contains("this is not an effect 2") && logs.get(0).contains("parallel-1"));
+            assertTrue(logs.get(7).contains("this is not an effect 3") && logs.get(7).contains("parallel-6"));
+            assertEquals(6 * 4, expected.get(1).size());
+            assertEquals("println \"parallel-1 1\"", expected.get(1).get(0));
+            assertEquals("println \"parallel-6 4\"", expected.get(1).get(6 * 4 - 1));
+            var executor = new ForkJoinPool(4);
+            try {
+                for (var i = 0; i < 10; i++) {
+                    assertEquals(expected, loadAll(scriptPaths, executor));
+                }
+            } finally {
+                executor.shutdown();
+            }
+        });
+    }
+
+    @Test
+    public void scriptCacheTest() throws Exception {
+        inTemporaryDirectory("script-cache-test", root -> {
+            var cacheDirectory = root.resolve("cache");
+            var effect = SyntaxManager.getEffects().get(0);
+            // Two scripts with the same name, in different directories
+            var firstScript = root.resolve("first").resolve("script.sk");
+            var secondScript = root.resolve("second").resolve("script.sk");
+            var firstLines = List.of("on script load:", "    print \"first\"");
+            var secondLines = List.of("on script load:", "    print \"second\"");
+            var firstCache = ScriptCache.load(cacheDirectory, firstScript, firstLines);
+            firstCache.record(2, "effect", "print \"first\"", effect);
+            firstCache.save();
+            var secondCache = ScriptCache.load(cacheDirectory, secondScript, secondLines);
+            secondCache.record(2, "effect", "print \"second\"", effect);
+            secondCache.save();
+            assertTrue(ScriptCache.load(cacheDirectory, firstScript, firstLines)
+                    .getHint(2, "effect", "print \"first\"")
+                    .isPresent());
+            assertTrue(ScriptCache.load(cacheDirectory, secondScript, secondLines)
+                    .getHint(2, "effect", "print \"second\"")
+                    .isPresent());
+            // Once the script is edited, none of its hints are used anymore, even for lines that didn't change
+            var editedLines = List.of("on script load:", "    print \"first\"", "    print \"edited\"");
+            assertTrue(ScriptCache.load(cacheDirectory, firstScript, editedLines)
+                    .getHint(2, "effect", "print \"first\"")
+                    .isEmpty());
+            // The cache file is only written again when the decisions changed
+            firstCache = ScriptCache.load(cacheDirectory, firstScript, firstLines);
+            try (var files = Files.list(cacheDirectory)) {
+                files.forEach(p -> p.toFile().delete());
+            }
+            firstCache.record(2, "effect", "print \"first\"", effect);
+            firstCache.save();
+            try (var files = Files.list(cacheDirectory)) {
+                assertTrue(files.findAny().isEmpty());
+            }
+            firstCache = ScriptCache.load(cacheDirectory, firstScript, firstLines);
+            firstCache.record(2, "effect", "print \"first\"", effect);
+            firstCache.save();
+            try (var files = Files.list(cacheDirectory)) {
+                assertTrue(files.findAny().isPresent());
+            }
+        });
+    }
+}
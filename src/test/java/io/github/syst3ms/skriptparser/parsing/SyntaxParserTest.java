@@ -1,24 +1,38 @@
 package io.github.syst3ms.skriptparser.parsing;
 
+import io.github.syst3ms.skriptparser.Parser;
 import io.github.syst3ms.skriptparser.TestRegistration;
+import io.github.syst3ms.skriptparser.expressions.ExprNumberArithmetic;
+import io.github.syst3ms.skriptparser.lang.Effect;
 import io.github.syst3ms.skriptparser.lang.Expression;
 import io.github.syst3ms.skriptparser.lang.Literal;
 import io.github.syst3ms.skriptparser.lang.SimpleLiteral;
+import io.github.syst3ms.skriptparser.lang.TriggerContext;
 import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import io.github.syst3ms.skriptparser.pattern.PatternParser;
+import io.github.syst3ms.skriptparser.pattern.TextElement;
+import io.github.syst3ms.skriptparser.registration.SkriptRegistration;
 import io.github.syst3ms.skriptparser.types.PatternType;
 import io.github.syst3ms.skriptparser.types.TypeManager;
 import io.github.syst3ms.skriptparser.util.CollectionUtils;
 import io.github.syst3ms.skriptparser.util.math.BigDecimalMath;
 import io.github.syst3ms.skriptparser.util.math.NumberMath;
+import org.jetbrains.annotations.Nullable;
 import org.junit.Test;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.github.syst3ms.skriptparser.lang.TriggerContext.DUMMY;
 import static io.github.syst3ms.skriptparser.parsing.SyntaxParser.*;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 @SuppressWarnings({"unchecked", "ConstantConditions", "OptionalUsedAsFieldOrParameterType"})
@@ -143,6 +157,176 @@ public class SyntaxParserTest {
         );
     }
 
+    @Test
+    public void constantFoldingTest() throws Exception {
+        SkriptLogger logger = new SkriptLogger();
+        ParserState parserState = new ParserState();
+        PatternType<Number> numberType = getType(Number.class, true);
+        assertTrue(parseExpression("6*(6+6*6)-6/6", numberType, parserState, logger).orElseThrow() instanceof Literal);
+        assertTrue(parseExpression("sqrt (2 + 2)", numberType, parserState, logger).orElseThrow() instanceof Literal);
+        assertFalse(parseExpression("{_x} + 1", numberType, parserState, logger).orElseThrow() instanceof Literal);
+        assertTrue(parseBooleanExpression("not (false and true)", SyntaxParser.NOT_CONDITIONAL, parserState, logger).orElseThrow() instanceof Literal);
+        // Only a zero written as is is rejected as a divisor, not one that was folded
+        assertTrue(parseExpression("10 / 0", numberType, parserState, logger).isEmpty());
+        assertExpressionEquals(
+            literal(Double.POSITIVE_INFINITY),
+            parseExpression("10 / (3 - 3)", numberType, parserState, logger)
+        );
+        assertExpressionEquals(
+            literal(new BigDecimal("10")),
+            parseExpression("10 - 1 / 9", numberType, parserState, logger)
+        );
+    }
+
+    @Test
+    public void primitiveArithmeticTest() throws Exception {
+        SkriptLogger logger = new SkriptLogger();
+        ParserState parserState = new ParserState();
+        PatternType<Number> numberType = getType(Number.class, true);
+        // The primitive computations give the same types as the boxed ones
+        assertExpressionTypeEquals(
+            Integer.class,
+            parseExpression("length of \"abcd\"", numberType, parserState, logger)
+        );
+        assertExpressionEquals(
+            literal(8.0),
+            parseExpression("length of \"abcd\" + length of \"abcd\"", numberType, parserState, logger)
+        );
+        assertExpressionEquals(
+            literal(7L),
+            parseExpression("3L + 4L", numberType, parserState, logger)
+        );
+        assertExpressionEquals(
+            literal(new BigDecimal("4")),
+            parseExpression("7L / 2L", numberType, parserState, logger)
+        );
+        assertExpressionEquals(
+            literal(new BigDecimal("2")),
+            parseExpression("length of \"abcd\" / 2L", numberType, parserState, logger)
+        );
+        assertExpressionEquals(
+            literal(3.5),
+            parseExpression("7L / 2D", numberType, parserState, logger)
+        );
+        assertExpressionEquals(
+            literal(BigDecimal.ONE),
+            parseExpression("length of \"abcd\" ^ length of \"\"", numberType, parserState, logger)
+        );
+    }
+
+    @Test
+    public void numericEvaluationTest() {
+        // The operands are only known to be numbers, so their values decide how they are computed
+        var evaluations = new AtomicInteger();
+        assertArrayEquals(new Number[] {5L}, arithmetic(0, numbers(evaluations, 3L), numbers(evaluations, 2L)).getValues(DUMMY));
+        assertArrayEquals(new Number[] {5.0}, arithmetic(0, numbers(evaluations, 3L), numbers(evaluations, 2D)).getValues(DUMMY));
+        assertArrayEquals(
+                new Number[] {BigInteger.valueOf(5)},
+                arithmetic(0, numbers(evaluations, 3L), numbers(evaluations, BigInteger.TWO)).getValues(DUMMY)
+        );
+        // An overflow gives an arbitrary precision result, without computing the operands again
+        evaluations.set(0);
+        var sum = arithmetic(0, numbers(evaluations, Long.MAX_VALUE), numbers(evaluations, 2L));
+        var overflow = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.TWO);
+        assertArrayEquals(new Number[] {overflow}, sum.getValues(DUMMY));
+        assertEquals(2, evaluations.get());
+        // Nested expressions pass their results along, whatever their types
+        evaluations.set(0);
+        assertArrayEquals(
+                new Number[] {overflow.subtract(BigInteger.ONE)},
+                arithmetic(1, sum, numbers(evaluations, 1L)).getValues(DUMMY)
+        );
+        assertEquals(3, evaluations.get());
+        assertArrayEquals(
+                new Number[] {7L},
+                arithmetic(2, arithmetic(0, numbers(evaluations, 1L), numbers(evaluations, 6L)), numbers(evaluations, 1L)).getValues(DUMMY)
+        );
+    }
+
+    /**
+     * @return a single number expression whose values aren't known until they are computed, counting how many times
+     * they are
+     */
+    private static Expression<Number> numbers(AtomicInteger evaluations, Number... values) {
+        return new Expression<>() {
+            @Override
+            public Number[] getValues(TriggerContext ctx) {
+                evaluations.incrementAndGet();
+                return values;
+            }
+
+            @Override
+            public boolean isSingle() {
+                return true;
+            }
+
+            @Override
+            public boolean init(Expression<?>[] expressions, int matchedPattern, ParseContext parseContext) {
+                return true;
+            }
+
+            @Override
+            public String toString(@Nullable TriggerContext ctx, boolean debug) {
+                return "numbers";
+            }
+        };
+    }
+
+    private static ExprNumberArithmetic arithmetic(int pattern, Expression<? extends Number> first, Expression<? extends Number> second) {
+        var expression = new ExprNumberArithmetic();
+        var parseContext = new ParseContext(new ParserState(), new TextElement(""), List.of(), 0, "", new SkriptLogger());
+        assertTrue(expression.init(new Expression[] {first, second}, pattern, parseContext));
+        return expression;
+    }
+
+    @Test
+    public void operatorChainTest() throws Exception {
+        SkriptLogger logger = new SkriptLogger();
+        ParserState parserState = new ParserState();
+        PatternType<Number> numberType = getType(Number.class, true);
+        assertExpressionEquals(
+            literal(BigInteger.valueOf(41)),
+            parseExpression("1" + " + 1".repeat(40), numberType, parserState, logger)
+        );
+        assertExpressionEquals(
+            literal(new BigDecimal("4")),
+            parseExpression("2 * 3 - 4 / 2", numberType, parserState, logger)
+        );
+        assertFalse(parseExpression("{_x}" + " * 2 + 1".repeat(30), numberType, parserState, logger).orElseThrow() instanceof Literal);
+        assertTrue(parseExpression("1" + " + 1".repeat(30) + " +", numberType, parserState, logger).isEmpty());
+        assertExpressionTrue(parseBooleanExpression("false" + " or false".repeat(30) + " or true", SyntaxParser.NOT_CONDITIONAL, parserState, logger));
+    }
+
+    @Test
+    public void conditionalTest() throws Exception {
+        SkriptLogger logger = new SkriptLogger();
+        ParserState parserState = new ParserState();
+        // A condition where none is allowed ends the parse, rather than letting other syntaxes try
+        assertTrue(parseBooleanExpression("1 = 1", SyntaxParser.NOT_CONDITIONAL, parserState, logger).isEmpty());
+        logger.logOutput();
+        var logs = logger.close();
+        assertEquals(1, logs.size());
+        assertTrue(logs.get(0).getMessage().startsWith("The boolean expression must not be conditional"));
+        // Conditions are still allowed as the operands of boolean operators
+        logger = new SkriptLogger();
+        assertExpressionTrue(parseBooleanExpression("1 = 2 or 2 = 2", SyntaxParser.NOT_CONDITIONAL, parserState, logger));
+        assertTrue(parseBooleanExpression("1 = 2 or 2 = 2", SyntaxParser.CONDITIONAL, parserState, logger).isEmpty());
+    }
+
+    @Test
+    public void distinctOperandsTest() {
+        SkriptLogger logger = new SkriptLogger();
+        ParserState parserState = new ParserState();
+        var pattern = new PatternParser().parsePattern("%number% + %number%", logger).orElseThrow();
+        var context = new MatchContext(pattern, parserState, logger);
+        var s = "{_x} + {_x}";
+        assertEquals(s.length(), pattern.match(s, 0, context));
+        // Equal operands are still parsed into two expressions, since they each belong to their own parent
+        var operands = context.getParsedExpressions();
+        assertEquals(2, operands.size());
+        assertNotSame(operands.get(0), operands.get(1));
+    }
+
     /*
     @Test
     public void sectionTest() throws Exception {
@@ -171,4 +355,37 @@ public class SyntaxParserTest {
         assertTrue(Statement.runAll(first, DUMMY));
     }
     */
-}
\ No newline at end of file
+
+    public static class EffThrowing extends Effect {
+        public EffThrowing() {
+            throw new IllegalStateException("Throwing");
+        }
+
+        @Override
+        public boolean init(Expression<?>[] expressions, int matchedPattern, ParseContext parseContext) {
+            return true;
+        }
+
+        @Override
+        protected void execute(TriggerContext ctx) {}
+
+        @Override
+        public String toString(TriggerContext ctx, boolean debug) {
+            return "throw while being created";
+        }
+    }
+
+    @Test
+    public void throwingConstructorTest() {
+        var registration = new SkriptRegistration(Parser.getMainRegistration().getRegisterer());
+        registration.addEffect(EffThrowing.class, "throw while being created");
+        registration.register();
+        // The exception is reported like any syntax that can't be instantiated, and other syntaxes are tried instead
+        var logger = new SkriptLogger();
+        assertTrue(parseEffect("throw while being created", new ParserState(), logger).isEmpty());
+        logger.logOutput();
+        var entries = logger.close();
+        assertTrue(entries.stream().anyMatch(e -> e.getMessage().startsWith("Couldn't instantiate class")));
+        assertTrue(parseEffect("print \"x\"", new ParserState(), new SkriptLogger()).isPresent());
+    }
+}
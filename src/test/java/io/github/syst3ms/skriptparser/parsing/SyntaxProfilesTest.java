@@ -0,0 +1,85 @@
+package io.github.syst3ms.skriptparser.parsing;
+
+import io.github.syst3ms.skriptparser.TestRegistration;
+import io.github.syst3ms.skriptparser.registration.SyntaxManager;
+import io.github.syst3ms.skriptparser.util.SyntaxProfile;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SyntaxProfilesTest {
+
+    static {
+        TestRegistration.register();
+    }
+
+    private <T> List<String> scores(SyntaxProfile<T> profile) {
+        return profile.getElements().stream()
+                .map(info -> info + "=" + profile.getScore(info))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void saveLoadTest() throws Exception {
+        var file = Files.createTempDirectory("syntax-profiles-test").resolve("profiles");
+        // The profiles are global, so whatever other tests taught them is put back afterwards
+        var previous = file.resolveSibling("previous");
+        SyntaxProfiles.save(previous);
+        try {
+            SyntaxProfiles.clear();
+            var effects = SyntaxManager.getEffects();
+            var numbers = SyntaxManager.getExpressionsFor(Number.class);
+            // Scores that decayed differently, and a profile for a given expected type
+            for (var i = 0; i < 3; i++) {
+                SyntaxProfiles.getEffects().acknowledge(effects.get(0));
+                SyntaxProfiles.getEffects().acknowledge(effects.get(1));
+            }
+            SyntaxProfiles.getEffects().acknowledge(effects.get(2));
+            SyntaxProfiles.getEffects().acknowledge(effects.get(0));
+            for (var i = 0; i < numbers.size(); i++) {
+                for (var j = 0; j <= i; j++) {
+                    SyntaxProfiles.getExpressions(Number.class).acknowledge(numbers.get(i));
+                }
+            }
+            var savedEffects = scores(SyntaxProfiles.getEffects());
+            var savedNumbers = scores(SyntaxProfiles.getExpressions(Number.class));
+            SyntaxProfiles.save(file);
+
+            SyntaxProfiles.clear();
+            assertTrue(SyntaxProfiles.isEmpty());
+            SyntaxProfiles.load(file);
+            assertFalse(SyntaxProfiles.isEmpty());
+            assertEquals(savedEffects, scores(SyntaxProfiles.getEffects()));
+            assertEquals(savedNumbers, scores(SyntaxProfiles.getExpressions(Number.class)));
+            // Only the profiles that were saved come back
+            assertTrue(SyntaxProfiles.getSections().getElements().isEmpty());
+            assertTrue(SyntaxProfiles.getExpressions(String.class).getElements().isEmpty());
+
+            // A file that doesn't exist leaves the profiles as they are
+            SyntaxProfiles.clear();
+            SyntaxProfiles.load(file.resolveSibling("missing"));
+            assertTrue(SyntaxProfiles.isEmpty());
+        } finally {
+            SyntaxProfiles.clear();
+            SyntaxProfiles.load(previous);
+            Files.deleteIfExists(file);
+            Files.delete(previous);
+            Files.delete(file.getParent());
+        }
+    }
+
+    @Test
+    public void restoreTest() throws Exception {
+        // saveLoadTest doesn't lose what the profiles learned before it
+        SyntaxProfiles.getEffects().acknowledge(SyntaxManager.getEffects().get(0));
+        var before = scores(SyntaxProfiles.getEffects());
+        saveLoadTest();
+        assertEquals(before, scores(SyntaxProfiles.getEffects()));
+    }
+}
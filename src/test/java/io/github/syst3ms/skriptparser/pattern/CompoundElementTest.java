@@ -0,0 +1,92 @@
+package io.github.syst3ms.skriptparser.pattern;
+
+import io.github.syst3ms.skriptparser.TestRegistration;
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompoundElementTest {
+
+    static {
+        TestRegistration.register();
+    }
+
+    private CompoundElement parse(String pattern) {
+        var element = new PatternParser().parsePattern(pattern, new SkriptLogger()).orElseThrow();
+        assertTrue(pattern, element instanceof CompoundElement);
+        return (CompoundElement) element;
+    }
+
+    @Test
+    public void possibleInputsTest() {
+        var patterns = List.of(
+                "set %objects% to %objects%",
+                "[the] (1:upper|2:lower)case [of] %string%",
+                "(a|b [c]) d [e (f|g)]",
+                "%number% [(+|plus)] %number%",
+                "<[a-z]+> [and] %objects%"
+        );
+        for (var pattern : patterns) {
+            var element = parse(pattern);
+            var elements = element.getElements();
+            assertEquals(pattern, element.toString());
+            for (var i = 0; i <= elements.size(); i++) {
+                // The precomputed inputs are the same as the ones computed on the fly
+                var expected = PatternElement.getPossibleInputs(elements.subList(i, elements.size()));
+                var inputs = element.getPossibleInputs(i);
+                assertEquals(pattern + " at " + i, expected, inputs);
+                assertEquals(inputs, PatternElement.getPossibleInputs(element, i));
+            }
+        }
+    }
+
+    @Test
+    public void followSetTest() {
+        var element = parse("[the] (1:upper|2:lower)case [of] %string%");
+        // Optional groups come after what must come anyway
+        assertEquals(
+                List.of(new TextElement("upper"), new TextElement("lower"), new TextElement("the")),
+                element.getPossibleInputs(0)
+        );
+        assertEquals(List.of(new TextElement("upper"), new TextElement("lower")), element.getPossibleInputs(2));
+        var afterCase = element.getPossibleInputs(4);
+        assertEquals(2, afterCase.size());
+        assertTrue(afterCase.get(0) instanceof ExpressionElement);
+        assertEquals(new TextElement("of"), afterCase.get(1));
+        // Only the end of the line comes after the last element
+        assertEquals(List.of(TextElement.END_OF_LINE), element.getPossibleInputs(element.getElements().size()));
+    }
+
+    @Test
+    public void inputSearcherTest() {
+        var element = parse("set %objects% (to|as) %objects%");
+        for (var i = 0; i <= element.getElements().size(); i++) {
+            var inputs = element.getPossibleInputs(i);
+            var searcher = element.getInputSearcher(i);
+            var found = searcher.findAll("set x to y as z", 0);
+            assertEquals(inputs.size(), found.length);
+            for (var j = 0; j < inputs.size(); j++) {
+                var input = inputs.get(j);
+                // Only text is searched for, the end of line never is
+                if (!(input instanceof TextElement) || input == TextElement.END_OF_LINE)
+                    assertEquals(0, found[j].length);
+            }
+        }
+        // Text is found wherever it occurs, with the case ignored
+        var found = PatternElement.createInputSearcher(List.of(new TextElement("to"), new TextElement("as"))).findAll("set X TO y as z", 0);
+        assertEquals(List.of(6), toList(found[0]));
+        assertEquals(List.of(11), toList(found[1]));
+    }
+
+    private static List<Integer> toList(int[] array) {
+        List<Integer> list = new ArrayList<>();
+        for (var i : array)
+            list.add(i);
+        return list;
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.syst3ms.skriptparser.pattern;
+
+import io.github.syst3ms.skriptparser.TestRegistration;
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import io.github.syst3ms.skriptparser.parsing.MatchContext;
+import io.github.syst3ms.skriptparser.parsing.ParserState;
+import io.github.syst3ms.skriptparser.util.StringUtils;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PatternKeywordsTest {
+
+    static {
+        TestRegistration.register();
+    }
+
+    private PatternElement parse(String pattern) {
+        return new PatternParser().parsePattern(pattern, new SkriptLogger()).orElseThrow();
+    }
+
+    private boolean mayMatch(String pattern, String s) {
+        return PatternKeywords.of(parse(pattern)).mayMatch(StringUtils.foldCase(s));
+    }
+
+    private boolean matches(PatternElement element, String s) {
+        return element.match(s, 0, new MatchContext(element, new ParserState(), new SkriptLogger())) == s.length();
+    }
+
+    @Test
+    public void textTest() {
+        assertTrue(mayMatch("set %objects% to %objects%", "set {_x} to 2"));
+        assertTrue(mayMatch("set %objects% to %objects%", "SET {_x} TO 2"));
+        assertFalse(mayMatch("set %objects% to %objects%", "set {_x} as 2"));
+        // Too short to contain all of the text of the pattern
+        assertFalse(mayMatch("length of %string%", "lengthof"));
+    }
+
+    @Test
+    public void optionalGroupTest() {
+        // Optional groups aren't required, even when they hold text
+        assertTrue(mayMatch("[the] length of %string%", "length of \"a\""));
+        assertTrue(mayMatch("[the] length of %string%", "the length of \"a\""));
+        assertTrue(mayMatch("length of [the string] %string%", "length of \"a\""));
+        assertFalse(mayMatch("[the] length of %string%", "the size of \"a\""));
+        // Text outside of a nested optional group is still required
+        assertTrue(mayMatch("[the [final]] length of %string%", "length of \"a\""));
+    }
+
+    @Test
+    public void choiceGroupTest() {
+        // One of the branches must be there
+        assertTrue(mayMatch("(add|give) %objects% to %objects%", "add 1 to {_x::*}"));
+        assertTrue(mayMatch("(add|give) %objects% to %objects%", "give 1 to {_x::*}"));
+        assertFalse(mayMatch("(add|give) %objects% to %objects%", "put 1 to {_x::*}"));
+        // Parse marks don't change the required words
+        assertTrue(mayMatch("(1:upper|2:lower)case %string%", "lowercase \"a\""));
+        assertFalse(mayMatch("(1:upper|2:lower)case %string%", "titlecase \"a\""));
+        // A branch that doesn't require anything makes the whole group optional
+        assertTrue(mayMatch("(add|[give]) %objects% to %objects%", "1 to {_x::*}"));
+        assertTrue(mayMatch("(add|%objects% and) %objects% to %objects%", "1 and 2 to {_x::*}"));
+        assertTrue(mayMatch("(a b|c) %objects%", "a b 1"));
+        assertTrue(mayMatch("(a b|c) %objects%", "c 1"));
+        assertFalse(mayMatch("(a b|c) %objects%", "b 1"));
+        // The shortest branch decides the minimum length
+        assertTrue(mayMatch("(longer|x)", "x"));
+    }
+
+    @Test
+    public void soundnessTest() {
+        // A pattern is never ruled out for a string it matches
+        var patterns = List.of(
+                "[the] (1:upper|2:lower)case [of] %string%",
+                "(a|b [c]) d",
+                "%number% (+|plus) %number%"
+        );
+        var strings = List.of(
+                "uppercase \"a\"", "the lowercase of \"a\"", "LOWERCASE \"A\"",
+                "a d", "b d", "b c d", "c d", "a b d",
+                "1 + 2", "1 plus 2", "1 PLUS 2", "1 - 2"
+        );
+        var matched = 0;
+        for (var pattern : patterns) {
+            var element = parse(pattern);
+            var keywords = PatternKeywords.of(element);
+            for (var s : strings) {
+                if (matches(element, s)) {
+                    matched++;
+                    assertTrue(pattern + " was ruled out for " + s, keywords.mayMatch(StringUtils.foldCase(s)));
+                }
+            }
+        }
+        assertEquals(9, matched);
+    }
+}
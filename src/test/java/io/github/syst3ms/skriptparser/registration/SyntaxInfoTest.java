@@ -0,0 +1,53 @@
+package io.github.syst3ms.skriptparser.registration;
+
+import io.github.syst3ms.skriptparser.Parser;
+import io.github.syst3ms.skriptparser.TestRegistration;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SyntaxInfoTest {
+
+    static {
+        TestRegistration.register();
+    }
+
+    private static class Private {
+        private Private() {}
+    }
+
+    private static class Throwing {
+        Throwing() {
+            throw new IllegalStateException("Throwing");
+        }
+    }
+
+    private abstract static class Abstract {}
+
+    private static class NoDefault {
+        NoDefault(String s) {}
+    }
+
+    private static <C> SyntaxInfo<C> info(Class<C> c) {
+        return new SyntaxInfo<>(c, List.of(), 5, Parser.getMainRegistration().getRegisterer());
+    }
+
+    @Test
+    public void newInstanceTest() {
+        assertTrue(info(Private.class).newInstance().orElseThrow() instanceof Private);
+        // Classes without a constructor to call are the only ones that can't be instantiated
+        assertTrue(info(Abstract.class).newInstance().isEmpty());
+        assertTrue(info(NoDefault.class).newInstance().isEmpty());
+        // Exceptions from the constructor itself aren't hidden
+        try {
+            info(Throwing.class).newInstance();
+            fail("The exception from the constructor was swallowed");
+        } catch (IllegalStateException e) {
+            assertEquals("Throwing", e.getMessage());
+        }
+    }
+}
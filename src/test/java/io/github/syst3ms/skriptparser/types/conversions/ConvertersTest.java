@@ -0,0 +1,156 @@
+package io.github.syst3ms.skriptparser.types.conversions;
+
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ConvertersTest {
+
+    /*
+     * Classes that no other converter deals with, each remembering the classes its value went through
+     */
+    private static class A {
+        final String path;
+
+        A(String path) {
+            this.path = path;
+        }
+    }
+
+    private static class B extends A {
+        B(String path) {
+            super(path);
+        }
+    }
+
+    private static class C extends A {
+        C(String path) {
+            super(path);
+        }
+    }
+
+    private static class D extends A {
+        D(String path) {
+            super(path);
+        }
+    }
+
+    private static class E extends A {
+        E(String path) {
+            super(path);
+        }
+    }
+
+    private static class F extends A {
+        F(String path) {
+            super(path);
+        }
+    }
+
+    private static class G extends A {
+        G(String path) {
+            super(path);
+        }
+    }
+
+    private static class H extends A {
+        H(String path) {
+            super(path);
+        }
+    }
+
+    private static class I extends A {
+        I(String path) {
+            super(path);
+        }
+    }
+
+    private static class SubG extends G {
+        SubG(String path) {
+            super(path);
+        }
+    }
+
+    private static class J extends A {
+        J(String path) {
+            super(path);
+        }
+    }
+
+    private static class K extends A {
+        K(String path) {
+            super(path);
+        }
+    }
+
+    private String convert(A value, Class<? extends A> to) {
+        return Converters.convert(value, to).map(a -> a.path).orElse(null);
+    }
+
+    @Test
+    public void chainingFlagsTest() {
+        // B -> C may only start a chain, and D -> E may only end one
+        Converters.registerConverter(B.class, C.class, b -> Optional.of(new C(b.path + "C")), Converters.NO_LEFT_CHAINING);
+        Converters.registerConverter(C.class, D.class, c -> Optional.of(new D(c.path + "D")));
+        Converters.registerConverter(D.class, E.class, d -> Optional.of(new E(d.path + "E")), Converters.NO_RIGHT_CHAINING);
+        Converters.registerConverter(E.class, F.class, e -> Optional.of(new F(e.path + "F")));
+        Converters.registerConverter(F.class, B.class, f -> Optional.of(new B(f.path + "B")));
+        Converters.createMissingConverters();
+        try {
+            // Chains starting with B -> C, or ending with D -> E
+            assertEquals("BCD", convert(new B("B"), D.class));
+            assertEquals("BCDE", convert(new B("B"), E.class));
+            assertEquals("CDE", convert(new C("C"), E.class));
+            // B -> C can't come after F -> B
+            assertFalse(Converters.converterExists(F.class, C.class));
+            assertFalse(Converters.converterExists(F.class, D.class));
+            assertFalse(Converters.converterExists(E.class, C.class));
+            // E -> F can't come after D -> E
+            assertFalse(Converters.converterExists(D.class, F.class));
+            assertFalse(Converters.converterExists(C.class, F.class));
+            assertFalse(Converters.converterExists(B.class, F.class));
+            // Chains without these converters in the way are unaffected
+            assertEquals("EFB", convert(new E("E"), B.class));
+            assertTrue(Converters.converterExists(E.class, B.class));
+        } finally {
+            // The converters are global, so other tests mustn't see these ones
+            Converters.removeConverters(info -> A.class.isAssignableFrom(info.getFrom()));
+        }
+    }
+
+    @Test
+    public void redundantChainsTest() {
+        Converters.registerConverter(G.class, H.class, g -> Optional.of(new H(g.path + "H")));
+        Converters.registerConverter(H.class, I.class, h -> Optional.of(new I(h.path + "I")));
+        Converters.registerConverter(SubG.class, I.class, g -> Optional.of(new I(g.path + "I")));
+        Converters.createMissingConverters();
+        try {
+            assertEquals("SubGI", convert(new SubG("SubG"), I.class));
+            // Just like registering G -> I would be refused, since SubG -> I already exists, no chain is added for it
+            assertNull(convert(new G("G"), I.class));
+        } finally {
+            Converters.removeConverters(info -> A.class.isAssignableFrom(info.getFrom()));
+        }
+    }
+
+    @Test
+    public void cacheInvalidationTest() {
+        try {
+            // The missing converter is cached, and must be forgotten once it is registered
+            assertFalse(Converters.getConverter(J.class, K.class).isPresent());
+            assertNull(convert(new J("J"), K.class));
+            Converters.registerConverter(J.class, K.class, j -> Optional.of(new K(j.path + "K")));
+            assertTrue(Converters.getConverter(J.class, K.class).isPresent());
+            assertEquals("JK", convert(new J("J"), K.class));
+        } finally {
+            Converters.removeConverters(info -> A.class.isAssignableFrom(info.getFrom()));
+        }
+        // Removing it must also be noticed
+        assertFalse(Converters.getConverter(J.class, K.class).isPresent());
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.syst3ms.skriptparser.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ClassPairCacheTest {
+
+    @Test
+    public void getTest() {
+        var cache = new ClassPairCache<String>();
+        var computations = new AtomicInteger();
+        for (var i = 0; i < 3; i++) {
+            assertEquals("String -> Integer", cache.get(String.class, Integer.class, (f, s) -> {
+                computations.incrementAndGet();
+                return f.getSimpleName() + " -> " + s.getSimpleName();
+            }));
+        }
+        assertEquals(1, computations.get());
+        // The order of the classes matters
+        assertEquals("Integer -> String", cache.get(Integer.class, String.class, (f, s) -> f.getSimpleName() + " -> " + s.getSimpleName()));
+        assertEquals("String -> String", cache.get(String.class, String.class, (f, s) -> f.getSimpleName() + " -> " + s.getSimpleName()));
+        // Known values are returned as they are
+        var first = cache.get(Object.class, Object.class, (f, s) -> new String("value"));
+        assertSame(first, cache.get(Object.class, Object.class, (f, s) -> new String("value")));
+    }
+
+    @Test
+    public void clearTest() {
+        var cache = new ClassPairCache<Integer>();
+        var computations = new AtomicInteger();
+        assertEquals(1, (int) cache.get(String.class, Integer.class, (f, s) -> computations.incrementAndGet()));
+        assertEquals(1, (int) cache.get(String.class, Integer.class, (f, s) -> computations.incrementAndGet()));
+        cache.clear();
+        assertEquals(2, (int) cache.get(String.class, Integer.class, (f, s) -> computations.incrementAndGet()));
+        assertEquals(2, (int) cache.get(String.class, Integer.class, (f, s) -> computations.incrementAndGet()));
+    }
+}
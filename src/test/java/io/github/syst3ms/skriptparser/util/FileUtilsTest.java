@@ -0,0 +1,130 @@
+package io.github.syst3ms.skriptparser.util;
+
+import io.github.syst3ms.skriptparser.log.SkriptLogger;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FileUtilsTest {
+    private static final String ROOT_PACKAGE = "io.github.syst3ms.skriptparser";
+    private static final Set<String> LOADED = ConcurrentHashMap.newKeySet();
+
+    /*
+     * Classes that remember being loaded. Each test uses its own, since a class is only initialized once.
+     */
+    static class Indexed {
+        static {
+            LOADED.add("Indexed");
+        }
+    }
+
+    static class NotIndexed {
+        static {
+            LOADED.add("NotIndexed");
+        }
+    }
+
+    static class Outdated {
+        static {
+            LOADED.add("Outdated");
+        }
+    }
+
+    static class Failing {
+        static {
+            LOADED.add("Failing");
+            if (LOADED.contains("Failing"))
+                throw new IllegalStateException("Failing");
+        }
+    }
+
+    @FunctionalInterface
+    private interface ClassLoaderTest {
+        void run(ClassLoader classLoader) throws IOException;
+    }
+
+    /**
+     * Runs the test with a class loader whose only registration index lists the given classes, or that has no index
+     * at all if none are given. Indexes of the actual classpath are hidden, but its classes are still found.
+     */
+    private static void withIndex(List<String> classNames, ClassLoaderTest test) throws IOException {
+        var directory = Files.createTempDirectory("skript-parser-index");
+        try {
+            if (!classNames.isEmpty()) {
+                var index = directory.resolve(FileUtils.REGISTRATION_INDEX);
+                Files.createDirectories(index.getParent());
+                Files.write(index, classNames, StandardCharsets.UTF_8);
+            }
+            try (var classLoader = new URLClassLoader(new URL[] {directory.toUri().toURL()}, FileUtilsTest.class.getClassLoader()) {
+                @Override
+                public Enumeration<URL> getResources(String name) throws IOException {
+                    return findResources(name);
+                }
+            }) {
+                test.run(classLoader);
+            }
+        } finally {
+            try (var files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    public void indexTest() throws IOException {
+        withIndex(List.of(Indexed.class.getName()), classLoader -> {
+            assertTrue(FileUtils.loadIndexedClasses(classLoader, ROOT_PACKAGE, new SkriptLogger(), "util"));
+            assertTrue(LOADED.contains("Indexed"));
+            // Only what the index lists is loaded, nothing gets scanned
+            assertFalse(LOADED.contains("NotIndexed"));
+        });
+    }
+
+    @Test
+    public void missingIndexTest() throws IOException {
+        // Without an index listing the package, loading falls back to scanning
+        withIndex(List.of(), classLoader -> assertFalse(FileUtils.loadIndexedClasses(classLoader, ROOT_PACKAGE, new SkriptLogger(), "util")));
+        withIndex(
+                List.of("com.example.effects.EffExample"),
+                classLoader -> assertFalse(FileUtils.loadIndexedClasses(classLoader, ROOT_PACKAGE, new SkriptLogger(), "util"))
+        );
+        assertFalse(LOADED.contains("NotIndexed"));
+    }
+
+    @Test
+    public void staleIndexTest() throws IOException {
+        // A class that was removed since the index was generated means the index is out of date
+        withIndex(
+                List.of(Outdated.class.getName(), FileUtilsTest.class.getName() + "$Removed"),
+                classLoader -> assertFalse(FileUtils.loadIndexedClasses(classLoader, ROOT_PACKAGE, new SkriptLogger(), "util"))
+        );
+        assertTrue(LOADED.contains("Outdated"));
+        assertFalse(LOADED.contains("NotIndexed"));
+    }
+
+    @Test
+    public void failingClassTest() throws IOException {
+        // A class failing to initialize is reported to the logger, and doesn't make the index look out of date
+        var logger = new SkriptLogger();
+        withIndex(
+                List.of(FileUtilsTest.class.getName() + "$Failing"),
+                classLoader -> assertTrue(FileUtils.loadIndexedClasses(classLoader, ROOT_PACKAGE, logger, "util"))
+        );
+        var logs = logger.close();
+        assertEquals(1, logs.size());
+        assertTrue(logs.get(0).getMessage().startsWith("Couldn't initialize class '" + FileUtilsTest.class.getName() + "$Failing'"));
+    }
+}
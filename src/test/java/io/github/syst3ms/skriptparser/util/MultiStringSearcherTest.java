@@ -0,0 +1,78 @@
+package io.github.syst3ms.skriptparser.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MultiStringSearcherTest {
+
+    /**
+     * The occurrences of a needle as found one by one, the way the searcher should find all of them at once
+     */
+    private static int[] naiveFind(String haystack, String needle, int start) {
+        List<Integer> found = new ArrayList<>();
+        var index = StringUtils.indexOfIgnoreCase(haystack, needle, start);
+        while (index != -1) {
+            found.add(index);
+            index = StringUtils.indexOfIgnoreCase(haystack, needle, index + 1);
+        }
+        return found.stream().mapToInt(i -> i).toArray();
+    }
+
+    private static void assertFinds(String[] needles, String haystack, int start) {
+        var found = new MultiStringSearcher(needles).findAll(haystack, start);
+        assertEquals(needles.length, found.length);
+        for (var i = 0; i < needles.length; i++) {
+            assertArrayEquals(needles[i] + " in " + haystack, naiveFind(haystack, needles[i], start), found[i]);
+        }
+    }
+
+    @Test
+    public void findAllTest() {
+        assertFinds(new String[] {"to", "from"}, "set x to y from z to w", 0);
+        assertFinds(new String[] {"to", "from"}, "set x to y from z to w", 7);
+        assertFinds(new String[] {"TO"}, "set X to Y", 0);
+        assertFinds(new String[] {"and", "or"}, "nothing here", 0);
+    }
+
+    @Test
+    public void overlappingTest() {
+        // A needle overlapping itself
+        assertArrayEquals(new int[] {0, 1, 2}, new MultiStringSearcher(new String[] {"aa"}).findAll("aaaa", 0)[0]);
+        assertFinds(new String[] {"aba", "bab"}, "abababa", 0);
+        assertFinds(new String[] {"she", "he", "hers", "his"}, "ushers and his sheep", 0);
+        // The fallback of a state must be taken when a longer needle breaks off
+        assertFinds(new String[] {"abcd", "bcx"}, "abcx abcd", 0);
+    }
+
+    @Test
+    public void prefixTest() {
+        // Needles that are prefixes or suffixes of each other are all found
+        assertFinds(new String[] {"a", "ab", "abc"}, "abcabab", 0);
+        assertFinds(new String[] {"abc", "bc", "c"}, "abcbc", 0);
+        assertFinds(new String[] {"is", "is not", "is not a"}, "x is not a y, x is y", 0);
+        // The same needle twice is found twice
+        var found = new MultiStringSearcher(new String[] {"of", "OF"}).findAll("length of x", 0);
+        assertArrayEquals(new int[] {7}, found[0]);
+        assertArrayEquals(new int[] {7}, found[1]);
+    }
+
+    @Test
+    public void emptyNeedlesTest() {
+        assertTrue(new MultiStringSearcher(new String[0]).isEmpty());
+        var searcher = new MultiStringSearcher(new String[] {null, "", "x"});
+        assertFalse(searcher.isEmpty());
+        var found = searcher.findAll("x x", 0);
+        assertArrayEquals(new int[0], found[0]);
+        assertArrayEquals(new int[0], found[1]);
+        assertArrayEquals(new int[] {0, 2}, found[2]);
+        assertTrue(new MultiStringSearcher(new String[] {null, ""}).isEmpty());
+        assertEquals(2, new MultiStringSearcher(new String[] {null, ""}).findAll("x", 0).length);
+    }
+}
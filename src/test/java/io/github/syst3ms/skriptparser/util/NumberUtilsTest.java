@@ -0,0 +1,90 @@
+package io.github.syst3ms.skriptparser.util;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class NumberUtilsTest {
+    private static final String[] STRINGS = {
+            "", "0", "-0", "+0", "1", "-1", "+1", "42", "-", "+", "--1", "+-1", "1-", " 1", "1 ", "a", "1a",
+            // Overflow
+            "9223372036854775807", "-9223372036854775808", "9223372036854775808", "-9223372036854775809",
+            "999999999999999999", "1000000000000000000", "00000000000000000000000001", "123456789012345678901234567890",
+            // Decimals
+            "1.5", "-1.5", "+1.5", ".5", "-.5", "5.", "-5.", ".", "-.", "1..5", "1.5.", "0.000",
+            // Exponents
+            "1e5", "1E5", "1e+5", "1e-5", "-1.5e-5", ".5e1", "5.e1", "1e", "1e+", "e5", ".e5", "1e5.5", "1e5e5",
+            "1e2147483647", "1e2147483648", "1e-2147483648", "1e-2147483649", "1.5e-2147483647", "1e99999999999999999999",
+            // Only accepted by some of the parsers
+            "1f", "1.5d", "1.5F", "NaN", "Infinity", "-Infinity", "+NaN", "nan", " 1.5 ", "\t2\n", "0x10", "1_000",
+            // Non ASCII digits
+            "١٢", "١.٢"
+    };
+
+    private static <T> T parseOrNull(String s, Function<String, T> parser) {
+        try {
+            return parser.apply(s);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Test
+    public void parseLongTest() {
+        for (var s : STRINGS) {
+            assertEquals(s, parseOrNull(s, Long::parseLong), NumberUtils.parseLong(s));
+        }
+        assertEquals(Long.MAX_VALUE, (long) NumberUtils.parseLong("9223372036854775807"));
+        assertEquals(Long.MIN_VALUE, (long) NumberUtils.parseLong("-9223372036854775808"));
+        assertNull(NumberUtils.parseLong("9223372036854775808"));
+    }
+
+    @Test
+    public void parseBigIntegerTest() {
+        for (var s : STRINGS) {
+            assertEquals(s, parseOrNull(s, BigInteger::new), NumberUtils.parseBigInteger(s));
+        }
+    }
+
+    @Test
+    public void parseBigDecimalTest() {
+        for (var s : STRINGS) {
+            assertEquals(s, parseOrNull(s, BigDecimal::new), NumberUtils.parseBigDecimal(s));
+        }
+        // The scale is kept, like the constructor does
+        assertEquals(new BigDecimal("5."), NumberUtils.parseBigDecimal("5."));
+        assertEquals(new BigDecimal("0.50"), NumberUtils.parseBigDecimal(".50"));
+    }
+
+    @Test
+    public void parseDoubleTest() {
+        for (var s : STRINGS) {
+            assertEquals(s, parseOrNull(s, Double::valueOf), NumberUtils.parseDouble(s));
+        }
+        assertEquals(0.5, NumberUtils.parseDouble(".5"), 0);
+        assertEquals(5, NumberUtils.parseDouble("5."), 0);
+        assertEquals(Double.POSITIVE_INFINITY, NumberUtils.parseDouble("1e400"), 0);
+        assertNull(NumberUtils.parseDouble("0x1p3"));
+    }
+
+    @Test
+    public void mayBeNumberTest() {
+        // Never rules out something that one of the parsers accepts
+        for (var s : STRINGS) {
+            if (NumberUtils.parseLong(s) != null || NumberUtils.parseBigInteger(s) != null)
+                assertTrue(s, NumberUtils.mayBeInteger(s));
+            if (NumberUtils.parseBigDecimal(s) != null || NumberUtils.parseDouble(s) != null)
+                assertTrue(s, NumberUtils.mayBeNumber(s));
+        }
+        assertFalse(NumberUtils.mayBeNumber(""));
+        assertFalse(NumberUtils.mayBeNumber("abc"));
+        assertFalse(NumberUtils.mayBeInteger(".5"));
+    }
+}